@@ -0,0 +1,69 @@
+package edu.kit.datamanager.ro_crate;
+
+import java.util.Collection;
+
+/**
+ * Options for adding many entities to a crate at once, see
+ * {@link RoCrate#addAll(Collection, BulkOptions)}.
+ * <p>
+ * Instances are immutable; the {@code with*} methods return modified
+ * copies.
+ */
+public class BulkOptions {
+
+  private static final String ROOT_ID = "./";
+
+  private final String parentId;
+  private final boolean contextCheck;
+
+  private BulkOptions(String parentId, boolean contextCheck) {
+    this.parentId = parentId;
+    this.contextCheck = contextCheck;
+  }
+
+  /**
+   * @return the default options: data entities become parts of the root
+   * data entity, and the context is checked.
+   */
+  public static BulkOptions defaults() {
+    return new BulkOptions(ROOT_ID, true);
+  }
+
+  /**
+   * Sets the dataset the added data entities become parts of.
+   *
+   * @param parentId the id of the dataset ("./" for the root data entity),
+   *                 or null to not link the data entities to any dataset.
+   * @return the modified options.
+   */
+  public BulkOptions withParentId(String parentId) {
+    return new BulkOptions(parentId, this.contextCheck);
+  }
+
+  /**
+   * Sets whether the types and property names of the entities are checked
+   * against the context of the crate. Each distinct term is checked once.
+   * Disable it only for entities known to be valid, e.g. generated by the
+   * same code as before.
+   *
+   * @param contextCheck false to skip the check.
+   * @return the modified options.
+   */
+  public BulkOptions withContextCheck(boolean contextCheck) {
+    return new BulkOptions(this.parentId, contextCheck);
+  }
+
+  /**
+   * @return the id of the parent dataset, or null.
+   */
+  public String getParentId() {
+    return parentId;
+  }
+
+  /**
+   * @return whether the context is checked.
+   */
+  public boolean isContextCheck() {
+    return contextCheck;
+  }
+}
@@ -1,10 +1,23 @@
 package edu.kit.datamanager.ro_crate;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import edu.kit.datamanager.ro_crate.context.CrateMetadataContext;
 import edu.kit.datamanager.ro_crate.hierarchy.HierarchyRecognitionConfig;
@@ -14,6 +27,7 @@ import edu.kit.datamanager.ro_crate.entities.contextual.ContextualEntity;
 import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
 import edu.kit.datamanager.ro_crate.entities.data.DataSetEntity;
 import edu.kit.datamanager.ro_crate.entities.data.RootDataEntity;
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
 import edu.kit.datamanager.ro_crate.preview.CratePreview;
 import edu.kit.datamanager.ro_crate.special.CrateVersion;
 
@@ -106,6 +120,47 @@ public interface Crate {
 
   String getJsonMetadata();
 
+  /**
+   * Returns the metadata of this crate (the content of the
+   * ro-crate-metadata.json file) as JSON tree. Changes to the tree do not
+   * affect the crate.
+   * <p>
+   * The default implementation parses {@link #getJsonMetadata()};
+   * implementations may build the tree without the detour via a String.
+   *
+   * @return the metadata as JSON object.
+   */
+  default ObjectNode getJsonMetadataTree() {
+    try {
+      return (ObjectNode) MyObjectMapper.getMapper().readTree(this.getJsonMetadata());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("The metadata of the crate is not valid JSON.", e);
+    }
+  }
+
+  /**
+   * Writes the metadata of this crate (the content of the
+   * ro-crate-metadata.json file) as UTF-8 to the given stream.
+   * <p>
+   * The stream will not be closed. The default implementation is based on
+   * {@link #getJsonMetadata()}; implementations may write the metadata
+   * without building it in memory first.
+   *
+   * @param outputStream the stream to write to.
+   * @param pretty       whether the output should be indented.
+   * @throws IOException if writing to the stream fails.
+   */
+  default void writeJsonMetadata(OutputStream outputStream, boolean pretty) throws IOException {
+    if (pretty) {
+      ObjectMapper objectMapper = MyObjectMapper.getMapper();
+      objectMapper.writerWithDefaultPrettyPrinter()
+          .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+          .writeValue(outputStream, objectMapper.readTree(this.getJsonMetadata()));
+    } else {
+      outputStream.write(this.getJsonMetadata().getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
   /**
    * Gets a data entity by its ID.
    * @param id the ID of the data entity
@@ -120,14 +175,111 @@ public interface Crate {
    */
   Optional<DataSetEntity> getDataSetById(String id);
 
+  /**
+   * @return a new set containing all data entities, excluding the root data
+   * entity. Prefer {@link #getDataEntitiesView()} or
+   * {@link #streamDataEntities()} if no copy is required.
+   */
   Set<DataEntity> getAllDataEntities();
 
+  /**
+   * Returns an unmodifiable, live view of the data entities, excluding the
+   * root data entity. No entities are copied. The crate must not be
+   * modified while iterating over the view. The default implementation
+   * returns a copy.
+   *
+   * @return the data entities of the crate.
+   */
+  default Collection<DataEntity> getDataEntitiesView() {
+    return Collections.unmodifiableCollection(this.getAllDataEntities());
+  }
+
+  /**
+   * @return a stream of the data entities, excluding the root data entity.
+   * The crate must not be modified while the stream is consumed.
+   */
+  default Stream<DataEntity> streamDataEntities() {
+    return this.getDataEntitiesView().stream();
+  }
+
   ContextualEntity getContextualEntityById(String id);
 
+  /**
+   * @return a new set containing all contextual entities, excluding the
+   * metadata descriptor. Prefer {@link #getContextualEntitiesView()} or
+   * {@link #streamContextualEntities()} if no copy is required.
+   */
   Set<ContextualEntity> getAllContextualEntities();
 
+  /**
+   * Returns an unmodifiable, live view of the contextual entities, excluding
+   * the metadata descriptor. No entities are copied. The crate must not be
+   * modified while iterating over the view. The default implementation
+   * returns a copy.
+   *
+   * @return the contextual entities of the crate.
+   */
+  default Collection<ContextualEntity> getContextualEntitiesView() {
+    return Collections.unmodifiableCollection(this.getAllContextualEntities());
+  }
+
+  /**
+   * @return a stream of the contextual entities, excluding the metadata
+   * descriptor. The crate must not be modified while the stream is consumed.
+   */
+  default Stream<ContextualEntity> streamContextualEntities() {
+    return this.getContextualEntitiesView().stream();
+  }
+
   AbstractEntity getEntityById(String id);
 
+  /**
+   * Finds all data and contextual entities with the given type. The root
+   * data entity and the metadata descriptor are not considered.
+   * <p>
+   * The default implementation iterates over all entities.
+   *
+   * @param type the type, e.g. "Person".
+   * @return the entities with this type. May be empty.
+   */
+  default Set<AbstractEntity> findByType(String type) {
+    return Stream.<AbstractEntity>concat(this.streamDataEntities(), this.streamContextualEntities())
+        .filter(entity -> entity.getTypes() != null && entity.getTypes().contains(type))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Finds all data and contextual entities with the given property value.
+   * For references to other entities, the value is the id of the referenced
+   * entity (e.g. all files with a given author). If the property has
+   * multiple values, one of them has to match. The root data entity and the
+   * metadata descriptor are not considered.
+   * <p>
+   * The default implementation iterates over all entities.
+   *
+   * @param property the name of the property, e.g. "encodingFormat".
+   * @param value    the value or referenced id.
+   * @return the entities with this property value. May be empty.
+   */
+  default Set<AbstractEntity> findByProperty(String property, String value) {
+    return Stream.<AbstractEntity>concat(this.streamDataEntities(), this.streamContextualEntities())
+        .filter(entity -> {
+          JsonNode node = entity.readProperty(property);
+          if (node == null) {
+            return false;
+          }
+          Iterable<JsonNode> values = node.isArray() ? node : List.of(node);
+          for (JsonNode element : values) {
+            String text = element.isValueNode() ? element.asText() : element.path("@id").asText(null);
+            if (value.equals(text)) {
+              return true;
+            }
+          }
+          return false;
+        })
+        .collect(Collectors.toSet());
+  }
+
   /**
    * Adds a data entity to the crate.
    *
@@ -149,6 +301,20 @@ public interface Crate {
 
   void deleteEntityById(String entityId);
 
+  /**
+   * Deletes all entities with the given ids, including the references of
+   * other entities to them. Implementations may do this faster than
+   * deleting the entities one by one, which the default implementation
+   * does.
+   *
+   * @param entityIds the ids of the entities to delete.
+   */
+  default void deleteEntitiesById(Collection<String> entityIds) {
+    for (String entityId : entityIds) {
+      this.deleteEntityById(entityId);
+    }
+  }
+
   void setUntrackedFiles(Collection<File> files);
 
   /**
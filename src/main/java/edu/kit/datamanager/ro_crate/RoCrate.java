@@ -1,8 +1,11 @@
 package edu.kit.datamanager.ro_crate;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.TreeNode;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.datamanager.ro_crate.context.CrateMetadataContext;
 import edu.kit.datamanager.ro_crate.context.RoCrateMetadataContext;
@@ -17,18 +20,26 @@ import edu.kit.datamanager.ro_crate.entities.data.DataSetEntity;
 import edu.kit.datamanager.ro_crate.entities.data.RootDataEntity;
 import edu.kit.datamanager.ro_crate.externalproviders.dataentities.ImportFromDataCite;
 import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+import edu.kit.datamanager.ro_crate.payload.ChangeJournal;
+import edu.kit.datamanager.ro_crate.payload.ConcurrentRoCratePayload;
 import edu.kit.datamanager.ro_crate.payload.CratePayload;
 import edu.kit.datamanager.ro_crate.payload.RoCratePayload;
 import edu.kit.datamanager.ro_crate.preview.CratePreview;
 import edu.kit.datamanager.ro_crate.preview.CustomPreview;
 import edu.kit.datamanager.ro_crate.special.CrateVersion;
-import edu.kit.datamanager.ro_crate.special.JsonUtilFunctions;
 import edu.kit.datamanager.ro_crate.validation.JsonSchemaValidation;
 import edu.kit.datamanager.ro_crate.validation.Validator;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
@@ -147,7 +158,7 @@ public class RoCrate implements Crate {
 
     @Override
     public Optional<CrateVersion> getVersion() {
-        JsonNode conformsTo = this.jsonDescriptor.getProperty("conformsTo");
+        JsonNode conformsTo = this.jsonDescriptor.readProperty("conformsTo");
         if (conformsTo.isArray()) {
             return StreamSupport.stream(conformsTo.spliterator(), false)
                 .filter(TreeNode::isObject)
@@ -165,7 +176,7 @@ public class RoCrate implements Crate {
 
     @Override
     public Collection<String> getProfiles() {
-        JsonNode conformsTo = this.jsonDescriptor.getProperty("conformsTo");
+        JsonNode conformsTo = this.jsonDescriptor.readProperty("conformsTo");
         if (conformsTo.isArray()) {
             return StreamSupport.stream(conformsTo.spliterator(), false)
                 .filter(TreeNode::isObject)
@@ -176,31 +187,82 @@ public class RoCrate implements Crate {
         }
     }
 
+    /**
+     * Returns the metadata of this crate as a JSON string.
+     * <p>
+     * The entities of the payload are cached in their serialized form and
+     * only serialized again if they changed since the last call.
+     *
+     * @return the metadata as (compact) JSON string.
+     */
     @Override
     public String getJsonMetadata() {
+        StringWriter result = new StringWriter();
+        try (JsonGenerator generator = MyObjectMapper.getMapper().getFactory().createGenerator(result)) {
+            this.writeJsonMetadata(generator);
+        } catch (IOException e) {
+            // writing to a StringWriter does not fail for IO reasons
+            throw new UncheckedIOException(e);
+        }
+        return result.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The tree is built from the entities directly, without serializing the
+     * metadata to a String first.
+     */
+    @Override
+    public ObjectNode getJsonMetadataTree() {
         ObjectMapper objectMapper = MyObjectMapper.getMapper();
-        ObjectNode node = objectMapper.createObjectNode();
-
-        node.setAll(this.metadataContext.getContextJsonEntity());
-
-        var graph = objectMapper.createArrayNode();
-        ObjectNode root = objectMapper.convertValue(
-            this.rootDataEntity,
-            ObjectNode.class
-        );
-        graph.add(root);
-
-        graph.add(
-            objectMapper.convertValue(this.jsonDescriptor, JsonNode.class)
-        );
-        if (
-            this.roCratePayload != null &&
-            this.roCratePayload.getEntitiesMetadata() != null
-        ) {
+        ObjectNode metadata = this.metadataContext.getContextJsonEntity().deepCopy();
+        ArrayNode graph = metadata.putArray("@graph");
+        graph.add(objectMapper.valueToTree(this.rootDataEntity));
+        graph.add(objectMapper.valueToTree(this.jsonDescriptor));
+        if (this.roCratePayload != null) {
             graph.addAll(this.roCratePayload.getEntitiesMetadata());
         }
-        node.set("@graph", graph);
-        return node.toString();
+        return metadata;
+    }
+
+    /**
+     * Writes the metadata of this crate directly to the given stream, without
+     * building the whole document in memory. The stream will not be closed.
+     *
+     * @param outputStream the stream to write to.
+     * @param pretty       whether the output should be indented.
+     * @throws IOException if writing to the stream fails.
+     */
+    @Override
+    public void writeJsonMetadata(OutputStream outputStream, boolean pretty) throws IOException {
+        JsonGenerator generator = MyObjectMapper.getMapper().getFactory()
+                .createGenerator(outputStream, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (pretty) {
+            generator.useDefaultPrettyPrinter();
+        }
+        try (generator) {
+            this.writeJsonMetadata(generator);
+        }
+    }
+
+    private void writeJsonMetadata(JsonGenerator generator) throws IOException {
+        ObjectMapper objectMapper = MyObjectMapper.getMapper();
+        generator.writeStartObject();
+        for (var field : this.metadataContext.getContextJsonEntity().properties()) {
+            generator.writeFieldName(field.getKey());
+            generator.writeTree(field.getValue());
+        }
+
+        generator.writeArrayFieldStart("@graph");
+        generator.writeTree(objectMapper.valueToTree(this.rootDataEntity));
+        generator.writeTree(objectMapper.valueToTree(this.jsonDescriptor));
+        if (this.roCratePayload != null) {
+            this.roCratePayload.writeEntitiesMetadata(generator);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
     }
 
     @Override
@@ -219,7 +281,18 @@ public class RoCrate implements Crate {
 
     @Override
     public Set<DataEntity> getAllDataEntities() {
-        return new HashSet<>(this.roCratePayload.getAllDataEntities());
+        // the payload returns a copy already
+        return this.roCratePayload.getAllDataEntities();
+    }
+
+    @Override
+    public Collection<DataEntity> getDataEntitiesView() {
+        return this.roCratePayload.getDataEntitiesView();
+    }
+
+    @Override
+    public Stream<DataEntity> streamDataEntities() {
+        return this.roCratePayload.streamDataEntities();
     }
 
     @Override
@@ -229,7 +302,18 @@ public class RoCrate implements Crate {
 
     @Override
     public Set<ContextualEntity> getAllContextualEntities() {
-        return new HashSet<>(this.roCratePayload.getAllContextualEntities());
+        // the payload returns a copy already
+        return this.roCratePayload.getAllContextualEntities();
+    }
+
+    @Override
+    public Collection<ContextualEntity> getContextualEntitiesView() {
+        return this.roCratePayload.getContextualEntitiesView();
+    }
+
+    @Override
+    public Stream<ContextualEntity> streamContextualEntities() {
+        return this.roCratePayload.streamContextualEntities();
     }
 
     @Override
@@ -237,11 +321,55 @@ public class RoCrate implements Crate {
         return this.roCratePayload.getEntityById(id);
     }
 
+    @Override
+    public Set<AbstractEntity> findByType(String type) {
+        return this.roCratePayload.findByType(type);
+    }
+
+    @Override
+    public Set<AbstractEntity> findByProperty(String property, String value) {
+        return this.roCratePayload.findByProperty(property, value);
+    }
+
+    /**
+     * Runs a modification of the entity with the given id, e.g. adding
+     * properties to it.
+     * <p>
+     * If the crate was built with {@link RoCrateBuilder#useConcurrentPayload()},
+     * modifications of the same entity done with this method do not run at
+     * the same time, so several threads may modify the same entity. Other
+     * direct changes to an entity (e.g. calling
+     * {@link AbstractEntity#addProperty(String, String)} outside of this
+     * method) are not thread-safe.
+     *
+     * @param id           the id of the entity, which may also be the root
+     *                     data entity or the metadata descriptor.
+     * @param modification the modification of the entity.
+     * @throws IllegalArgumentException if there is no entity with this id.
+     */
+    public void modifyEntity(String id, Consumer<AbstractEntity> modification) throws IllegalArgumentException {
+        AbstractEntity entity;
+        if (this.rootDataEntity.getId().equals(id)) {
+            entity = this.rootDataEntity;
+        } else if (this.jsonDescriptor.getId().equals(id)) {
+            entity = this.jsonDescriptor;
+        } else {
+            entity = this.roCratePayload.getEntityById(id);
+        }
+        if (entity == null) {
+            throw new IllegalArgumentException("Entity with id " + id + " not found in the crate.");
+        }
+        this.roCratePayload.modifyEntity(id, () -> modification.accept(entity));
+    }
+
     /**
      * {@inheritDoc}
      * <p>
      * Note: This will also link the DataEntity to the root node using the root
      * nodes hasPart property.
+     * <p>
+     * Like {@link #addContextualEntity(ContextualEntity)}, this is thread-safe
+     * if the crate was built with {@link RoCrateBuilder#useConcurrentPayload()}.
      *
      * @param entity the DataEntity to add to this crate.
      */
@@ -249,19 +377,57 @@ public class RoCrate implements Crate {
     public void addDataEntity(DataEntity entity) {
         this.metadataContext.checkEntity(entity);
         this.roCratePayload.addDataEntity(entity);
-        this.rootDataEntity.addToHasPart(entity.getId());
+        this.roCratePayload.modifyEntity(
+            this.rootDataEntity.getId(),
+            () -> this.rootDataEntity.addToHasPart(entity.getId()));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the crate was built with
+     * {@link RoCrateBuilder#useConcurrentPayload()}, this method may be called
+     * from several threads at once, also for the same parent.
+     */
     @Override
     public void addDataEntity(DataEntity entity, String parentId)
         throws IllegalArgumentException {
+        DataEntity parentEntity = getParentForParts(parentId, this.getRootDataEntity(), this::getDataEntityById);
+
+        this.metadataContext.checkEntity(entity);
+
+        this.roCratePayload.modifyEntity(parentEntity.getId(), () -> {
+            if (parentEntity instanceof DataSetEntity) {
+                ((DataSetEntity) parentEntity).addToHasPart(entity.getId());
+            } else {
+                parentEntity.addProperty("hasPart", entity.getId());
+            }
+        });
+        this.roCratePayload.addDataEntity(entity);
+    }
+
+    /**
+     * Resolves the parent a data entity is added to as a part, and checks
+     * that it is a Dataset.
+     *
+     * @param parentId the id of the parent, or "./" for the root data entity.
+     * @param root the root data entity.
+     * @param lookup resolves the id of a data entity to the entity, or null.
+     * @return the parent entity.
+     * @throws IllegalArgumentException if the parent is missing or not a Dataset.
+     */
+    private static DataEntity getParentForParts(
+        String parentId,
+        DataEntity root,
+        Function<String, DataEntity> lookup
+    ) throws IllegalArgumentException {
         if (parentId == null) {
             throw new IllegalArgumentException("Parent ID is null.");
         }
 
         DataEntity parentEntity = parentId.equals("./")
-                ? this.getRootDataEntity()
-                : this.getDataEntityById(parentId);
+                ? root
+                : lookup.apply(parentId);
 
         if (parentEntity == null) {
             throw new IllegalArgumentException(
@@ -280,15 +446,55 @@ public class RoCrate implements Crate {
                 "Parent entity must be a Dataset in order to contain another DataEntity as a part."
             );
         }
+        return parentEntity;
+    }
 
-        this.metadataContext.checkEntity(entity);
-
-        if (parentEntity instanceof DataSetEntity) {
-            ((DataSetEntity) parentEntity).addToHasPart(entity.getId());
-        } else {
-            parentEntity.addProperty("hasPart", entity.getId());
+    /**
+     * Adds many data and contextual entities at once. This is much faster
+     * than adding them one by one, e.g. for crates generated from listings
+     * of many files:
+     * <ul>
+     *   <li>the types and property names are checked against the context
+     *   once per distinct term,</li>
+     *   <li>the parent is looked up and checked once, and all data entities
+     *   are added to its hasPart property in one step,</li>
+     *   <li>the payload grows its maps to the final size once.</li>
+     * </ul>
+     * Missing terms are reported like in {@link #addDataEntity(DataEntity)},
+     * and the entities are added anyway.
+     *
+     * @param entities the entities to add.
+     * @param options  where to link the data entities and whether to check
+     *                 the context.
+     * @throws IllegalArgumentException if the parent given in the options is
+     *                                  not a dataset of this crate. No entity
+     *                                  is added in this case.
+     */
+    public void addAll(Collection<? extends AbstractEntity> entities, BulkOptions options)
+        throws IllegalArgumentException {
+        DataEntity parentEntity = options.getParentId() == null
+            ? null
+            : getParentForParts(options.getParentId(), this.getRootDataEntity(), this::getDataEntityById);
+        if (options.isContextCheck()) {
+            this.metadataContext.checkEntities(entities);
         }
-        this.roCratePayload.addDataEntity(entity);
+        this.roCratePayload.addEntities(entities);
+        if (parentEntity == null) {
+            return;
+        }
+        List<String> parts = new ArrayList<>();
+        for (AbstractEntity entity : entities) {
+            if (entity instanceof DataEntity) {
+                parts.add(entity.getId());
+            }
+        }
+        this.roCratePayload.modifyEntity(parentEntity.getId(), () -> {
+            if (parentEntity instanceof DataSetEntity dataSet) {
+                dataSet.addAllToHasPart(parts);
+            } else {
+                parts.forEach(id -> parentEntity.addProperty("hasPart", id));
+            }
+        });
     }
 
     @Override
@@ -299,19 +505,40 @@ public class RoCrate implements Crate {
 
     @Override
     public void deleteEntityById(String entityId) {
-        // delete the entity firstly
-        this.roCratePayload.removeEntityById(entityId);
+        this.deleteEntitiesById(Set.of(entityId));
+    }
+
+    @Override
+    public void deleteEntitiesById(Collection<String> entityIds) {
+        Set<String> ids = new HashSet<>(entityIds);
+        // delete the entities firstly, including references within the payload
+        this.roCratePayload.removeEntitiesById(ids);
         // remove from the root data entity hasPart
-        this.rootDataEntity.removeFromHasPart(entityId);
-        // remove from the root entity and the file descriptor
-        JsonUtilFunctions.removeFieldsWith(
-            entityId,
-            this.rootDataEntity.getProperties()
-        );
-        JsonUtilFunctions.removeFieldsWith(
-            entityId,
-            this.jsonDescriptor.getProperties()
-        );
+        boolean wasPart = false;
+        for (String id : ids) {
+            wasPart |= this.rootDataEntity.hasPart(id);
+            this.rootDataEntity.removeFromHasPart(id);
+        }
+        // remove from the root entity and the file descriptor.
+        // The hasPart property of the root may be large, so it is only
+        // visited if it actually contained one of the ids.
+        Set<String> rootProperties = this.rootDataEntity.getPropertyNames();
+        if (!wasPart) {
+            rootProperties.remove("hasPart");
+        }
+        this.rootDataEntity.removeReferences(rootProperties, ids);
+        this.jsonDescriptor.removeReferences(this.jsonDescriptor.getPropertyNames(), ids);
+    }
+
+    /**
+     * Starts recording which entities are added, changed or removed, e.g. to
+     * persist only the changed entities of a large crate. The root data
+     * entity and the metadata descriptor are not recorded.
+     *
+     * @return the journal of the changes.
+     */
+    public ChangeJournal enableChangeJournal() {
+        return this.roCratePayload.enableChangeJournal();
     }
 
     @Override
@@ -450,6 +677,24 @@ public class RoCrate implements Crate {
             this.descriptorBuilder = new JsonDescriptor.Builder(crate);
         }
 
+        /**
+         * Lets the crate use a payload which supports adding entities from
+         * several threads at once, see {@link ConcurrentRoCratePayload}.
+         * <p>
+         * Entities added to this builder before are kept. Should be called
+         * before adding entities, though.
+         *
+         * @return returns the builder for further usage.
+         */
+        public RoCrateBuilder useConcurrentPayload() {
+            if (!(this.payload instanceof ConcurrentRoCratePayload)) {
+                CratePayload concurrentPayload = new ConcurrentRoCratePayload();
+                concurrentPayload.addEntities(this.payload.getAllEntities());
+                this.payload = concurrentPayload;
+            }
+            return this;
+        }
+
         public RoCrateBuilder addName(String name) {
             this.rootDataEntity.addProperty("name", name);
             return this;
@@ -490,31 +735,7 @@ public class RoCrate implements Crate {
 
         public void addDataEntity(DataEntity entity, String parentId)
             throws IllegalArgumentException {
-            if (parentId == null) {
-                throw new IllegalArgumentException("Parent ID is null.");
-            }
-
-            DataEntity parentEntity = parentId.equals("./")
-                    ? this.rootDataEntity
-                    : this.payload.getDataEntityById(parentId);
-
-            if (parentEntity == null) {
-                throw new IllegalArgumentException(
-                    "Parent ID not found in the crate."
-                );
-            }
-
-            if (parentEntity.getTypes().contains("File")) {
-                throw new IllegalArgumentException(
-                    "Parent entity cannot be a File."
-                );
-            }
-
-            if (!parentEntity.getTypes().contains("Dataset")) {
-                throw new IllegalArgumentException(
-                    "Parent entity must be a Dataset in order to contain another DataEntity as a part."
-                );
-            }
+            DataEntity parentEntity = getParentForParts(parentId, this.rootDataEntity, this.payload::getDataEntityById);
 
             this.metadataContext.checkEntity(entity);
 
@@ -544,7 +765,7 @@ public class RoCrate implements Crate {
             this.license = license;
             // From our tests, it seems like if we only have the ID for our license, we do
             // not need to add an extra entity.
-            if (license.getProperties().size() > 1) {
+            if (license.getPropertyNames().size() > 1) {
                 this.addContextualEntity(license);
             }
             this.rootDataEntity.addIdProperty("license", license.getId());
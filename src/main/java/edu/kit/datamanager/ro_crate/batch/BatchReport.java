@@ -0,0 +1,65 @@
+package edu.kit.datamanager.ro_crate.batch;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The outcome of processing a batch of crates with a
+ * {@link CrateBatchProcessor}.
+ *
+ * @param processed the number of crates which were read, transformed and
+ *                  written successfully.
+ * @param failures  the crates which could not be processed, in the order
+ *                  they failed.
+ * @param bytes     the size of the successfully processed sources in bytes,
+ *                  as far as it is known (see
+ *                  {@link CrateBatchProcessor#withSourceSize}).
+ * @param duration  the time from taking the first source until the last
+ *                  crate was done.
+ * @param <SOURCE>  the type of the sources.
+ */
+public record BatchReport<SOURCE>(
+        int processed,
+        List<Failure<SOURCE>> failures,
+        long bytes,
+        Duration duration
+) {
+
+    /**
+     * A crate which could not be processed.
+     *
+     * @param source    the source of the crate.
+     * @param exception the reason, thrown while reading, transforming or
+     *                  writing the crate.
+     * @param <SOURCE>  the type of the source.
+     */
+    public record Failure<SOURCE>(SOURCE source, Exception exception) {}
+
+    /**
+     * Whether all crates of the batch were processed.
+     *
+     * @return true if there were no failures.
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * @return the number of processed crates per second.
+     */
+    public double cratesPerSecond() {
+        return perSecond(processed);
+    }
+
+    /**
+     * @return the number of bytes of processed sources per second.
+     */
+    public double bytesPerSecond() {
+        return perSecond(bytes);
+    }
+
+    private double perSecond(double amount) {
+        double seconds = duration.toNanos() / 1e9;
+        return seconds > 0 ? amount / seconds : 0;
+    }
+}
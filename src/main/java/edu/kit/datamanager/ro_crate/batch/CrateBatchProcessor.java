@@ -0,0 +1,247 @@
+package edu.kit.datamanager.ro_crate.batch;
+
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.reader.CrateReader;
+import edu.kit.datamanager.ro_crate.writer.CrateWriter;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Reads, transforms and writes many crates concurrently.
+ * <p>
+ * Each source is read with a reader, the crate is passed to the
+ * transformation (by default, it is left as it is), and the result is
+ * written with a writer to the destination of the source:
+ * <pre>{@code
+ * BatchReport<String> report = new CrateBatchProcessor<>(
+ *         Readers::newFolderReader,
+ *         Writers::newZipPathWriter,
+ *         folder -> folder + ".zip")
+ *     .withParallelism(8)
+ *     .process(folders.stream());
+ * }</pre>
+ * <p>
+ * The readers and writers are requested from the given suppliers once per
+ * crate. The zip readers remember the crate they extracted and must
+ * therefore be created for each crate, while the folder reader and all
+ * writers may be shared by returning the same instance every time.
+ * <p>
+ * At most {@link #withParallelism(int) parallelism} crates are processed at
+ * the same time. The next source is only taken from the stream when a crate
+ * is done, so a lazy stream of sources is never read ahead further than
+ * that. A crate which fails to be processed does not affect the others: its
+ * exception is recorded in the {@link BatchReport} and the batch continues.
+ * Sources and destinations which are {@link AutoCloseable} (like streams)
+ * are closed after their crate has been processed.
+ */
+public class CrateBatchProcessor<SOURCE, DESTINATION> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrateBatchProcessor.class);
+
+    private final Supplier<CrateReader<SOURCE>> readers;
+    private final Supplier<CrateWriter<DESTINATION>> writers;
+    private final Function<SOURCE, DESTINATION> destinations;
+
+    private UnaryOperator<RoCrate> transformation = UnaryOperator.identity();
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private ExecutorService executor = null;
+    private ToLongFunction<SOURCE> sourceSize = CrateBatchProcessor::sizeOf;
+
+    /**
+     * Creates a processor which reads each source with a reader from the
+     * given supplier and writes the crate to the destination of the source.
+     *
+     * @param readers      supplies a reader for each crate.
+     * @param writers      supplies a writer for each crate.
+     * @param destinations determines the destination of each source.
+     */
+    public CrateBatchProcessor(
+            Supplier<CrateReader<SOURCE>> readers,
+            Supplier<CrateWriter<DESTINATION>> writers,
+            Function<SOURCE, DESTINATION> destinations) {
+        this.readers = Objects.requireNonNull(readers);
+        this.writers = Objects.requireNonNull(writers);
+        this.destinations = Objects.requireNonNull(destinations);
+    }
+
+    /**
+     * Sets the transformation applied to each crate between reading and
+     * writing. It may modify the given crate and return it, or return
+     * another crate to be written instead. It is called concurrently for
+     * different crates.
+     *
+     * @param transformation the transformation.
+     * @return this processor
+     */
+    public CrateBatchProcessor<SOURCE, DESTINATION> withTransformation(UnaryOperator<RoCrate> transformation) {
+        this.transformation = Objects.requireNonNull(transformation);
+        return this;
+    }
+
+    /**
+     * Sets the number of crates processed at the same time. By default, this
+     * is the number of available processors.
+     *
+     * @param parallelism the number of crates, at least 1.
+     * @return this processor
+     */
+    public CrateBatchProcessor<SOURCE, DESTINATION> withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive, but was " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets the executor which processes the crates. By default, each call
+     * of {@link #process(Stream)} uses its own pool with one thread per
+     * crate processed at the same time.
+     * <p>
+     * The executor is not shut down by this processor. The number of crates
+     * processed at the same time is limited by the parallelism in any case,
+     * so an executor creating a thread per task (on Java 21 and later, for
+     * example one with virtual threads) can be used as well.
+     *
+     * @param executor the executor, or null to use the default pool.
+     * @return this processor
+     */
+    public CrateBatchProcessor<SOURCE, DESTINATION> withExecutor(ExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Sets how the size of a source is determined for the
+     * {@link BatchReport#bytes() bytes} of the report. By default, sources
+     * which are a {@link Path}, a {@link File} or a {@link String} with the
+     * path of a file or folder count with the size of the file or folder,
+     * and other sources with 0.
+     *
+     * @param sourceSize returns the size of a source in bytes.
+     * @return this processor
+     */
+    public CrateBatchProcessor<SOURCE, DESTINATION> withSourceSize(ToLongFunction<SOURCE> sourceSize) {
+        this.sourceSize = Objects.requireNonNull(sourceSize);
+        return this;
+    }
+
+    /**
+     * Processes the crate of each source of the given stream and waits until
+     * all of them are done.
+     *
+     * @param sources the sources of the crates.
+     * @return the number of processed crates, the failures and the throughput.
+     * @throws InterruptedException if the thread was interrupted while
+     *                              waiting. Crates which are already being
+     *                              processed are not cancelled.
+     */
+    public BatchReport<SOURCE> process(Stream<SOURCE> sources) throws InterruptedException {
+        ExecutorService pool = executor != null ? executor : Executors.newFixedThreadPool(parallelism);
+        Semaphore permits = new Semaphore(parallelism);
+        AtomicInteger processed = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        List<BatchReport.Failure<SOURCE>> failures = Collections.synchronizedList(new ArrayList<>());
+        long start = System.nanoTime();
+        try {
+            Iterator<SOURCE> iterator = sources.iterator();
+            while (true) {
+                permits.acquire();
+                if (!iterator.hasNext()) {
+                    permits.release();
+                    break;
+                }
+                SOURCE source = iterator.next();
+                try {
+                    pool.execute(() -> {
+                        try {
+                            long size = sourceSize.applyAsLong(source);
+                            processCrate(source);
+                            processed.incrementAndGet();
+                            bytes.addAndGet(size);
+                        } catch (Exception e) {
+                            logger.warn("Could not process crate {}", source, e);
+                            failures.add(new BatchReport.Failure<>(source, e));
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+            // all permits are available again once the last crate is done
+            permits.acquire(parallelism);
+            permits.release(parallelism);
+        } finally {
+            if (pool != executor) {
+                pool.shutdown();
+            }
+        }
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        return new BatchReport<>(processed.get(), List.copyOf(failures), bytes.get(), duration);
+    }
+
+    private void processCrate(SOURCE source) throws Exception {
+        try {
+            RoCrate crate = readers.get().readCrate(source);
+            crate = transformation.apply(crate);
+            DESTINATION destination = destinations.apply(source);
+            try {
+                writers.get().save(crate, destination);
+            } finally {
+                closeIfPossible(destination);
+            }
+        } finally {
+            closeIfPossible(source);
+        }
+    }
+
+    private static void closeIfPossible(Object object) throws Exception {
+        if (object instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static long sizeOf(Object source) {
+        File file;
+        if (source instanceof Path path) {
+            file = path.toFile();
+        } else if (source instanceof File f) {
+            file = f;
+        } else if (source instanceof String location) {
+            file = new File(location);
+        } else {
+            return 0;
+        }
+        try {
+            return Files.exists(file.toPath()) ? FileUtils.sizeOf(file) : 0;
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * This package contains classes to process many crates at once, for example
+ * to convert a collection of crates from folders into zip files.
+ * <p>
+ * The main functionality is provided by the
+ * {@link edu.kit.datamanager.ro_crate.batch.CrateBatchProcessor} class, which
+ * reads, transforms and writes crates concurrently and reports the failed
+ * crates and the throughput in a
+ * {@link edu.kit.datamanager.ro_crate.batch.BatchReport}.
+ */
+package edu.kit.datamanager.ro_crate.batch;
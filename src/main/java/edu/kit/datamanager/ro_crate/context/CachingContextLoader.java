@@ -0,0 +1,110 @@
+package edu.kit.datamanager.ro_crate.context;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the most recently used context documents of another loader in
+ * memory.
+ * <p>
+ * If several threads request the same document which is not cached yet, it
+ * is loaded only once and all of them receive the result. Failures are not
+ * cached, so a failed document is loaded again on the next request.
+ */
+public class CachingContextLoader implements ContextDocumentLoader {
+
+  private final ContextDocumentLoader delegate;
+  private final Map<String, JsonNode> cache;
+  private final Map<String, CompletableFuture<JsonNode>> loading = new ConcurrentHashMap<>();
+
+  /**
+   * @param delegate     the loader to load documents which are not cached.
+   * @param maxDocuments the maximum number of documents kept in memory.
+   */
+  public CachingContextLoader(ContextDocumentLoader delegate, int maxDocuments) {
+    if (maxDocuments < 1) {
+      throw new IllegalArgumentException("The cache must hold at least one document, but the size was " + maxDocuments);
+    }
+    this.delegate = delegate;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, JsonNode> eldest) {
+        return size() > maxDocuments;
+      }
+    };
+  }
+
+  @Override
+  public JsonNode load(String url) throws IOException {
+    JsonNode cached = this.getCached(url);
+    if (cached != null) {
+      return cached;
+    }
+    CompletableFuture<JsonNode> future = new CompletableFuture<>();
+    CompletableFuture<JsonNode> running = this.loading.putIfAbsent(url, future);
+    if (running != null) {
+      return await(running);
+    }
+    try {
+      // another thread may have finished loading in the meantime
+      JsonNode document = this.getCached(url);
+      if (document == null) {
+        document = this.delegate.load(url);
+        synchronized (this.cache) {
+          this.cache.put(url, document);
+        }
+      }
+      future.complete(document);
+      return document;
+    } catch (IOException | RuntimeException e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      this.loading.remove(url, future);
+    }
+  }
+
+  private JsonNode getCached(String url) {
+    synchronized (this.cache) {
+      return this.cache.get(url);
+    }
+  }
+
+  private static JsonNode await(CompletableFuture<JsonNode> future) throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException ioException) {
+        throw new IOException(ioException.getMessage(), ioException);
+      }
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Removes all documents from the cache.
+   */
+  public void clear() {
+    synchronized (this.cache) {
+      this.cache.clear();
+    }
+  }
+
+  /**
+   * @return the number of cached documents.
+   */
+  public int size() {
+    synchronized (this.cache) {
+      return this.cache.size();
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package edu.kit.datamanager.ro_crate.context;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads context documents which are bundled as classpath resources, so they
+ * are available without network access.
+ * <p>
+ * {@link #withDefaults()} knows the contexts shipped with this library.
+ * Further documents can be registered with
+ * {@link #withResource(String, String)}.
+ */
+public class ClasspathContextLoader implements ContextDocumentLoader {
+
+  private final Map<String, String> resources = new ConcurrentHashMap<>();
+
+  /**
+   * @return a loader for the contexts bundled with this library.
+   */
+  public static ClasspathContextLoader withDefaults() {
+    return new ClasspathContextLoader()
+        .withResource(RoCrateMetadataContext.DEFAULT_CONTEXT,
+            RoCrateMetadataContext.DEFAULT_CONTEXT_LOCATION);
+  }
+
+  /**
+   * Registers a classpath resource as the document for the given URL.
+   *
+   * @param url      the URL of the context.
+   * @param resource the path of the resource, relative to the classpath root.
+   * @return this loader.
+   */
+  public ClasspathContextLoader withResource(String url, String resource) {
+    this.resources.put(url, resource);
+    return this;
+  }
+
+  @Override
+  public JsonNode load(String url) throws IOException {
+    String resource = this.resources.get(url);
+    if (resource == null) {
+      throw new FileNotFoundException("No bundled context for " + url);
+    }
+    try (InputStream stream = this.getClass().getClassLoader().getResourceAsStream(resource)) {
+      if (stream == null) {
+        throw new FileNotFoundException("Missing resource " + resource + " for context " + url);
+      }
+      return MyObjectMapper.getMapper().readTree(stream);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package edu.kit.datamanager.ro_crate.context;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+
+/**
+ * Loads JSON-LD context documents by their URL.
+ * <p>
+ * Implementations decide where a document comes from, e.g. the classpath
+ * ({@link ClasspathContextLoader}), local files ({@link FileContextLoader})
+ * or the web ({@link HttpContextLoader}). Loaders can be chained with
+ * {@link #orElse(ContextDocumentLoader)} and cached with
+ * {@link CachingContextLoader}.
+ * <p>
+ * The loader used by {@link RoCrateMetadataContext} can be set with
+ * {@link RoCrateMetadataContext#setContextDocumentLoader(ContextDocumentLoader)}.
+ * Loaders may be called from several threads at once.
+ */
+@FunctionalInterface
+public interface ContextDocumentLoader {
+
+  /**
+   * Loads the context document with the given URL.
+   * <p>
+   * The returned document may be shared with other callers and must not be
+   * modified. Use {@link JsonNode#deepCopy()} if needed.
+   *
+   * @param url the URL of the context document.
+   * @return the whole document, i.e. including the "@context" key.
+   * @throws IOException if the document is not available from this loader.
+   */
+  JsonNode load(String url) throws IOException;
+
+  /**
+   * Creates a loader which tries this loader first and uses the given
+   * loader if this one fails.
+   *
+   * @param fallback the loader to use if this loader fails.
+   * @return the combined loader.
+   */
+  default ContextDocumentLoader orElse(ContextDocumentLoader fallback) {
+    return url -> {
+      try {
+        return this.load(url);
+      } catch (IOException e) {
+        try {
+          return fallback.load(url);
+        } catch (IOException fallbackException) {
+          fallbackException.addSuppressed(e);
+          throw fallbackException;
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,73 @@
+package edu.kit.datamanager.ro_crate.context;
+
+import edu.kit.datamanager.ro_crate.special.IdentifierUtils;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precompiled lookup structure to check whether terms are defined by a
+ * context.
+ * <p>
+ * A term is known if it is defined in the context (with a value), if it
+ * is a compact IRI ("prefix:suffix") whose prefix is a key of the context,
+ * or if it is a full URL. The result for each term is memoized, so checking a term which has been
+ * checked before is a single hash lookup without creating any strings.
+ * <p>
+ * An index reflects the context at the time it was created. It is
+ * thread-safe.
+ */
+class ContextTermIndex {
+
+  /**
+   * Limits the memory used by the memo, in case of many different terms.
+   */
+  private static final int MAX_MEMOIZED_TERMS = 10_000;
+
+  private final Set<String> terms = new HashSet<>();
+  private final Set<String> prefixes;
+  private final Map<String, Boolean> memo = new ConcurrentHashMap<>();
+
+  /**
+   * @param context the key-value pairs of the context.
+   */
+  ContextTermIndex(Map<String, String> context) {
+    for (Map.Entry<String, String> entry : context.entrySet()) {
+      if (entry.getValue() != null) {
+        this.terms.add(entry.getKey());
+      }
+    }
+    this.prefixes = new HashSet<>(context.keySet());
+  }
+
+  /**
+   * @param term the term to check.
+   * @return true if the term is defined by the context or a full URL.
+   */
+  boolean isKnown(String term) {
+    Boolean known = this.memo.get(term);
+    if (known == null) {
+      known = this.computeIsKnown(term);
+      if (this.memo.size() < MAX_MEMOIZED_TERMS) {
+        this.memo.put(term, known);
+      }
+    }
+    return known;
+  }
+
+  private boolean computeIsKnown(String term) {
+    if (this.terms.contains(term)) {
+      return true;
+    }
+    // any part before a colon may be a prefix
+    for (int colon = term.indexOf(':'); colon >= 0; colon = term.indexOf(':', colon + 1)) {
+      if (this.prefixes.contains(term.substring(0, colon))) {
+        return true;
+      }
+    }
+    // full URLs are considered fine, this is only checked on a miss
+    return IdentifierUtils.isUrl(term);
+  }
+}
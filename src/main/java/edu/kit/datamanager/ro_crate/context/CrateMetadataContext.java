@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import edu.kit.datamanager.ro_crate.entities.AbstractEntity;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -21,6 +22,22 @@ public interface CrateMetadataContext {
 
   boolean checkEntity(AbstractEntity entity);
 
+  /**
+   * Checks all given entities against the context. Unlike calling
+   * {@link #checkEntity(AbstractEntity)} for each entity, implementations
+   * may check each distinct type and property name only once.
+   *
+   * @param entities the entities to check.
+   * @return true if all entities are valid.
+   */
+  default boolean checkEntities(Collection<? extends AbstractEntity> entities) {
+    boolean valid = true;
+    for (AbstractEntity entity : entities) {
+      valid &= this.checkEntity(entity);
+    }
+    return valid;
+  }
+
   void addToContextFromUrl(String url);
 
   void addToContext(String key, String value);
@@ -0,0 +1,43 @@
+package edu.kit.datamanager.ro_crate.context;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads context documents from local files.
+ * <p>
+ * This is useful for environments without network access and for tests,
+ * where a context URL shall resolve to a prepared document.
+ */
+public class FileContextLoader implements ContextDocumentLoader {
+
+  private final Map<String, Path> files = new ConcurrentHashMap<>();
+
+  /**
+   * Registers a file as the document for the given URL.
+   *
+   * @param url  the URL of the context.
+   * @param file the file containing the context document.
+   * @return this loader.
+   */
+  public FileContextLoader withFile(String url, Path file) {
+    this.files.put(url, file);
+    return this;
+  }
+
+  @Override
+  public JsonNode load(String url) throws IOException {
+    Path file = this.files.get(url);
+    if (file == null) {
+      throw new FileNotFoundException("No file registered for context " + url);
+    }
+    return MyObjectMapper.getMapper().readTree(file.toFile());
+  }
+}
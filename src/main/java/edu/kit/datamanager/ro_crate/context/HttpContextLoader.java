@@ -0,0 +1,152 @@
+package edu.kit.datamanager.ro_crate.context;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Loads context documents from the web.
+ * <p>
+ * All requests of a loader share one HTTP client and its connection pool.
+ * <p>
+ * Optionally, downloaded documents are persisted in a folder, together with
+ * their ETag. A persisted document is revalidated with a conditional request,
+ * so it is only downloaded again if it changed. If the server can not be
+ * reached, the persisted document is used. This way, a folder filled while
+ * online can be used later without network access.
+ */
+public class HttpContextLoader implements ContextDocumentLoader {
+
+  private static final int TIMEOUT_MILLIS = 10_000;
+  private static final int MAX_CONNECTIONS = 20;
+  private static final String DOCUMENT_SUFFIX = ".json";
+  private static final String ETAG_SUFFIX = ".etag";
+
+  private final CloseableHttpClient httpClient;
+  private Path cacheFolder = null;
+
+  /**
+   * Creates a loader without persistence.
+   */
+  public HttpContextLoader() {
+    RequestConfig config = RequestConfig.custom()
+        .setConnectTimeout(TIMEOUT_MILLIS)
+        .setConnectionRequestTimeout(TIMEOUT_MILLIS)
+        .setSocketTimeout(TIMEOUT_MILLIS)
+        .build();
+    this.httpClient = HttpClients.custom()
+        .setDefaultRequestConfig(config)
+        .setMaxConnTotal(MAX_CONNECTIONS)
+        .setMaxConnPerRoute(MAX_CONNECTIONS)
+        .useSystemProperties()
+        .build();
+  }
+
+  /**
+   * Persists downloaded documents in the given folder.
+   *
+   * @param cacheFolder the folder to store documents in. It is created if
+   *                    it does not exist.
+   * @return this loader.
+   */
+  public HttpContextLoader withCacheFolder(Path cacheFolder) {
+    this.cacheFolder = cacheFolder;
+    return this;
+  }
+
+  @Override
+  public JsonNode load(String url) throws IOException {
+    Path document = null;
+    Path etagFile = null;
+    String etag = null;
+    if (this.cacheFolder != null) {
+      String key = hash(url);
+      document = this.cacheFolder.resolve(key + DOCUMENT_SUFFIX);
+      etagFile = this.cacheFolder.resolve(key + ETAG_SUFFIX);
+      if (Files.isRegularFile(document) && Files.isRegularFile(etagFile)) {
+        etag = Files.readString(etagFile, StandardCharsets.UTF_8);
+      }
+    }
+
+    HttpGet request = new HttpGet(url);
+    request.addHeader(HttpHeaders.ACCEPT, "application/ld+json, application/json");
+    if (etag != null) {
+      request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+    }
+    try (CloseableHttpResponse response = this.httpClient.execute(request)) {
+      int status = response.getStatusLine().getStatusCode();
+      if (status == HttpStatus.SC_NOT_MODIFIED && etag != null) {
+        EntityUtils.consumeQuietly(response.getEntity());
+        return readDocument(document);
+      }
+      if (status != HttpStatus.SC_OK || response.getEntity() == null) {
+        EntityUtils.consumeQuietly(response.getEntity());
+        throw new IOException("Loading context " + url + " failed with status " + status);
+      }
+      byte[] content = EntityUtils.toByteArray(response.getEntity());
+      JsonNode result = MyObjectMapper.getMapper().readTree(content);
+      Header etagHeader = response.getFirstHeader(HttpHeaders.ETAG);
+      if (document != null && etagHeader != null) {
+        this.persist(document, etagFile, content, etagHeader.getValue());
+      }
+      return result;
+    } catch (IOException e) {
+      if (document != null && Files.isRegularFile(document)) {
+        // offline or server error, the persisted version is better than nothing
+        return readDocument(document);
+      }
+      throw e;
+    }
+  }
+
+  private static JsonNode readDocument(Path document) throws IOException {
+    try (InputStream stream = Files.newInputStream(document)) {
+      return MyObjectMapper.getMapper().readTree(stream);
+    }
+  }
+
+  private void persist(Path document, Path etagFile, byte[] content, String etag) {
+    try {
+      Files.createDirectories(this.cacheFolder);
+      // write to temporary files first, so concurrent readers never see partial files
+      Path tmpDocument = Files.createTempFile(this.cacheFolder, "context", ".tmp");
+      Path tmpEtag = Files.createTempFile(this.cacheFolder, "etag", ".tmp");
+      Files.write(tmpDocument, content);
+      Files.writeString(tmpEtag, etag, StandardCharsets.UTF_8);
+      Files.move(tmpDocument, document, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      Files.move(tmpEtag, etagFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      System.err.printf("Cannot persist context in %s: %s%n", this.cacheFolder, e.getMessage());
+    }
+  }
+
+  private static String hash(String url) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(url.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform has to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -12,13 +12,7 @@ import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
 import java.io.IOException;
 import java.util.*;
 import java.util.function.Consumer;
-import java.util.function.Function;
 
-import edu.kit.datamanager.ro_crate.special.IdentifierUtils;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 
 /**
  * The class representing the crate json-ld context.
@@ -31,12 +25,16 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
   public static final String DEFAULT_CONTEXT = "https://w3id.org/ro/crate/1.1/context";
   protected static final String DEFAULT_CONTEXT_LOCATION = "default_context/version1.1.json";
   protected static JsonNode defaultContext = null;
+  private static final int DEFAULT_CACHED_DOCUMENTS = 32;
+  private static volatile ContextDocumentLoader documentLoader = createDefaultDocumentLoader();
 
   protected final Set<String> urls = new HashSet<>();
   protected final HashMap<String, String> contextMap = new HashMap<>();
   // we need to keep the ones that are no coming from url
   // for the final representation
   protected final HashMap<String, String> other = new HashMap<>();
+  // precompiled lookup of the terms in contextMap, built on demand
+  private volatile ContextTermIndex termIndex;
 
   /**
    * Default constructor for the creation of the v1.1 default context.
@@ -144,68 +142,139 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
    * - Prefixes in the context are considered valid if they match the context keys.
    * - Suffixes after a valid prefix are considered valid in any case. This is not perfect,
    *   but it would be hard to handle correctly.
+   * <p>
+   * The terms of the context are indexed on first use, and the result for each
+   * term is remembered until the context is changed. This makes repeated checks
+   * cheap, e.g. when reading crates with many entities.
    *
    * @param entity the entity to check
    * @return true if the entity is valid, false otherwise
    */
   @Override
   public boolean checkEntity(AbstractEntity entity) {
-    ObjectMapper objectMapper = MyObjectMapper.getMapper();
-    ObjectNode node = entity.getProperties().deepCopy();
-    node.remove("@id");
-    node.remove("@type");
-
-    Set<String> types = objectMapper.convertValue(
-            entity.getProperties().path("@type"),
-            new TypeReference<>() {}
-    );
-
-    final Function<String, Boolean> isFail = checkMeStr -> this.contextMap.get(checkMeStr) == null
-            && this.contextMap.keySet().stream()
-            .noneMatch(key -> checkMeStr.startsWith(key + ":"));
+    ContextTermIndex index = this.getTermIndex();
 
     // check if the items in the array of types are present in the context
-    for (String s : types) {
-      // special cases:
-      if (s.equals("@id")) {
-        // @id will refer to the value of the id of the node
-        // so we need to extract this value
-        s = entity.getId();
-      }
-      if (s.equals("@json")) {
-        // A linked data builtin type, which is fine.
-        continue;
-      }
-      if (IdentifierUtils.isUrl(s)) {
-        // full URLs are considered fine
-        continue;
+    for (String s : typesOf(entity)) {
+      if (!this.isKnownType(index, entity, s)) {
+        return false;
       }
+    }
 
-      if (isFail.apply(s)) {
-        System.err.println("type " + s + " is missing from the context!");
+    // check if the fields of the entity are present in the context
+    for (String s : entity.getPropertyNames()) {
+      if (!isKnownPropertyName(index, s)) {
         return false;
       }
     }
+    return true;
+  }
 
-    // check if the fields of the entity are present in the context
-    for (var names = node.fieldNames(); names.hasNext();) {
-      String s = names.next();
-      if (IdentifierUtils.isUrl(s)) {
-        // full URLs are considered fine
-        continue;
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Each distinct type and property name is checked and reported only once.
+   * All entities are checked, also after a missing term was found.
+   */
+  @Override
+  public boolean checkEntities(Collection<? extends AbstractEntity> entities) {
+    ContextTermIndex index = this.getTermIndex();
+    Set<String> checkedTypes = new HashSet<>();
+    Set<String> checkedNames = new HashSet<>();
+    boolean valid = true;
+    for (AbstractEntity entity : entities) {
+      for (String s : typesOf(entity)) {
+        // "@id" refers to the id of each entity, so it is checked every time
+        if (s.equals("@id") || checkedTypes.add(s)) {
+          valid &= this.isKnownType(index, entity, s);
+        }
       }
-      if (isFail.apply(s)) {
-        System.err.println("attribute name " + s + " is missing from context;");
-        return false;
+      for (String s : entity.getPropertyNames()) {
+        if (checkedNames.add(s)) {
+          valid &= isKnownPropertyName(index, s);
+        }
       }
     }
+    return valid;
+  }
+
+  private static Collection<String> typesOf(AbstractEntity entity) {
+    if (entity.getTypes() != null) {
+      return entity.getTypes();
+    }
+    JsonNode typeNode = entity.readProperty("@type");
+    if (typeNode == null) {
+      return List.of();
+    }
+    if (typeNode.isArray()) {
+      List<String> types = new ArrayList<>(typeNode.size());
+      typeNode.forEach(type -> types.add(type.asText()));
+      return types;
+    }
+    return List.of(typeNode.asText());
+  }
+
+  private static boolean isKnownPropertyName(ContextTermIndex index, String s) {
+    if (s.equals("@id") || s.equals("@type")) {
+      return true;
+    }
+    // full URLs are known to the index as well
+    if (!index.isKnown(s)) {
+      System.err.println("attribute name " + s + " is missing from context;");
+      return false;
+    }
+    return true;
+  }
+
+  private boolean isKnownType(ContextTermIndex index, AbstractEntity entity, String s) {
+    // special cases:
+    if (s.equals("@id")) {
+      // @id will refer to the value of the id of the node
+      // so we need to extract this value
+      s = entity.getId();
+    }
+    if (s.equals("@json")) {
+      // A linked data builtin type, which is fine.
+      return true;
+    }
+    // full URLs are known to the index as well
+    if (!index.isKnown(s)) {
+      System.err.println("type " + s + " is missing from the context!");
+      return false;
+    }
     return true;
   }
 
+  /**
+   * Returns the index used to check terms, building it if the context
+   * changed since it was built last.
+   *
+   * @return the index of the current context.
+   */
+  private ContextTermIndex getTermIndex() {
+    ContextTermIndex index = this.termIndex;
+    if (index == null) {
+      index = new ContextTermIndex(this.contextMap);
+      this.termIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * Discards the index used by {@link #checkEntity(AbstractEntity)}.
+   * <p>
+   * Subclasses which modify {@link #contextMap} directly must call this
+   * afterwards.
+   */
+  protected void invalidateTermIndex() {
+    this.termIndex = null;
+  }
+
   /**
    * Adds a URL to the context.
    * <p>
-   * It will try to fetch the context from the URL.
+   * It will try to load the context using the loader set with
+   * {@link #setContextDocumentLoader(ContextDocumentLoader)}.
    *
    * @param url the URL to add
    */
@@ -213,39 +282,50 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
   public void addToContextFromUrl(String url) {
     this.urls.add(url);
 
-    ObjectMapper objectMapper = MyObjectMapper.getMapper();
-
-    JsonNode jsonNode = null;
-    if (url.equals(DEFAULT_CONTEXT)) {
-      if (defaultContext != null) {
-        jsonNode = defaultContext;
-      } else {
-        try {
-          jsonNode = objectMapper.readTree(
-              getClass().getClassLoader().getResource(DEFAULT_CONTEXT_LOCATION));
-        } catch (IOException e) {
-          e.printStackTrace();
-        }
-      }
+    JsonNode jsonNode;
+    try {
+      jsonNode = documentLoader.load(url);
+    } catch (IOException e) {
+      System.err.printf("Cannot get context from url %s%n", url);
+      return;
     }
-    if (jsonNode == null) {
-      HttpGet httpGet = new HttpGet(url);
-      CloseableHttpResponse response;
-      try (CloseableHttpClient httpclient = HttpClients.createDefault()) {
-        response = httpclient.execute(httpGet);
-        jsonNode = objectMapper.readValue(response.getEntity().getContent(),
-            JsonNode.class);
-      } catch (IOException e) {
-        System.err.printf("Cannot get context from url %s%n", url);
-        return;
-      }
-      if (url.equals(DEFAULT_CONTEXT)) {
-        defaultContext = jsonNode;
-      }
+    if (url.equals(DEFAULT_CONTEXT)) {
+      defaultContext = jsonNode;
     }
-    this.contextMap.putAll(objectMapper.convertValue(jsonNode.get("@context"),
-        new TypeReference<>() {
+    this.contextMap.putAll(MyObjectMapper.getMapper().convertValue(jsonNode.get("@context"),
+        new TypeReference<Map<String, String>>() {
         }));
+    this.invalidateTermIndex();
+  }
+
+  /**
+   * Sets the loader used to get context documents from their URL, for all
+   * contexts created afterwards.
+   *
+   * @param loader the new loader.
+   */
+  public static void setContextDocumentLoader(ContextDocumentLoader loader) {
+    documentLoader = Objects.requireNonNull(loader);
+  }
+
+  /**
+   * @return the loader used to get context documents from their URL.
+   */
+  public static ContextDocumentLoader getContextDocumentLoader() {
+    return documentLoader;
+  }
+
+  /**
+   * Creates the default loader. It uses the contexts bundled with this
+   * library, downloads all others and keeps the recently used documents in
+   * memory.
+   *
+   * @return a new instance of the default loader.
+   */
+  public static ContextDocumentLoader createDefaultDocumentLoader() {
+    return new CachingContextLoader(
+        ClasspathContextLoader.withDefaults().orElse(new HttpContextLoader()),
+        DEFAULT_CACHED_DOCUMENTS);
   }
 
     /**
@@ -258,6 +338,7 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
   public void addToContext(String key, String value) {
     this.contextMap.put(key, value);
     this.other.put(key, value);
+    this.invalidateTermIndex();
   }
 
   /**
@@ -301,6 +382,7 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
   public void deleteValuePairFromContext(String key) {
     this.contextMap.remove(key);
     this.other.remove(key);
+    this.invalidateTermIndex();
   }
 
   /**
@@ -0,0 +1,46 @@
+package edu.kit.datamanager.ro_crate.context;
+
+import com.apicatalog.jsonld.JsonLdError;
+import com.apicatalog.jsonld.document.Document;
+import com.apicatalog.jsonld.document.JsonDocument;
+import com.apicatalog.jsonld.loader.DocumentLoader;
+import com.apicatalog.jsonld.loader.DocumentLoaderOptions;
+import com.apicatalog.jsonld.loader.SchemeRouter;
+
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Makes a {@link ContextDocumentLoader} usable for the JSON-LD processing of
+ * the titanium library, e.g. with {@code JsonLd.compact(...).loader(...)}.
+ * <p>
+ * Documents the context loader can not provide are loaded with the default
+ * loader of titanium, which for example supports content negotiation.
+ */
+public class TitaniumDocumentLoader implements DocumentLoader {
+
+  private final ContextDocumentLoader loader;
+
+  /**
+   * @param loader the loader to use for the documents.
+   */
+  public TitaniumDocumentLoader(ContextDocumentLoader loader) {
+    this.loader = loader;
+  }
+
+  @Override
+  public Document loadDocument(URI url, DocumentLoaderOptions options) throws JsonLdError {
+    byte[] content;
+    try {
+      content = MyObjectMapper.getMapper().writeValueAsBytes(this.loader.load(url.toString()));
+    } catch (IOException e) {
+      return SchemeRouter.defaultInstance().loadDocument(url, options);
+    }
+    JsonDocument document = JsonDocument.of(new ByteArrayInputStream(content));
+    document.setDocumentUrl(url);
+    return document;
+  }
+}
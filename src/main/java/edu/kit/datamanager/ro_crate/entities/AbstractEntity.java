@@ -1,6 +1,7 @@
 package edu.kit.datamanager.ro_crate.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,11 +12,15 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.datamanager.ro_crate.entities.data.RootDataEntity;
 import edu.kit.datamanager.ro_crate.entities.serializers.ObjectNodeSerializer;
 import edu.kit.datamanager.ro_crate.entities.validation.EntityValidation;
+import edu.kit.datamanager.ro_crate.entities.validation.EntityValidationStrategy;
+import edu.kit.datamanager.ro_crate.entities.validation.FlatStructureValidation;
 import edu.kit.datamanager.ro_crate.entities.validation.JsonSchemaValidation;
 import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
 import edu.kit.datamanager.ro_crate.payload.Observer;
+import edu.kit.datamanager.ro_crate.special.CompactStringSet;
 import edu.kit.datamanager.ro_crate.special.JsonUtilFunctions;
 import edu.kit.datamanager.ro_crate.special.IdentifierUtils;
+import edu.kit.datamanager.ro_crate.special.TypeInterner;
 
 import java.util.*;
 import java.util.regex.Matcher;
@@ -31,23 +36,46 @@ public class AbstractEntity {
 
     /**
      * This set contains the types of an entity (ex. File, Dataset, ect.) It is
-     * a set because it does not make sense to have duplicates
+     * a set because it does not make sense to have duplicates. The type
+     * strings are interned, as few types are shared by many entities.
      */
     @JsonIgnore
     private Set<String> types;
 
     /**
-     * Contains the whole list of properties of the entity It uses a custom
-     * serializer because of cases where a single array element should be
-     * displayed as a single value. ex: "key" : ["value"]
-     * <=> "key" : "value"
+     * Contains the whole list of properties of the entity. It is serialized
+     * using {@link #getSerializedProperties()}.
      */
-    @JsonUnwrapped
-    @JsonSerialize(using = ObjectNodeSerializer.class)
+    @JsonIgnore
     private ObjectNode properties;
 
-    private static final EntityValidation entityValidation
-            = new EntityValidation(new JsonSchemaValidation());
+    /**
+     * Whether the properties node has been handed out by
+     * {@link #getProperties()}, so it may be changed without a notification.
+     */
+    @JsonIgnore
+    private volatile boolean propertiesExposed = false;
+
+    /**
+     * The validation of the flattened structure of all entities. Uses the
+     * {@link FlatStructureValidation} by default.
+     */
+    private static volatile EntityValidation entityValidation
+            = new EntityValidation(new FlatStructureValidation());
+
+    /**
+     * Sets the strategy used to validate the structure of entities and of
+     * their properties, for all entities.
+     * <p>
+     * The default {@link FlatStructureValidation} checks the structure
+     * directly. Use {@link JsonSchemaValidation} to evaluate the JSON
+     * schemas instead (e.g., custom schemas), which is considerably slower.
+     *
+     * @param strategy the validation strategy to use.
+     */
+    public static void setEntityValidationStrategy(EntityValidationStrategy strategy) {
+        entityValidation = new EntityValidation(Objects.requireNonNull(strategy));
+    }
 
     /**
      * This set contains all the ids of the entities that are linked by
@@ -57,15 +85,44 @@ public class AbstractEntity {
     @JsonIgnore
     private final Set<String> linkedTo;
 
+    private static final Observer[] NO_OBSERVERS = new Observer[0];
+
+    /**
+     * Usually, an entity has no or a single observer (the payload it was
+     * added to), so a copy-on-write array is used instead of a set to keep
+     * the entities small.
+     */
     @JsonIgnore
-    private final Set<Observer> observers;
+    private volatile Observer[] observers = NO_OBSERVERS;
 
-    public void addObserver(Observer observer) {
-        this.observers.add(observer);
+    /**
+     * Adds an observer which is informed about changes of this entity.
+     * Adding the same observer again has no effect.
+     *
+     * @param observer the observer to add.
+     */
+    public synchronized void addObserver(Observer observer) {
+        for (Observer existing : this.observers) {
+            if (existing.equals(observer)) {
+                return;
+            }
+        }
+        Observer[] extended = Arrays.copyOf(this.observers, this.observers.length + 1);
+        extended[extended.length - 1] = observer;
+        this.observers = extended;
+        if (this.propertiesExposed) {
+            observer.exposed(this.getId());
+        }
     }
 
-    private void notifyObservers() {
-        this.observers.forEach(observer -> observer.update(this.getId()));
+    /**
+     * Informs all observers (usually the payload of a crate) that this entity
+     * has changed, so they can update any information they derived from it.
+     */
+    protected void notifyObservers() {
+        for (Observer observer : this.observers) {
+            observer.update(this.getId());
+        }
     }
 
     /**
@@ -77,7 +134,6 @@ public class AbstractEntity {
         this.types = entityBuilder.types;
         this.properties = entityBuilder.properties;
         this.linkedTo = entityBuilder.relatedItems;
-        this.observers = new HashSet<>();
         if (this.properties.get("@id") == null) {
             if (entityBuilder.id == null) {
                 this.properties.put("@id", UUID.randomUUID().toString());
@@ -102,21 +158,99 @@ public class AbstractEntity {
 
     /**
      * Returns a Json object containing the properties of the entity.
+     * <p>
+     * The returned node is not a copy, so changes to it will change the
+     * entity without notifying the observers. Instead, the observers are
+     * informed that the node has been handed out, so they check the entity
+     * for changes whenever they use information derived from it (e.g., the
+     * cached JSON of the entity in a crate). Prefer the methods of this class
+     * to modify an entity, and {@link #readProperty(String)} or
+     * {@link #getPropertyNames()} to read it.
      *
      * @return ObjectNode representing the properties.
      */
+    @JsonIgnore
     public ObjectNode getProperties() {
+        ObjectNode node = this.getSerializedProperties();
+        this.exposeProperties();
+        return node;
+    }
+
+    /**
+     * Informs the observers once that the properties have been handed out.
+     */
+    private void exposeProperties() {
+        if (!this.propertiesExposed) {
+            this.propertiesExposed = true;
+            for (Observer observer : this.observers) {
+                observer.exposed(this.getId());
+            }
+        }
+    }
+
+    /**
+     * Returns the properties for the serialization, without handing them
+     * out. It uses a custom serializer because of cases where a single array
+     * element should be displayed as a single value. ex: "key" : ["value"]
+     * <=> "key" : "value"
+     *
+     * @return the properties, including the current types.
+     */
+    @JsonProperty
+    @JsonUnwrapped
+    @JsonSerialize(using = ObjectNodeSerializer.class)
+    private ObjectNode getSerializedProperties() {
         if (this.types != null) {
-            JsonNode node = MyObjectMapper.getMapper().valueToTree(this.types);
-            this.properties.set("@type", node);
+            this.properties.set("@type", TypeInterner.toTypeNode(this.types));
         }
-        return properties;
+        return this.properties;
     }
 
+    /**
+     * Returns the value of the property with the given key.
+     * <p>
+     * Like {@link #getProperties()}, the value is not a copy. If it is an
+     * object or an array, it may be changed, so the observers are informed
+     * that the properties have been handed out. Use
+     * {@link #readProperty(String)} if the value is only read.
+     *
+     * @param propertyKey the key of the property.
+     * @return the value of the property, or null if not found.
+     */
     public JsonNode getProperty(String propertyKey) {
+        JsonNode value = this.properties.get(propertyKey);
+        if (value != null && value.isContainerNode()) {
+            this.exposeProperties();
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of the property with the given key for reading. The
+     * value is not a copy and must not be modified.
+     *
+     * @param propertyKey the key of the property.
+     * @return the value of the property, or null if not found.
+     */
+    public JsonNode readProperty(String propertyKey) {
         return this.properties.get(propertyKey);
     }
 
+    /**
+     * Returns the names of all properties of this entity.
+     * <p>
+     * Unlike {@link #getProperties()}, this does not hand out the properties,
+     * as the entity can not be modified using the result.
+     *
+     * @return a new set containing the property names.
+     */
+    @JsonIgnore
+    public Set<String> getPropertyNames() {
+        Set<String> names = new LinkedHashSet<>();
+        this.getSerializedProperties().fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
     /**
      * Returns the value of the property with the given key as a String.
      * If the property is not found, it returns null.
@@ -153,6 +287,25 @@ public class AbstractEntity {
 
     protected void setId(String id) {
         this.properties.put("@id", id);
+        this.notifyObservers();
+    }
+
+    /**
+     * Removes the references to the given ids from the given properties, as
+     * described in
+     * {@link JsonUtilFunctions#removeReferences(ObjectNode, Collection, Set)}.
+     * The observers are only notified if a reference was removed.
+     *
+     * @param keys the properties which may contain references to the ids.
+     * @param ids  the ids of the entities whose references are removed.
+     * @return true if a reference was removed.
+     */
+    public boolean removeReferences(Collection<String> keys, Set<String> ids) {
+        boolean changed = JsonUtilFunctions.removeReferences(this.properties, keys, ids);
+        if (changed) {
+            this.notifyObservers();
+        }
+        return changed;
     }
 
     /**
@@ -161,7 +314,7 @@ public class AbstractEntity {
      * @param key the key of the entity, which will be removed.
      */
     public void removeProperty(String key) {
-        this.getProperties().remove(key);
+        this.properties.remove(key);
         this.notifyObservers();
     }
 
@@ -171,7 +324,7 @@ public class AbstractEntity {
      * @param keys collection of keys, which will be removed.
      */
     public void removeProperties(Collection<String> keys) {
-        this.getProperties().remove(keys);
+        this.properties.remove(keys);
         this.notifyObservers();
     }
 
@@ -347,11 +500,11 @@ public class AbstractEntity {
      */
     public void addType(String type) {
         if (this.types == null) {
-            this.types = new HashSet<>();
+            this.types = new CompactStringSet();
         }
-        this.types.add(type);
-        JsonNode node = MyObjectMapper.getMapper().valueToTree(this.types);
-        this.properties.set("@type", node);
+        this.types.add(TypeInterner.intern(type));
+        this.properties.set("@type", TypeInterner.toTypeNode(this.types));
+        this.notifyObservers();
     }
 
     /**
@@ -403,7 +556,7 @@ public class AbstractEntity {
 
         protected AbstractEntityBuilder() {
             this.properties = MyObjectMapper.getMapper().createObjectNode();
-            this.relatedItems = new HashSet<>();
+            this.relatedItems = new CompactStringSet();
         }
 
         protected String getId() {
@@ -441,10 +594,10 @@ public class AbstractEntity {
          */
         public T addType(String type) {
             if (this.types == null) {
-                this.types = new HashSet<>();
+                this.types = new CompactStringSet();
             }
             if (type != null && !type.isEmpty()) {
-                this.types.add(type);
+                this.types.add(TypeInterner.intern(type));
             }
             return self();
         }
@@ -457,9 +610,11 @@ public class AbstractEntity {
          */
         public T addTypes(Collection<String> types) {
             if (this.types == null) {
-                this.types = new HashSet<>();
+                this.types = new CompactStringSet();
+            }
+            for (String type : types) {
+                this.types.add(TypeInterner.intern(type));
             }
-            this.types.addAll(types);
             return self();
         }
 
@@ -610,6 +765,7 @@ public class AbstractEntity {
         public T setAllIfValid(ObjectNode properties) {
             if (AbstractEntity.entityValidation.entityValidation(properties)) {
                 this.properties = properties;
+                TypeInterner.internTypeProperty(properties);
                 this.relatedItems.addAll(JsonUtilFunctions.getIdPropertiesFromJsonNode(properties));
             }
             return self();
@@ -629,6 +785,7 @@ public class AbstractEntity {
             // This will currently only print errors.
             AbstractEntity.entityValidation.entityValidation(properties);
             this.properties = properties;
+            TypeInterner.internTypeProperty(properties);
             JsonNode typeProps = properties.path("@type");
             if (typeProps.isArray()) {
                 typeProps.valueStream()
@@ -6,8 +6,13 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.datamanager.ro_crate.entities.serializers.HasPartSerializer;
+import edu.kit.datamanager.ro_crate.special.CompactStringSet;
 
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -27,6 +32,10 @@ public class DataSetEntity extends DataEntity {
      * This will be serialized to and deserialized from the "hasPart" property
      * and exists for convenience to represent the additional capabilities of
      * a DataSetEntity over a normal DataEntity.
+     * <p>
+     * Changes of this set notify the observers of the entity, like the
+     * methods of this class do. Do not replace the set, as changes of
+     * another set are not noticed.
      */
     @JsonSerialize(using = HasPartSerializer.class)
     @JsonInclude(JsonInclude.Include.NON_EMPTY)
@@ -39,9 +48,9 @@ public class DataSetEntity extends DataEntity {
      */
     public DataSetEntity(AbstractDataSetBuilder<?> entityBuilder) {
         super(entityBuilder);
-        this.hasPart = entityBuilder.hasPart.stream()
+        this.hasPart = new HasPartSet(entityBuilder.hasPart.stream()
                 .filter(s -> !s.isBlank())
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(CompactStringSet::new)));
         this.addType(TYPE);
     }
 
@@ -55,6 +64,29 @@ public class DataSetEntity extends DataEntity {
         }
     }
 
+    /**
+     * Adds all given ids to the hasPart property. Observers are notified
+     * once, not per id.
+     *
+     * @param ids the ids of the parts.
+     */
+    public void addAllToHasPart(Collection<String> ids) {
+        List<String> valid = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            if (id != null && !id.isEmpty()) {
+                valid.add(id);
+            }
+        }
+        this.hasPart.addAll(valid);
+    }
+
+    /**
+     * Removes all ids from the hasPart property.
+     */
+    public void clearHasPart() {
+        this.hasPart.clear();
+    }
+
     /**
      * Check if the hasPart property contains a specific id.
      *
@@ -77,13 +109,97 @@ public class DataSetEntity extends DataEntity {
         return this.hasPart.contains(id);
     }
 
+    /**
+     * The set of the hasPart ids, which notifies the observers of the entity
+     * about each change. Bulk changes notify once.
+     */
+    private final class HasPartSet extends AbstractSet<String> {
+
+        private final Set<String> ids;
+
+        HasPartSet(Set<String> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public int size() {
+            return this.ids.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return this.ids.contains(o);
+        }
+
+        @Override
+        public boolean add(String id) {
+            return this.changed(this.ids.add(id));
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return this.changed(this.ids.remove(o));
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends String> c) {
+            return this.changed(this.ids.addAll(c));
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            return this.changed(this.ids.removeAll(c));
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            return this.changed(this.ids.retainAll(c));
+        }
+
+        @Override
+        public void clear() {
+            boolean changed = !this.ids.isEmpty();
+            this.ids.clear();
+            this.changed(changed);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            Iterator<String> iterator = this.ids.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public String next() {
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    changed(true);
+                }
+            };
+        }
+
+        private boolean changed(boolean changed) {
+            if (changed) {
+                DataSetEntity.this.notifyObservers();
+            }
+            return changed;
+        }
+    }
+
     abstract static class AbstractDataSetBuilder<T extends AbstractDataEntityBuilder<T>> extends
             AbstractDataEntityBuilder<T> {
 
         Set<String> hasPart;
 
         public AbstractDataSetBuilder() {
-            this.hasPart = new HashSet<>();
+            this.hasPart = new CompactStringSet();
         }
 
         public T setHasPart(Set<String> hasPart) {
@@ -3,16 +3,13 @@ package edu.kit.datamanager.ro_crate.entities.serializers;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.SerializerProvider;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 
 import edu.kit.datamanager.ro_crate.special.JsonUtilFunctions;
 
 import java.io.IOException;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Map.Entry;
 
 /**
  * Serialization class used with jackson to serialize the entity.
@@ -30,43 +27,91 @@ public class ObjectNodeSerializer extends StdSerializer<ObjectNode> {
     super(t);
   }
 
+  /**
+   * Writes the properties directly to the generator.
+   * <p>
+   * Behaves as if {@link JsonUtilFunctions#unwrapSingleArray(JsonNode)} was
+   * applied to the properties before writing them, but without creating a
+   * copy of the properties. Empty objects, null values and empty arrays
+   * (also after removing empty objects from them) are skipped on the top level.
+   */
   @Override
   public void serialize(ObjectNode value, JsonGenerator jgen, SerializerProvider provider)
       throws IOException {
 
-    JsonNode node = JsonUtilFunctions.unwrapSingleArray(value);
-    final Iterator<Entry<String, JsonNode>> fields = node.fields();
-
-    while (fields.hasNext()) {
-      Map.Entry<String, JsonNode> field = fields.next();
+    for (Map.Entry<String, JsonNode> field : value.properties()) {
       final String fieldName = field.getKey();
-      JsonNode fieldValue = field.getValue();
+      JsonNode fieldValue = unwrap(field.getValue());
       if (fieldValue.isObject() && fieldValue.size() == 0) {
         continue;
       }
       if (fieldValue.isNull()) {
         continue;
       }
-      // if the type array contains only one type set it as String
-      //  if (fieldName.equals("@type")) {
       if (fieldValue.isArray()) {
-        if (fieldValue.isEmpty()) {
-          continue;
-        }
-        ArrayNode arrayNode = (ArrayNode) fieldValue;
-        int size = arrayNode.size();
-        for (int i = size - 1; i >= 0; i--) {
-          var element = arrayNode.get(i);
-          if (element.isObject() && element.isEmpty()) {
-            arrayNode.remove(i);
+        // arrays with one element have been unwrapped already
+        boolean hasNonEmptyElement = false;
+        for (JsonNode element : fieldValue) {
+          if (!isEmptyObject(unwrap(element))) {
+            hasNonEmptyElement = true;
+            break;
           }
         }
-        if (arrayNode.isEmpty()) {
+        if (!hasNonEmptyElement) {
           continue;
         }
+        jgen.writeFieldName(fieldName);
+        jgen.writeStartArray();
+        for (JsonNode element : fieldValue) {
+          JsonNode unwrapped = unwrap(element);
+          if (!isEmptyObject(unwrapped)) {
+            writeUnwrapped(unwrapped, jgen);
+          }
+        }
+        jgen.writeEndArray();
+        continue;
       }
       jgen.writeFieldName(fieldName);
-      jgen.writeTree(fieldValue);
+      writeUnwrapped(fieldValue, jgen);
+    }
+  }
+
+  /**
+   * Returns the only element of single-element arrays (recursively),
+   * or the node itself otherwise.
+   */
+  private static JsonNode unwrap(JsonNode node) {
+    JsonNode current = node;
+    while (current.isArray() && current.size() == 1) {
+      current = current.get(0);
+    }
+    return current;
+  }
+
+  private static boolean isEmptyObject(JsonNode node) {
+    return node.isObject() && node.isEmpty();
+  }
+
+  /**
+   * Writes the given (already unwrapped) node, unwrapping all nested
+   * single-element arrays.
+   */
+  private static void writeUnwrapped(JsonNode node, JsonGenerator jgen) throws IOException {
+    if (node.isObject()) {
+      jgen.writeStartObject();
+      for (Map.Entry<String, JsonNode> field : node.properties()) {
+        jgen.writeFieldName(field.getKey());
+        writeUnwrapped(unwrap(field.getValue()), jgen);
+      }
+      jgen.writeEndObject();
+    } else if (node.isArray()) {
+      jgen.writeStartArray();
+      for (JsonNode element : node) {
+        writeUnwrapped(unwrap(element), jgen);
+      }
+      jgen.writeEndArray();
+    } else {
+      jgen.writeTree(node);
     }
   }
 
@@ -0,0 +1,96 @@
+package edu.kit.datamanager.ro_crate.entities.validation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+
+import java.util.Map;
+
+/**
+ * Implementation of the entity validation strategy that checks the flattened
+ * structure of the RO-Crate json document directly, without a JSON schema.
+ * <p>
+ * It accepts the same structures as the schemas used by
+ * {@link JsonSchemaValidation}: a property value may be a literal (string,
+ * number, boolean or null), an object containing only a string "@id", or an
+ * array of those. An entity is an object in which every property value is
+ * valid.
+ * <p>
+ * This is much faster than evaluating the schemas, as it only looks at the
+ * types of the nodes and does not allocate anything per property. Instances
+ * are stateless and thread-safe.
+ */
+public class FlatStructureValidation implements EntityValidationStrategy {
+
+  private static final String PROP_ID = "@id";
+
+  @Override
+  public boolean validateEntity(JsonNode entity) {
+    if (isValidEntity(entity)) {
+      return true;
+    }
+    System.err.println("This entity does not comply to the basic RO-Crate entity structure.");
+    return false;
+  }
+
+  @Override
+  public boolean validateFieldOfEntity(JsonNode field) {
+    if (isValidField(field)) {
+      return true;
+    }
+    System.err.println("The property: ");
+    try {
+      System.err.println(MyObjectMapper.getMapper().writerWithDefaultPrettyPrinter().writeValueAsString(field));
+    } catch (JsonProcessingException e) {
+      e.printStackTrace();
+    }
+    System.err.println("does not comply with the flattened structure"
+        + " of the RO-Crate json document.");
+    return false;
+  }
+
+  /**
+   * @param entity the entity as json.
+   * @return true if the entity is an object and all its property values are
+   * valid.
+   */
+  public static boolean isValidEntity(JsonNode entity) {
+    if (entity == null || !entity.isObject()) {
+      return false;
+    }
+    for (Map.Entry<String, JsonNode> field : entity.properties()) {
+      if (!isValidField(field.getValue())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param field the value of a property.
+   * @return true if the value is a literal, an id object or an array of those.
+   */
+  public static boolean isValidField(JsonNode field) {
+    if (field == null) {
+      return false;
+    }
+    if (field.isArray()) {
+      for (int i = 0; i < field.size(); i++) {
+        if (!isValidElement(field.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return isValidElement(field);
+  }
+
+  private static boolean isValidElement(JsonNode element) {
+    if (element.isObject()) {
+      JsonNode id = element.get(PROP_ID);
+      return element.size() == 1 && id != null && id.isTextual();
+    }
+    return element.isTextual() || element.isNumber() || element.isBoolean() || element.isNull();
+  }
+}
@@ -4,11 +4,10 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.networknt.schema.JsonSchema;
-import com.networknt.schema.JsonSchemaFactory;
-import com.networknt.schema.SpecVersion;
 import com.networknt.schema.ValidationMessage;
 
 import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+import edu.kit.datamanager.ro_crate.validation.JsonSchemaRegistry;
 
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -34,10 +33,9 @@ public class JsonSchemaValidation implements EntityValidationStrategy {
    *  Default constructor that uses the default schemas.
    */
   public JsonSchemaValidation() {
-    JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V201909);
     try {
-      this.entitySchema = factory.getSchema(entitySchemaDefault.toURI());
-      this.entityFieldSchema = factory.getSchema(fieldSchemaDefault.toURI());
+      this.entitySchema = JsonSchemaRegistry.getSchema(entitySchemaDefault.toURI());
+      this.entityFieldSchema = JsonSchemaRegistry.getSchema(fieldSchemaDefault.toURI());
     } catch (URISyntaxException e) {
       e.printStackTrace();
     }
@@ -50,9 +48,8 @@ public class JsonSchemaValidation implements EntityValidationStrategy {
    * @param fieldSchema schema for the field validation.
    */
   public JsonSchemaValidation(JsonNode entitySchema, JsonNode fieldSchema) {
-    JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V201909);
-    this.entitySchema = factory.getSchema(entitySchema);
-    this.entityFieldSchema = factory.getSchema(fieldSchema);
+    this.entitySchema = JsonSchemaRegistry.getSchema(entitySchema);
+    this.entityFieldSchema = JsonSchemaRegistry.getSchema(fieldSchema);
   }
 
   @Override
@@ -9,6 +9,9 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.datamanager.ro_crate.Crate;
 import edu.kit.datamanager.ro_crate.RoCrate;
 import edu.kit.datamanager.ro_crate.RoCrate.RoCrateBuilder;
+import edu.kit.datamanager.ro_crate.context.ContextDocumentLoader;
+import edu.kit.datamanager.ro_crate.context.RoCrateMetadataContext;
+import edu.kit.datamanager.ro_crate.context.TitaniumDocumentLoader;
 import edu.kit.datamanager.ro_crate.entities.contextual.ContextualEntity;
 import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
 import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
@@ -29,6 +32,8 @@ import org.apache.http.impl.client.HttpClients;
  */
 public class ImportFromZenodo {
 
+  private static final String SCHEMA_ORG_CONTEXT = "https://schema.org/docs/jsonldcontext.json";
+
   /**
    * Class has only static methods, therefore forbid instance creation.
    */
@@ -71,8 +76,6 @@ public class ImportFromZenodo {
     CloseableHttpClient httpClient = HttpClients.createDefault();
     HttpGet requestZenodo = new HttpGet(url);
 
-    // HttpGet requestSchema= new HttpGet("https://www.researchobject.org/ro-crate/1.1/context.jsonld");
-    HttpGet requestSchema = new HttpGet("https://schema.org/docs/jsonldcontext.json");
     requestZenodo.addHeader(HttpHeaders.ACCEPT, "application/ld+json");
     ObjectNode jsonNode;
     String mainId;
@@ -84,12 +87,16 @@ public class ImportFromZenodo {
       jsonNode = (ObjectNode) objectMapper.readTree(stream);
       mainId = jsonNode.get("@id").asText();
 
+      ContextDocumentLoader contextLoader = RoCrateMetadataContext.getContextDocumentLoader();
+      TitaniumDocumentLoader documentLoader = new TitaniumDocumentLoader(contextLoader);
       final var el = JsonLd.flatten(JsonDocument.of(
               new ByteArrayInputStream(
-                  jsonNode.toString().getBytes(StandardCharsets.UTF_8)))).get();
+                  jsonNode.toString().getBytes(StandardCharsets.UTF_8))))
+          .loader(documentLoader)
+          .get();
 
-      CloseableHttpResponse schema = httpClient.execute(requestSchema);
-      ObjectNode doc = (ObjectNode) objectMapper.readTree(schema.getEntity().getContent());
+      // the loaded context may be shared, so it must not be modified
+      ObjectNode doc = (ObjectNode) contextLoader.load(SCHEMA_ORG_CONTEXT).deepCopy();
       var con = (ObjectNode) doc.get("@context");
       con.remove("type");
       con.remove("id");
@@ -97,7 +104,9 @@ public class ImportFromZenodo {
       var finalVersion = JsonLd.compact(
           JsonDocument.of(el),
           JsonDocument.of(new ByteArrayInputStream(
-              doc.toString().getBytes(StandardCharsets.UTF_8)))).get();
+              doc.toString().getBytes(StandardCharsets.UTF_8))))
+          .loader(documentLoader)
+          .get();
 
 
       jsonNode = (ObjectNode) objectMapper.readTree(finalVersion.toString());
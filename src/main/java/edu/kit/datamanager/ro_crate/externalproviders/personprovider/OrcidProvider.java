@@ -5,7 +5,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import edu.kit.datamanager.ro_crate.entities.contextual.PersonEntity;
 import edu.kit.datamanager.ro_crate.entities.validation.EntityValidation;
-import edu.kit.datamanager.ro_crate.entities.validation.JsonSchemaValidation;
+import edu.kit.datamanager.ro_crate.entities.validation.FlatStructureValidation;
 import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
 
 import java.io.IOException;
@@ -64,7 +64,7 @@ public class OrcidProvider {
       jsonNode.remove("@reverse");
       jsonNode.remove("@context");
       ObjectNode node = objectMapper.createObjectNode();
-      EntityValidation entityValidation = new EntityValidation(new JsonSchemaValidation());
+      EntityValidation entityValidation = new EntityValidation(new FlatStructureValidation());
       var itr = jsonNode.fields();
       while (itr.hasNext()) {
         var element = itr.next();
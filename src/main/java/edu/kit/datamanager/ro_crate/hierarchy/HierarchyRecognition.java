@@ -201,7 +201,7 @@ public class HierarchyRecognition {
     ) {
         for (DataEntity entity : pathEntities.values()) {
             if (entity instanceof DataSetEntity) {
-                ((DataSetEntity) entity).hasPart.clear();
+                ((DataSetEntity) entity).clearHasPart();
             }
         }
     }
@@ -0,0 +1,28 @@
+package edu.kit.datamanager.ro_crate.objectmapper;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Creates object nodes with small initial capacity.
+ * <p>
+ * Jackson creates the map of every object node with the default capacity
+ * of 16 entries. Entities usually have only a few properties, and
+ * references like {"@id": "..."} have a single one, so the maps start small
+ * and grow on demand instead.
+ */
+class CompactNodeFactory extends JsonNodeFactory {
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  CompactNodeFactory() {
+    super(false);
+  }
+
+  @Override
+  public ObjectNode objectNode() {
+    return new ObjectNode(this, new LinkedHashMap<>(INITIAL_CAPACITY));
+  }
+}
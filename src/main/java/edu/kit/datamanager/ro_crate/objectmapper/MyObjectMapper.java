@@ -15,7 +15,8 @@ public class MyObjectMapper {
   private static final ObjectMapper mapper = new ObjectMapper()
       .enable(SerializationFeature.WRITE_SINGLE_ELEM_ARRAYS_UNWRAPPED)
       .enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
-      .enable(DeserializationFeature.UNWRAP_SINGLE_VALUE_ARRAYS);
+      .enable(DeserializationFeature.UNWRAP_SINGLE_VALUE_ARRAYS)
+      .setNodeFactory(new CompactNodeFactory());
 
   private MyObjectMapper() {
 
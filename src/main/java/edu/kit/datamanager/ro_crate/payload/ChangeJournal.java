@@ -0,0 +1,114 @@
+package edu.kit.datamanager.ro_crate.payload;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records which entities of a payload were added, changed or removed, e.g.
+ * to persist a crate incrementally.
+ * <p>
+ * Each change gets a sequence number. A consumer remembers the sequence
+ * number it has processed and asks for the changes after it with
+ * {@link #getChangesSince(long)}. Only the latest change of each entity is
+ * kept, so the journal holds at most one entry per entity, no matter how
+ * often it changes. Entries which are no longer needed by any consumer can
+ * be dropped with {@link #discardUpTo(long)}.
+ * <p>
+ * Changes are recorded per entity, not per property, as the properties of
+ * an entity may be modified directly (see
+ * {@link edu.kit.datamanager.ro_crate.entities.AbstractEntity#getProperties()}).
+ * Only actual modifications are recorded, reading or serializing a crate
+ * records nothing. Direct modifications of the properties are recorded
+ * when the payload notices them, i.e. when the crate is written next.
+ * <p>
+ * This class is thread-safe.
+ */
+public class ChangeJournal {
+
+  /**
+   * The kind of a change.
+   */
+  public enum Kind {
+    /**
+     * The entity was added or changed.
+     */
+    CHANGED,
+    /**
+     * The entity was removed.
+     */
+    REMOVED
+  }
+
+  /**
+   * The latest change of an entity.
+   *
+   * @param sequence the sequence number of the change.
+   * @param kind     what happened to the entity.
+   * @param entityId the id of the entity.
+   */
+  public record Change(long sequence, Kind kind, String entityId) {}
+
+  private final Map<String, Change> latestChanges = new HashMap<>();
+  private final TreeMap<Long, Change> changesBySequence = new TreeMap<>();
+  private long sequence = 0;
+
+  /**
+   * Records a change of an entity.
+   *
+   * @param kind     what happened to the entity.
+   * @param entityId the id of the entity.
+   */
+  synchronized void record(Kind kind, String entityId) {
+    Change change = new Change(++this.sequence, kind, entityId);
+    Change previous = this.latestChanges.put(entityId, change);
+    if (previous != null) {
+      this.changesBySequence.remove(previous.sequence());
+    }
+    this.changesBySequence.put(change.sequence(), change);
+  }
+
+  /**
+   * @return the sequence number of the latest change, or 0 if nothing
+   * changed yet.
+   */
+  public synchronized long getSequence() {
+    return this.sequence;
+  }
+
+  /**
+   * Returns the latest change of each entity which changed after the given
+   * sequence number.
+   *
+   * @param sequence the sequence number processed by the caller, 0 for all
+   *                 recorded changes.
+   * @return the changes, ordered by their sequence number.
+   */
+  public synchronized List<Change> getChangesSince(long sequence) {
+    return new ArrayList<>(this.changesBySequence.tailMap(sequence, false).values());
+  }
+
+  /**
+   * Drops all changes up to the given sequence number, e.g. after they were
+   * persisted. Later calls of {@link #getChangesSince(long)} will not
+   * return them anymore.
+   *
+   * @param sequence the sequence number up to which the changes are dropped.
+   */
+  public synchronized void discardUpTo(long sequence) {
+    var discarded = this.changesBySequence.headMap(sequence, true);
+    for (Change change : discarded.values()) {
+      this.latestChanges.remove(change.entityId());
+    }
+    discarded.clear();
+  }
+
+  /**
+   * @return the number of entities with recorded changes.
+   */
+  public synchronized int size() {
+    return this.latestChanges.size();
+  }
+}
@@ -0,0 +1,64 @@
+package edu.kit.datamanager.ro_crate.payload;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A payload which can be populated from several threads at once, e.g. one
+ * thread per folder of an instrument.
+ * <p>
+ * Entities are stored in concurrent maps, so adding and getting entities
+ * does not require a lock. Modifications of a single entity, like adding
+ * parts to a dataset, are done with {@link #modifyEntity(String, Runnable)}.
+ * It uses a fixed number of locks, each responsible for a subset of the
+ * ids, so threads only wait for each other if they modify entities sharing
+ * a lock.
+ * <p>
+ * Queries and deletions are safe to call from several threads as well, but
+ * they should not run while other threads still modify the entities
+ * involved.
+ */
+public class ConcurrentRoCratePayload extends RoCratePayload {
+
+  private static final int DEFAULT_STRIPES = 64;
+
+  private final ReentrantLock[] locks;
+
+  /**
+   * Creates a payload with the default number of locks.
+   */
+  public ConcurrentRoCratePayload() {
+    this(DEFAULT_STRIPES);
+  }
+
+  /**
+   * @param stripes the number of locks for the modification of entities.
+   *                More locks reduce waiting, but need more memory.
+   */
+  public ConcurrentRoCratePayload(int stripes) {
+    super(true);
+    if (stripes < 1) {
+      throw new IllegalArgumentException("At least one lock is required, but the number was " + stripes);
+    }
+    this.locks = new ReentrantLock[stripes];
+    for (int i = 0; i < stripes; i++) {
+      this.locks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Modifications of entities whose ids share a lock do not run at the same
+   * time.
+   */
+  @Override
+  public void modifyEntity(String entityId, Runnable modification) {
+    ReentrantLock lock = this.locks[Math.floorMod(entityId.hashCode(), this.locks.length)];
+    lock.lock();
+    try {
+      modification.run();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -1,13 +1,21 @@
 package edu.kit.datamanager.ro_crate.payload;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
 import edu.kit.datamanager.ro_crate.entities.AbstractEntity;
 import edu.kit.datamanager.ro_crate.entities.contextual.ContextualEntity;
 import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
 
+import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Interface for the ROCrate payload.
@@ -32,13 +40,178 @@ public interface CratePayload {
 
   void addEntities(Collection<? extends AbstractEntity> entity);
 
+  /**
+   * @return a new set containing all entities. Prefer {@link #streamEntities()}
+   * if no copy is required.
+   */
   Set<AbstractEntity> getAllEntities();
 
+  /**
+   * @return a new set containing all data entities. Prefer
+   * {@link #getDataEntitiesView()} or {@link #streamDataEntities()} if no
+   * copy is required.
+   */
   Set<DataEntity> getAllDataEntities();
 
+  /**
+   * @return a new set containing all contextual entities. Prefer
+   * {@link #getContextualEntitiesView()} or
+   * {@link #streamContextualEntities()} if no copy is required.
+   */
   Set<ContextualEntity> getAllContextualEntities();
 
+  /**
+   * Returns an unmodifiable view of the data entities.
+   * <p>
+   * Implementations should return a live view, reflecting later changes of
+   * the payload without copying the entities. The payload must not be
+   * modified while iterating over the view. The default implementation
+   * returns a copy.
+   *
+   * @return the data entities.
+   */
+  default Collection<DataEntity> getDataEntitiesView() {
+    return Collections.unmodifiableCollection(this.getAllDataEntities());
+  }
+
+  /**
+   * Returns an unmodifiable view of the contextual entities.
+   * <p>
+   * Implementations should return a live view, reflecting later changes of
+   * the payload without copying the entities. The payload must not be
+   * modified while iterating over the view. The default implementation
+   * returns a copy.
+   *
+   * @return the contextual entities.
+   */
+  default Collection<ContextualEntity> getContextualEntitiesView() {
+    return Collections.unmodifiableCollection(this.getAllContextualEntities());
+  }
+
+  /**
+   * @return a stream of the data entities, without copying them.
+   */
+  default Stream<DataEntity> streamDataEntities() {
+    return this.getDataEntitiesView().stream();
+  }
+
+  /**
+   * @return a stream of the contextual entities, without copying them.
+   */
+  default Stream<ContextualEntity> streamContextualEntities() {
+    return this.getContextualEntitiesView().stream();
+  }
+
+  /**
+   * @return a stream of all data and contextual entities, without copying them.
+   */
+  default Stream<AbstractEntity> streamEntities() {
+    return Stream.concat(this.streamDataEntities(), this.streamContextualEntities());
+  }
+
   ArrayNode getEntitiesMetadata();
 
+  /**
+   * Writes the metadata of all entities as consecutive values to the given
+   * generator. The caller is responsible for the surrounding array.
+   *
+   * @param generator the generator to write to.
+   * @throws IOException if writing fails.
+   */
+  default void writeEntitiesMetadata(JsonGenerator generator) throws IOException {
+    for (JsonNode entity : this.getEntitiesMetadata()) {
+      generator.writeTree(entity);
+    }
+  }
+
   void removeEntityById(String id);
+
+  /**
+   * Runs a modification of the entity with the given id.
+   * <p>
+   * Thread-safe payloads make sure that modifications of the same entity do
+   * not run at the same time. The default implementation runs the
+   * modification directly.
+   *
+   * @param entityId     the id of the entity to modify. It does not need to be part
+   *                     of the payload (e.g., the root data entity).
+   * @param modification the modification.
+   */
+  default void modifyEntity(String entityId, Runnable modification) {
+    modification.run();
+  }
+
+  /**
+   * Starts recording the changes of the entities in a {@link ChangeJournal},
+   * if not done already.
+   *
+   * @return the journal.
+   * @throws UnsupportedOperationException if the payload does not support it.
+   */
+  default ChangeJournal enableChangeJournal() {
+    throw new UnsupportedOperationException("This payload does not record changes.");
+  }
+
+  /**
+   * @return the journal of the changes, if enabled.
+   */
+  default Optional<ChangeJournal> getChangeJournal() {
+    return Optional.empty();
+  }
+
+  /**
+   * Removes all entities with the given ids, including the references of
+   * other entities to them.
+   *
+   * @param ids the ids of the entities to remove.
+   */
+  default void removeEntitiesById(Collection<String> ids) {
+    for (String id : ids) {
+      this.removeEntityById(id);
+    }
+  }
+
+  /**
+   * Finds all entities with the given type.
+   * <p>
+   * The default implementation iterates over all entities.
+   *
+   * @param type the type, e.g. "Person".
+   * @return the entities with this type. May be empty.
+   */
+  default Set<AbstractEntity> findByType(String type) {
+    return this.streamEntities()
+        .filter(entity -> entity.getTypes() != null && entity.getTypes().contains(type))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Finds all entities with the given property value. For references to
+   * other entities, the value is the id of the referenced entity. If the
+   * property has multiple values, one of them has to match.
+   * <p>
+   * The default implementation iterates over all entities.
+   *
+   * @param property the name of the property, e.g. "encodingFormat".
+   * @param value    the value or referenced id.
+   * @return the entities with this property value. May be empty.
+   */
+  default Set<AbstractEntity> findByProperty(String property, String value) {
+    return this.streamEntities()
+        .filter(entity -> {
+          JsonNode node = entity.readProperty(property);
+          if (node == null) {
+            return false;
+          }
+          Iterable<JsonNode> values = node.isArray() ? node : List.of(node);
+          for (JsonNode element : values) {
+            String text = element.isValueNode() ? element.asText() : element.path("@id").asText(null);
+            if (value.equals(text)) {
+              return true;
+            }
+          }
+          return false;
+        })
+        .collect(Collectors.toSet());
+  }
 }
@@ -0,0 +1,238 @@
+package edu.kit.datamanager.ro_crate.payload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import edu.kit.datamanager.ro_crate.entities.AbstractEntity;
+import edu.kit.datamanager.ro_crate.special.CompactStringSet;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Secondary indexes of the entities in a payload: the ids of all entities by
+ * type, and by the values of selected properties.
+ * <p>
+ * The index is built with the first query, so payloads which are never
+ * queried do not pay for it. Afterwards, entities are not indexed
+ * immediately when they change. Instead, they are marked as changed and
+ * indexed again before the next query. This way,
+ * many changes to the same entity are only indexed once. Entities whose
+ * properties have been handed out (see
+ * {@link AbstractEntity#getProperties()}) are marked as changed by the
+ * payload before each query, as they may change without a notification.
+ * <p>
+ * Property values are indexed by their text. For references, this is the
+ * referenced id, so "author" can be queried with the id of a person. Arrays
+ * are indexed by each of their elements.
+ * <p>
+ * Except for {@link #markChanged(String)}, this class is not thread-safe.
+ * It is only meant to be used by the {@link RoCratePayload}, which
+ * synchronizes the other calls.
+ */
+class EntityIndex {
+
+    private static final String PROP_ID = "@id";
+    private static final String PROP_TYPE = "@type";
+
+    private final Function<String, AbstractEntity> lookup;
+    private final Supplier<Collection<String>> allIds;
+
+    private final Map<String, Set<String>> idsByType = new HashMap<>();
+    private final Map<String, Map<String, Set<String>>> idsByPropertyValue = new HashMap<>();
+    /**
+     * The keys each entity is currently indexed with, by entity id. Contains
+     * all indexed entities, also those without types or indexed properties.
+     */
+    private final Map<String, IndexedKeys> indexedKeys = new HashMap<>();
+    /**
+     * Entities marked as changed. This is a concurrent set, so entities can
+     * be marked from several threads without holding a lock.
+     */
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+    /**
+     * Whether the index has been built. Until then, changes are not recorded.
+     */
+    private volatile boolean built = false;
+
+    private record IndexedKeys(Set<String> types, Map<String, Set<String>> propertyValues) {}
+
+    /**
+     * @param lookup resolves an id to the entity currently stored in the payload, or null.
+     * @param allIds provides the ids of all entities in the payload, to build the index.
+     */
+    EntityIndex(Function<String, AbstractEntity> lookup, Supplier<Collection<String>> allIds) {
+        this.lookup = lookup;
+        this.allIds = allIds;
+    }
+
+    /**
+     * Marks an entity as added or changed. It will be indexed before the next
+     * query. Does nothing before the index is built.
+     *
+     * @param id the id of the entity.
+     */
+    void markChanged(String id) {
+        if (!this.built) {
+            return;
+        }
+        this.changed.add(id);
+    }
+
+    /**
+     * Removes an entity from all indexes.
+     *
+     * @param id the id of the removed entity.
+     */
+    void remove(String id) {
+        this.changed.remove(id);
+        this.unindex(id);
+    }
+
+    /**
+     * Maintains an index for the values of the given property from now on.
+     *
+     * @param property the name of the property.
+     */
+    void addIndexedProperty(String property) {
+        if (this.idsByPropertyValue.containsKey(property)) {
+            return;
+        }
+        this.refresh();
+        this.idsByPropertyValue.put(property, new HashMap<>());
+        for (Map.Entry<String, IndexedKeys> entry : this.indexedKeys.entrySet()) {
+            AbstractEntity entity = this.lookup.apply(entry.getKey());
+            if (entity != null) {
+                Set<String> values = valuesOf(entity.readProperty(property));
+                entry.getValue().propertyValues().put(property, values);
+                addAll(this.idsByPropertyValue.get(property), values, entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * @return the names of all properties with an index.
+     */
+    Set<String> getIndexedProperties() {
+        return Collections.unmodifiableSet(this.idsByPropertyValue.keySet());
+    }
+
+    /**
+     * @param type the type to search for.
+     * @return the ids of all entities with the given type.
+     */
+    Set<String> findByType(String type) {
+        this.refresh();
+        return Collections.unmodifiableSet(this.idsByType.getOrDefault(type, Set.of()));
+    }
+
+    /**
+     * Finds entities by a property value. The property will be indexed from
+     * now on, if it was not indexed already.
+     *
+     * @param property the name of the property.
+     * @param value    the value, or the referenced id.
+     * @return the ids of all entities with the given value.
+     */
+    Set<String> findByProperty(String property, String value) {
+        this.addIndexedProperty(property);
+        this.refresh();
+        return Collections.unmodifiableSet(this.idsByPropertyValue.get(property).getOrDefault(value, Set.of()));
+    }
+
+    private void refresh() {
+        if (!this.built) {
+            // entities changed while building are marked and indexed again below
+            this.built = true;
+            for (String id : this.allIds.get()) {
+                AbstractEntity entity = this.lookup.apply(id);
+                if (entity != null) {
+                    this.index(id, entity);
+                }
+            }
+        }
+        if (this.changed.isEmpty()) {
+            return;
+        }
+        // entities marked while refreshing are either processed now or kept for the next refresh
+        for (Iterator<String> ids = this.changed.iterator(); ids.hasNext(); ) {
+            String id = ids.next();
+            ids.remove();
+            this.unindex(id);
+            AbstractEntity entity = this.lookup.apply(id);
+            if (entity != null) {
+                this.index(id, entity);
+            }
+        }
+    }
+
+    private void index(String id, AbstractEntity entity) {
+        Set<String> types = new CompactStringSet();
+        if (entity.getTypes() != null) {
+            types.addAll(entity.getTypes());
+        }
+        types.addAll(valuesOf(entity.readProperty(PROP_TYPE)));
+        addAll(this.idsByType, types, id);
+
+        Map<String, Set<String>> propertyValues = new HashMap<>();
+        for (Map.Entry<String, Map<String, Set<String>>> index : this.idsByPropertyValue.entrySet()) {
+            Set<String> values = valuesOf(entity.readProperty(index.getKey()));
+            propertyValues.put(index.getKey(), values);
+            addAll(index.getValue(), values, id);
+        }
+        this.indexedKeys.put(id, new IndexedKeys(types, propertyValues));
+    }
+
+    private void unindex(String id) {
+        IndexedKeys keys = this.indexedKeys.remove(id);
+        if (keys == null) {
+            return;
+        }
+        removeAll(this.idsByType, keys.types(), id);
+        for (Map.Entry<String, Set<String>> values : keys.propertyValues().entrySet()) {
+            removeAll(this.idsByPropertyValue.get(values.getKey()), values.getValue(), id);
+        }
+    }
+
+    private static Set<String> valuesOf(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return new CompactStringSet();
+        }
+        // kept per entity until it is indexed again, so it should be small
+        Set<String> values = new CompactStringSet();
+        if (node.isArray()) {
+            for (JsonNode element : node) {
+                addValue(values, element);
+            }
+        } else {
+            addValue(values, node);
+        }
+        return values;
+    }
+
+    private static void addValue(Set<String> values, JsonNode node) {
+        if (node.isValueNode()) {
+            values.add(node.asText());
+        } else if (node.path(PROP_ID).isTextual()) {
+            values.add(node.path(PROP_ID).asText());
+        }
+    }
+
+    private static void addAll(Map<String, Set<String>> index, Set<String> keys, String id) {
+        for (String key : keys) {
+            index.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static void removeAll(Map<String, Set<String>> index, Set<String> keys, String id) {
+        for (String key : keys) {
+            Set<String> ids = index.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package edu.kit.datamanager.ro_crate.payload;
 
 /**
- * Implementation of the Observer pattern, used by the deletion of entities.
+ * Implementation of the Observer pattern, used by the deletion of entities
+ * and to keep the cached serialization and the indexes of entities up to
+ * date.
  */
 public class EntityObserver implements Observer {
 
@@ -13,6 +15,11 @@ public class EntityObserver implements Observer {
 
   @Override
   public void update(String entityId) {
-    this.payload.addToAssociatedItems(this.payload.getEntityById(entityId));
+    this.payload.markChanged(entityId);
+  }
+
+  @Override
+  public void exposed(String entityId) {
+    this.payload.markExposed(entityId);
   }
 }
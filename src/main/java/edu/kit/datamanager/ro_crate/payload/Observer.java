@@ -5,4 +5,13 @@ package edu.kit.datamanager.ro_crate.payload;
  */
 public interface Observer {
   void update(String entityId);
+
+  /**
+   * Called when the mutable properties of an entity have been handed out,
+   * so the entity may change without calling {@link #update(String)}.
+   *
+   * @param entityId the id of the entity.
+   */
+  default void exposed(String entityId) {
+  }
 }
@@ -0,0 +1,174 @@
+package edu.kit.datamanager.ro_crate.payload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import edu.kit.datamanager.ro_crate.entities.AbstractEntity;
+import edu.kit.datamanager.ro_crate.entities.data.DataSetEntity;
+import edu.kit.datamanager.ro_crate.special.CompactStringSet;
+import edu.kit.datamanager.ro_crate.special.JsonUtilFunctions;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reverse index of the references between the entities in a payload: for
+ * each referenced id, which properties of which entities refer to it.
+ * <p>
+ * A reference is an object like {"@id": "id"} within a property value,
+ * including arrays and nested objects. The ids in the hasPart set of a
+ * {@link DataSetEntity} are indexed as references of the "hasPart"
+ * property.
+ * <p>
+ * Like the {@link EntityIndex}, the index is built with the first query.
+ * Afterwards, entities are marked as changed on notification and indexed
+ * again before the next query.
+ * <p>
+ * Except for {@link #markChanged(String)}, this class is not thread-safe.
+ * It is only meant to be used by the {@link RoCratePayload}, which
+ * synchronizes the other calls.
+ */
+class ReferenceIndex {
+
+    static final String PROP_HAS_PART = "hasPart";
+
+    private final Function<String, AbstractEntity> lookup;
+    private final Supplier<Collection<String>> allIds;
+
+    /**
+     * By referenced id: the referring entity ids, each with the names of the
+     * properties containing the references.
+     */
+    private final Map<String, Map<String, Set<String>>> referrers = new HashMap<>();
+    /**
+     * By entity id: the ids the entity currently refers to. Used to remove
+     * its entries from {@link #referrers} when it changes.
+     */
+    private final Map<String, Set<String>> references = new HashMap<>();
+    // concurrent, as entities may be added by several threads at once
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+    // changes are not recorded until the index is built
+    private volatile boolean built = false;
+
+    /**
+     * @param lookup resolves an id to the entity currently stored in the payload, or null.
+     * @param allIds provides the ids of all entities in the payload, to build the index.
+     */
+    ReferenceIndex(Function<String, AbstractEntity> lookup, Supplier<Collection<String>> allIds) {
+        this.lookup = lookup;
+        this.allIds = allIds;
+    }
+
+    /**
+     * Marks an entity as added or changed. It will be indexed before the next
+     * query. Does nothing before the index is built.
+     *
+     * @param id the id of the entity.
+     */
+    void markChanged(String id) {
+        if (!this.built) {
+            return;
+        }
+        this.changed.add(id);
+    }
+
+    /**
+     * Removes the references of an entity from the index. References to the
+     * entity are kept until the referring entities change.
+     *
+     * @param id the id of the removed entity.
+     */
+    void remove(String id) {
+        this.changed.remove(id);
+        this.unindex(id);
+    }
+
+    /**
+     * Finds all entities referring to one of the given ids.
+     *
+     * @param ids the referenced ids.
+     * @return a new map containing the ids of the referring entities, each
+     * with the names of the properties containing the references.
+     */
+    Map<String, Set<String>> getReferrers(Collection<String> ids) {
+        this.refresh();
+        Map<String, Set<String>> result = new HashMap<>();
+        for (String id : ids) {
+            for (Map.Entry<String, Set<String>> referrer : this.referrers.getOrDefault(id, Map.of()).entrySet()) {
+                result.computeIfAbsent(referrer.getKey(), k -> new HashSet<>()).addAll(referrer.getValue());
+            }
+        }
+        return result;
+    }
+
+    private void refresh() {
+        if (!this.built) {
+            // entities changed while building are marked and indexed again below
+            this.built = true;
+            for (String id : this.allIds.get()) {
+                AbstractEntity entity = this.lookup.apply(id);
+                if (entity != null) {
+                    this.index(id, entity);
+                }
+            }
+        }
+        if (this.changed.isEmpty()) {
+            return;
+        }
+        for (Iterator<String> ids = this.changed.iterator(); ids.hasNext(); ) {
+            String id = ids.next();
+            ids.remove();
+            this.unindex(id);
+            AbstractEntity entity = this.lookup.apply(id);
+            if (entity != null) {
+                this.index(id, entity);
+            }
+        }
+    }
+
+    private void index(String id, AbstractEntity entity) {
+        // kept per entity until it changes, so it should be small
+        Set<String> targets = new CompactStringSet();
+        for (String property : entity.getPropertyNames()) {
+            if ("@id".equals(property)) {
+                continue;
+            }
+            JsonNode value = entity.readProperty(property);
+            Set<String> referenced = new HashSet<>();
+            JsonUtilFunctions.collectReferences(value, referenced);
+            this.add(id, property, referenced);
+            targets.addAll(referenced);
+        }
+        if (entity instanceof DataSetEntity dataSet && dataSet.hasPart != null) {
+            this.add(id, PROP_HAS_PART, dataSet.hasPart);
+            targets.addAll(dataSet.hasPart);
+        }
+        if (!targets.isEmpty()) {
+            this.references.put(id, targets);
+        }
+    }
+
+    private void add(String id, String property, Set<String> targets) {
+        for (String target : targets) {
+            this.referrers.computeIfAbsent(target, k -> new HashMap<>())
+                    .computeIfAbsent(id, k -> new CompactStringSet())
+                    .add(property);
+        }
+    }
+
+    private void unindex(String id) {
+        Set<String> targets = this.references.remove(id);
+        if (targets == null) {
+            return;
+        }
+        for (String target : targets) {
+            Map<String, Set<String>> referring = this.referrers.get(target);
+            if (referring != null) {
+                referring.remove(id);
+                if (referring.isEmpty()) {
+                    this.referrers.remove(target);
+                }
+            }
+        }
+    }
+}
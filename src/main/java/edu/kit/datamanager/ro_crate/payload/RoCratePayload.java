@@ -1,5 +1,8 @@
 package edu.kit.datamanager.ro_crate.payload;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -7,33 +10,149 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.datamanager.ro_crate.entities.AbstractEntity;
 import edu.kit.datamanager.ro_crate.entities.contextual.ContextualEntity;
 import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
+import edu.kit.datamanager.ro_crate.entities.data.DataSetEntity;
 import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
-import edu.kit.datamanager.ro_crate.special.JsonUtilFunctions;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * The crate payload is the class containing all the entities in the crate.
  */
 public class RoCratePayload implements CratePayload {
 
-  private final HashMap<String, DataEntity> dataEntities;
-  private final HashMap<String, ContextualEntity> contextualEntities;
+  /**
+   * Below this number of entities, resizing the maps in advance is not
+   * worth copying them.
+   */
+  private static final int MIN_PRESIZED_ENTITIES = 1024;
+
+  private Map<String, DataEntity> dataEntities;
+  private Map<String, ContextualEntity> contextualEntities;
+
+  /**
+   * For each entity id, which properties of which entities refer to it.
+   * This is used to make the removal of entities from the crate faster.
+   */
+  private final ReferenceIndex references;
+
+  /**
+   * The serialized JSON of each entity, by entity id.
+   * Entries are removed whenever the entity notifies its observers about a change,
+   * so only changed entities need to be serialized again.
+   */
+  private Map<String, String> serializedEntities;
 
   /**
-    * A map containing for each entity id a set of ids of entities that are linked to it.
-    * This is used to make the removal of entities from the crate faster.
+   * The ids of entities whose properties have been handed out (see
+   * {@link AbstractEntity#getProperties()}). They may change without a
+   * notification, so they are checked for changes whenever the cached JSON
+   * or the indexes are used.
    */
-  private final HashMap<String, Set<String>> associatedItems;
+  private final Set<String> exposedEntities = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Secondary indexes by type and by property values, used to answer
+   * queries without iterating over all entities.
+   */
+  private final EntityIndex index;
+
+  /**
+   * Observes all entities of this payload. It is stateless, so one instance
+   * is shared instead of creating one per entity.
+   */
+  private final EntityObserver observer = new EntityObserver(this);
+
+  private final boolean threadSafe;
+
+  /**
+   * Records changes for consumers outside the payload. Only created on
+   * request, as it needs memory for each changed entity.
+   */
+  private volatile ChangeJournal journal;
 
   /**
    * The default constructor for instantiating a payload.
    */
   public RoCratePayload() {
-    this.dataEntities = new HashMap<>();
-    this.contextualEntities = new HashMap<>();
-    this.associatedItems = new HashMap<>();
+    this(false);
+  }
+
+  /**
+   * Constructor for payloads which may be modified by several threads at
+   * once, see {@link ConcurrentRoCratePayload}.
+   *
+   * @param threadSafe whether to use concurrent maps for the entities.
+   */
+  protected RoCratePayload(boolean threadSafe) {
+    this.threadSafe = threadSafe;
+    if (threadSafe) {
+      this.dataEntities = new ConcurrentHashMap<>();
+      this.contextualEntities = new ConcurrentHashMap<>();
+      this.serializedEntities = new ConcurrentHashMap<>();
+    } else {
+      this.dataEntities = new HashMap<>();
+      this.contextualEntities = new HashMap<>();
+      this.serializedEntities = new HashMap<>();
+    }
+    this.references = new ReferenceIndex(this::getEntityById, this::getEntityIds);
+    this.index = new EntityIndex(this::getEntityById, this::getEntityIds);
+  }
+
+  /**
+   * Maintains an index for the values of the given property, so
+   * {@link #findByProperty(String, String)} does not need to iterate over
+   * all entities. Properties which are queried are indexed automatically
+   * with the first query.
+   *
+   * @param property the name of the property.
+   */
+  public void addIndexedProperty(String property) {
+    synchronized (this.index) {
+      this.index.addIndexedProperty(property);
+    }
+  }
+
+  /**
+   * @return the names of all properties with an index.
+   */
+  public Set<String> getIndexedProperties() {
+    synchronized (this.index) {
+      return Set.copyOf(this.index.getIndexedProperties());
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Uses an index of the types, so the time depends on the number of
+   * results, not on the size of the crate.
+   */
+  @Override
+  public Set<AbstractEntity> findByType(String type) {
+    synchronized (this.index) {
+      this.exposedEntities.forEach(this.index::markChanged);
+      return this.getEntitiesByIds(this.index.findByType(type));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The property is indexed with the first query and the index is
+   * maintained afterwards, so later queries depend on the number of results
+   * only.
+   */
+  @Override
+  public Set<AbstractEntity> findByProperty(String property, String value) {
+    synchronized (this.index) {
+      this.exposedEntities.forEach(this.index::markChanged);
+      return this.getEntitiesByIds(this.index.findByProperty(property, value));
+    }
   }
 
   @Override
@@ -56,18 +175,27 @@ public class RoCratePayload implements CratePayload {
     return data;
   }
 
+  /**
+   * @return a new set of the ids of all entities in this payload.
+   */
+  private Set<String> getEntityIds() {
+    Set<String> ids = new HashSet<>(this.dataEntities.keySet());
+    ids.addAll(this.contextualEntities.keySet());
+    return ids;
+  }
+
   @Override
   public void addDataEntity(DataEntity dataEntity) {
-    this.addToAssociatedItems(dataEntity);
     this.dataEntities.put(dataEntity.getId(), dataEntity);
-    dataEntity.addObserver(new EntityObserver(this));
+    this.markChanged(dataEntity.getId());
+    dataEntity.addObserver(this.observer);
   }
 
   @Override
   public void addContextualEntity(ContextualEntity contextualEntity) {
-    this.addToAssociatedItems(contextualEntity);
     this.contextualEntities.put(contextualEntity.getId(), contextualEntity);
-    contextualEntity.addObserver(new EntityObserver(this));
+    this.markChanged(contextualEntity.getId());
+    contextualEntity.addObserver(this.observer);
   }
 
   @Override
@@ -81,9 +209,15 @@ public class RoCratePayload implements CratePayload {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The maps are grown to their final size once, instead of step by step.
+   */
   @Override
   public void addEntities(Collection<? extends AbstractEntity> entities) {
     if (entities != null) {
+      this.ensureCapacity(entities);
       for (var element : entities) {
         this.addEntity(element);
       }
@@ -91,24 +225,55 @@ public class RoCratePayload implements CratePayload {
   }
 
   /**
-   * This method is used to add an entity  linked entities' ids to the map of associatedItems.
-   * This will be then used to make the removal of entities from the crate faster.
+   * Resizes the maps once, so adding the given entities does not rehash
+   * them repeatedly. The maps of thread-safe payloads are shared with other
+   * threads and grow as usual.
+   *
+   * @param entities the entities to be added.
+   */
+  private void ensureCapacity(Collection<? extends AbstractEntity> entities) {
+    if (this.threadSafe || entities.size() < MIN_PRESIZED_ENTITIES) {
+      return;
+    }
+    int data = 0;
+    for (AbstractEntity entity : entities) {
+      if (entity instanceof DataEntity) {
+        data++;
+      }
+    }
+    int contextual = entities.size() - data;
+    this.dataEntities = withCapacity(this.dataEntities, this.dataEntities.size() + data);
+    this.contextualEntities = withCapacity(this.contextualEntities, this.contextualEntities.size() + contextual);
+    this.serializedEntities = withCapacity(this.serializedEntities,
+        this.dataEntities.size() + this.contextualEntities.size() + entities.size());
+  }
+
+  private static <V> Map<String, V> withCapacity(Map<String, V> map, int expectedSize) {
+    // the capacity at which a HashMap with the default load factor does not resize
+    int capacity = (int) (expectedSize / 0.75f) + 1;
+    Map<String, V> resized = new HashMap<>(capacity);
+    resized.putAll(map);
+    return resized;
+  }
+
+  /**
+   * Updates the references of the given entity, which are used to make the
+   * removal of entities from the crate faster.
    *
    * @param abstractEntity the abstract entity passed to the method.
+   * @deprecated references are tracked automatically when entities are
+   * added or change.
    */
+  @Deprecated
   public void addToAssociatedItems(AbstractEntity abstractEntity) {
-    var set = abstractEntity.getLinkedTo();
-    for (var e : set) {
-      this.associatedItems.computeIfAbsent(e, k -> new HashSet<>());
-      this.associatedItems.get(e).add(abstractEntity.getId());
-    }
+    this.references.markChanged(abstractEntity.getId());
   }
 
   @Override
   public Set<AbstractEntity> getAllEntities() {
-    Set<AbstractEntity> result = new HashSet<>();
-    result.addAll(this.getAllDataEntities());
-    result.addAll(this.getAllContextualEntities());
+    Set<AbstractEntity> result = new HashSet<>(this.dataEntities.size() + this.contextualEntities.size());
+    result.addAll(this.dataEntities.values());
+    result.addAll(this.contextualEntities.values());
     return result;
   }
 
@@ -122,30 +287,213 @@ public class RoCratePayload implements CratePayload {
     return new HashSet<>(this.contextualEntities.values());
   }
 
+  @Override
+  public Collection<DataEntity> getDataEntitiesView() {
+    return new LiveView<>(() -> this.dataEntities);
+  }
+
+  @Override
+  public Collection<ContextualEntity> getContextualEntitiesView() {
+    return new LiveView<>(() -> this.contextualEntities);
+  }
+
+  /**
+   * Unmodifiable view of the values of a map. The map is looked up on each
+   * access, so the view stays valid if {@link #ensureCapacity(Collection)}
+   * replaces the map.
+   */
+  private static class LiveView<T> extends AbstractCollection<T> {
+
+    private final Supplier<Map<String, T>> map;
+
+    LiveView(Supplier<Map<String, T>> map) {
+      this.map = map;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return Collections.unmodifiableCollection(this.map.get().values()).iterator();
+    }
+
+    @Override
+    public int size() {
+      return this.map.get().size();
+    }
+
+    @Override
+    public Stream<T> stream() {
+      return this.map.get().values().stream();
+    }
+  }
+
   @Override
   public ArrayNode getEntitiesMetadata() {
     ObjectMapper objectMapper = MyObjectMapper.getMapper();
 
     ArrayNode node = objectMapper.createArrayNode();
-    for (DataEntity ent : this.getAllDataEntities()) {
+    for (DataEntity ent : this.dataEntities.values()) {
       node.add(objectMapper.convertValue(ent, ObjectNode.class));
     }
-    for (ContextualEntity ent : this.getAllContextualEntities()) {
+    for (ContextualEntity ent : this.contextualEntities.values()) {
       node.add(objectMapper.convertValue(ent, ObjectNode.class));
     }
     return node;
   }
 
+  /**
+   * Writes all entities to the given generator, reusing the serialized JSON
+   * of entities which did not change since the last call.
+   * <p>
+   * If the generator uses a pretty printer, the cached JSON is streamed
+   * through the generator token by token to apply the formatting.
+   *
+   * @param generator the generator to write to.
+   * @throws IOException if writing fails.
+   */
+  @Override
+  public void writeEntitiesMetadata(JsonGenerator generator) throws IOException {
+    for (DataEntity entity : this.dataEntities.values()) {
+      this.writeSerialized(entity, generator);
+    }
+    for (ContextualEntity entity : this.contextualEntities.values()) {
+      this.writeSerialized(entity, generator);
+    }
+  }
+
+  private void writeSerialized(AbstractEntity entity, JsonGenerator generator) throws IOException {
+    String serialized = this.getSerialized(entity);
+    if (generator.getPrettyPrinter() == null) {
+      generator.writeRawValue(serialized);
+    } else {
+      try (JsonParser parser = MyObjectMapper.getMapper().createParser(serialized)) {
+        parser.nextToken();
+        generator.copyCurrentStructure(parser);
+      }
+    }
+  }
+
+  private String getSerialized(AbstractEntity entity) throws JsonProcessingException {
+    String id = entity.getId();
+    String cached = this.serializedEntities.get(id);
+    if (cached != null && !this.exposedEntities.contains(id)) {
+      return cached;
+    }
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    // the tree is used to merge properties which are serialized twice (like hasPart)
+    String serialized = objectMapper.writeValueAsString(objectMapper.valueToTree(entity));
+    if (cached != null && !cached.equals(serialized)) {
+      // the handed out properties have been changed
+      this.markChanged(id);
+    }
+    this.serializedEntities.put(id, serialized);
+    return serialized;
+  }
+
+  /**
+   * Removes the cached serialization of the entity with the given id.
+   *
+   * @param entityId the id of the changed entity.
+   */
+  void invalidateSerialization(String entityId) {
+    this.serializedEntities.remove(entityId);
+  }
+
+  /**
+   * Marks the entity with the given id as exposed: its properties have been
+   * handed out and may change without a notification.
+   *
+   * @param entityId the id of the entity.
+   */
+  void markExposed(String entityId) {
+    this.exposedEntities.add(entityId);
+  }
+
+  /**
+   * Updates all information derived from the entity with the given id.
+   * Called when an entity is added or changes.
+   *
+   * @param entityId the id of the changed entity.
+   */
+  void markChanged(String entityId) {
+    this.invalidateSerialization(entityId);
+    this.index.markChanged(entityId);
+    this.references.markChanged(entityId);
+    ChangeJournal changes = this.journal;
+    if (changes != null) {
+      changes.record(ChangeJournal.Kind.CHANGED, entityId);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Entities which are part of the payload already when the journal is
+   * enabled are not recorded.
+   */
+  @Override
+  public synchronized ChangeJournal enableChangeJournal() {
+    if (this.journal == null) {
+      this.journal = new ChangeJournal();
+    }
+    return this.journal;
+  }
+
+  @Override
+  public Optional<ChangeJournal> getChangeJournal() {
+    return Optional.ofNullable(this.journal);
+  }
+
   @Override
   public void removeEntityById(String id) {
-    this.dataEntities.remove(id);
-    this.contextualEntities.remove(id);
-    this.removeAllOccurrencesOf(id);
+    this.removeEntitiesById(Set.of(id));
   }
 
-  private void removeAllOccurrencesOf(String entityId) {
-    this.getEntitiesByIds(this.associatedItems.get(entityId))
-            .forEach(entity -> JsonUtilFunctions.removeFieldsWith(entityId, entity.getProperties()));
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Uses an index of the references between the entities, so only the
+   * properties referring to the removed entities are visited. The time
+   * depends on the number of references, not on the size of the crate.
+   */
+  @Override
+  public void removeEntitiesById(Collection<String> ids) {
+    Set<String> removed = new HashSet<>(ids);
+    for (String id : removed) {
+      this.dataEntities.remove(id);
+      this.contextualEntities.remove(id);
+      this.invalidateSerialization(id);
+      this.exposedEntities.remove(id);
+      synchronized (this.index) {
+        this.index.remove(id);
+      }
+      synchronized (this.references) {
+        this.references.remove(id);
+      }
+      ChangeJournal changes = this.journal;
+      if (changes != null) {
+        changes.record(ChangeJournal.Kind.REMOVED, id);
+      }
+    }
+    this.removeAllOccurrencesOf(removed);
+  }
+
+  private void removeAllOccurrencesOf(Set<String> entityIds) {
+    Map<String, Set<String>> referrers;
+    synchronized (this.references) {
+      this.exposedEntities.forEach(this.references::markChanged);
+      referrers = this.references.getReferrers(entityIds);
+    }
+    for (Map.Entry<String, Set<String>> referrer : referrers.entrySet()) {
+      AbstractEntity entity = this.getEntityById(referrer.getKey());
+      if (entity == null) {
+        continue;
+      }
+      Set<String> properties = referrer.getValue();
+      if (entity instanceof DataSetEntity dataSet && properties.contains(ReferenceIndex.PROP_HAS_PART)) {
+        entityIds.forEach(dataSet::removeFromHasPart);
+      }
+      entity.removeReferences(properties, entityIds);
+    }
   }
 
   private Set<AbstractEntity> getEntitiesByIds(Collection<String> ids) {
@@ -1,27 +1,39 @@
 package edu.kit.datamanager.ro_crate.reader;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.datamanager.ro_crate.RoCrate;
 import edu.kit.datamanager.ro_crate.context.CrateMetadataContext;
 import edu.kit.datamanager.ro_crate.context.RoCrateMetadataContext;
+import edu.kit.datamanager.ro_crate.entities.AbstractEntity;
 import edu.kit.datamanager.ro_crate.entities.contextual.ContextualEntity;
 import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
 import edu.kit.datamanager.ro_crate.entities.data.DataSetEntity;
 import edu.kit.datamanager.ro_crate.entities.data.RootDataEntity;
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
 import edu.kit.datamanager.ro_crate.special.IdentifierUtils;
 import edu.kit.datamanager.ro_crate.special.JsonUtilFunctions;
 import edu.kit.datamanager.ro_crate.validation.JsonSchemaValidation;
+import edu.kit.datamanager.ro_crate.validation.ValidationPolicy;
 import edu.kit.datamanager.ro_crate.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
@@ -47,12 +59,21 @@ public class CrateReader<T> {
      */
     private static class RoCrateUnsafe extends RoCrate {
 
-        public void addDataEntityWithoutRootHasPart(DataEntity entity) {
+        public void checkEntity(AbstractEntity entity) {
             this.metadataContext.checkEntity(entity);
-            this.roCratePayload.addDataEntity(entity);
+        }
+
+        public void addEntitiesWithoutRootHasPart(Collection<? extends AbstractEntity> entities) {
+            this.roCratePayload.addEntities(entities);
         }
     }
 
+    /**
+     * An entity built from an element of the graph, with the file it refers
+     * to (or null).
+     */
+    private record MaterializedEntity(AbstractEntity entity, Path file) {}
+
     /**
      * If the number of JSON entities in the crate is larger than this number,
      * parallelization will be used.
@@ -61,7 +82,7 @@ public class CrateReader<T> {
 
     private static final String FILE_PREVIEW_FILES = "ro-crate-preview_files";
     private static final String FILE_PREVIEW_HTML = "ro-crate-preview.html";
-    private static final String FILE_METADATA_JSON = "ro-crate-metadata.json";
+    protected static final String FILE_METADATA_JSON = "ro-crate-metadata.json";
 
     protected static final String SPECIFICATION_PREFIX = "https://w3id.org/ro/crate/";
 
@@ -70,14 +91,83 @@ public class CrateReader<T> {
     protected static final String PROP_CONFORMS_TO = "conformsTo";
     protected static final String PROP_GRAPH = "@graph";
     protected static final String PROP_HAS_PART = "hasPart";
+    protected static final String PROP_IS_PART_OF = "isPartOf";
     protected static final String PROP_ID = "@id";
 
     private final GenericReaderStrategy<T> strategy;
 
+    /**
+     * If true, the metadata file is parsed token by token instead of reading
+     * it into a tree first.
+     */
+    private boolean useStreamingParser = false;
+
+    /**
+     * The number of threads used to build the entities of large crates, or
+     * null to use the common pool.
+     */
+    private Integer parallelism = null;
+
+    private final Validator validator = new Validator(new JsonSchemaValidation());
+    private ValidationPolicy validationPolicy = ValidationPolicy.ALWAYS;
+
     public CrateReader(GenericReaderStrategy<T> strategy) {
         this.strategy = strategy;
     }
 
+    /**
+     * Sets the number of threads used to build the entities of large crates
+     * (more than 100 entities). This includes the validation of the entities
+     * and the search for their files. The entities are added to the crate in
+     * the order of the metadata file in any case.
+     * <p>
+     * By default, the common {@link ForkJoinPool} is used. A parallelism of 1
+     * builds the entities sequentially in the calling thread.
+     *
+     * @param parallelism the number of threads, at least 1.
+     * @return this reader
+     */
+    public CrateReader<T> withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive, but was " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets which of the read crates are validated against the default
+     * schema. By default, every crate is validated.
+     *
+     * @param validationPolicy the policy to use.
+     * @return this reader
+     */
+    public CrateReader<T> withValidationPolicy(ValidationPolicy validationPolicy) {
+        this.validationPolicy = Objects.requireNonNull(validationPolicy);
+        return this;
+    }
+
+    /**
+     * Enables or disables the streaming parser.
+     * <p>
+     * If enabled, the reader walks through the "@graph" of the metadata file
+     * one entity at a time and turns each entity into an entity object
+     * directly, collecting hasPart/isPartOf relations on the fly. Instead of
+     * holding the full metadata tree and copies of each entity, only the
+     * properties of the entities themselves are kept in memory. This is
+     * useful for large crates.
+     * <p>
+     * The resulting crate is the same as with the default (tree-based)
+     * parsing. Non-object elements of the "@graph" are ignored.
+     *
+     * @param useStreamingParser true to enable the streaming parser.
+     * @return this reader
+     */
+    public CrateReader<T> usingStreamingParser(boolean useStreamingParser) {
+        this.useStreamingParser = useStreamingParser;
+        return this;
+    }
+
     /**
      * This function will read the location (using one of the specified
      * strategies) and then build the relation between the entities.
@@ -88,86 +178,293 @@ public class CrateReader<T> {
      * @throws IOException if the crate cannot be read
      */
     public RoCrate readCrate(T location) throws IOException {
+        if (useStreamingParser) {
+            return readCrateStreaming(location);
+        }
         // get the ro-crate-metadata.json
         ObjectNode metadataJson = strategy.readMetadataJson(location);
         // get the content of the crate
-        File files = strategy.readContent(location);
+        Path files = strategy.readContentPath(location);
+        return retainTemporaryContent(rebuildCrate(metadataJson, files, newUsedFiles(files)).markAsImported());
+    }
+
+    private RoCrate readCrateStreaming(T location) throws IOException {
+        GraphIndex index = new GraphIndex();
+        JsonNode context;
+        try (InputStream metadataStream = strategy.openMetadataJson(location)) {
+            Objects.requireNonNull(metadataStream,
+                    "metadata stream must not be null – did the strategy fail to locate 'ro-crate-metadata.json'?");
+            context = parseMetadataStream(metadataStream, index);
+        }
+        Path files = strategy.readContentPath(location);
+        return retainTemporaryContent(rebuildCrate(context, index, files, newUsedFiles(files), false).markAsImported());
+    }
 
-        // this set will contain the files that are associated with entities
+    /**
+     * Keeps the temporary folder of the strategy (e.g. an extracted zip file)
+     * while the crate, or one of its data entities with a file in the folder,
+     * is reachable.
+     *
+     * @param crate the read crate.
+     * @return the crate.
+     */
+    private RoCrate retainTemporaryContent(RoCrate crate) {
+        strategy.getTemporaryContent().ifPresent(lease -> {
+            lease.retainFor(crate);
+            for (DataEntity entity : crate.getDataEntitiesView()) {
+                Path path = entity.getPath();
+                if (path != null && lease.contains(path)) {
+                    lease.retainFor(entity);
+                }
+            }
+        });
+        return crate;
+    }
+
+    /**
+     * @param files the folder containing the crates files.
+     * @return a new set of files associated with entities, containing the
+     * files which belong to the crate itself (metadata and preview).
+     */
+    private static HashSet<String> newUsedFiles(Path files) {
+        Objects.requireNonNull(files,
+                "files directory must not be null – check GenericReaderStrategy.readContent()");
         HashSet<String> usedFiles = new HashSet<>();
-        usedFiles.add(files.toPath().resolve(FILE_METADATA_JSON).toFile().getPath());
-        usedFiles.add(files.toPath().resolve(FILE_PREVIEW_HTML).toFile().getPath());
-        usedFiles.add(files.toPath().resolve(FILE_PREVIEW_FILES).toFile().getPath());
-        return rebuildCrate(metadataJson, files, usedFiles).markAsImported();
+        usedFiles.add(files.resolve(FILE_METADATA_JSON).toString());
+        usedFiles.add(files.resolve(FILE_PREVIEW_HTML).toString());
+        usedFiles.add(files.resolve(FILE_PREVIEW_FILES).toString());
+        return usedFiles;
     }
 
-    private RoCrate rebuildCrate(ObjectNode metadataJson, File files, HashSet<String> usedFiles) {
+    /**
+     * Parses the metadata file token by token. Each entity of the "@graph" is
+     * read separately and handed to the index, so the full document never
+     * exists as a tree.
+     *
+     * @param stream the stream of the metadata file
+     * @param index  the index receiving the entities of the graph
+     * @return the "@context" of the metadata file, or null if there is none.
+     * @throws IOException if the stream can not be read or parsed.
+     */
+    private JsonNode parseMetadataStream(InputStream stream, GraphIndex index) throws IOException {
+        ObjectMapper mapper = MyObjectMapper.getMapper();
+        JsonNode context = null;
+        try (JsonParser parser = mapper.createParser(stream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("The metadata file does not contain a JSON object.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                if (PROP_CONTEXT.equals(fieldName)) {
+                    context = mapper.readTree(parser);
+                } else if (PROP_GRAPH.equals(fieldName) && valueToken == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        if (parser.currentToken() == JsonToken.START_OBJECT) {
+                            index.add(mapper.readTree(parser));
+                        } else {
+                            logger.warn("Ignoring non-object element in {}.", PROP_GRAPH);
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return context;
+    }
+
+    private RoCrate rebuildCrate(ObjectNode metadataJson, Path files, HashSet<String> usedFiles) {
         Objects.requireNonNull(metadataJson,
                 "metadataJson must not be null – did the strategy fail to locate 'ro-crate-metadata.json'?");
-        Objects.requireNonNull(files,
-                "files directory must not be null – check GenericReaderStrategy.readContent()");
         JsonNode context = metadataJson.get(PROP_CONTEXT);
 
-        CrateMetadataContext crateContext = new RoCrateMetadataContext(context);
+        GraphIndex index = new GraphIndex();
+        for (JsonNode entityJson : metadataJson.path(PROP_GRAPH)) {
+            if (entityJson.isObject()) {
+                index.add((ObjectNode) entityJson);
+            } else {
+                logger.warn("Ignoring non-object element in {}.", PROP_GRAPH);
+            }
+        }
+        // the tree belongs to the strategy, so the entities get their own copies
+        return rebuildCrate(context, index, files, usedFiles, true);
+    }
+
+    /**
+     * Builds the crate from the indexed graph.
+     * <p>
+     * Finds the descriptor and root, removes them from the graph (logically),
+     * determines the data entities and adds all remaining entities to the
+     * crate.
+     *
+     * @param context        the "@context" of the metadata file.
+     * @param index          the index containing all entities of the graph.
+     * @param files          the folder containing the crates files.
+     * @param usedFiles      the set of files associated with entities, which will be extended.
+     * @param copyProperties whether the entities should work on copies of the indexed nodes.
+     * @return the crate.
+     */
+    private RoCrate rebuildCrate(
+            JsonNode context,
+            GraphIndex index,
+            Path files,
+            HashSet<String> usedFiles,
+            boolean copyProperties
+    ) {
         RoCrateUnsafe crate = new RoCrateUnsafe();
-        crate.setMetadataContext(crateContext);
-        JsonNode graph = metadataJson.get(PROP_GRAPH);
+        crate.setMetadataContext(new RoCrateMetadataContext(context));
+
+        // descriptor and root are not part of the graph the data entities are searched in
+        index.getDescriptor().ifPresent(descriptor -> {
+            crate.setJsonDescriptor(new ContextualEntity.ContextualEntityBuilder()
+                    .setAllUnsafe(copyProperties ? descriptor.deepCopy() : descriptor)
+                    .build());
+            index.remove(descriptor);
+
+            index.getRoot(descriptor).ifPresent(root -> {
+                crate.setRootDataEntity(new RootDataEntity.RootDataEntityBuilder()
+                        .setAllUnsafe(copyProperties ? root.deepCopy() : root)
+                        .setHasPart(extractHasPartIds(root))
+                        .build());
+                index.remove(root);
+            });
+        });
+
+        Set<String> dataEntityIds = index.getDataEntityIds(crate.getRootDataEntity().hasPart);
+        FileIndex fileIndex = indexFiles(files);
+        List<MaterializedEntity> materialized = materializeAll(index.getEntities(), entityJson -> {
+            boolean isDataEntity = dataEntityIds.contains(unpackId(entityJson));
+            ObjectNode properties = copyProperties ? entityJson.deepCopy() : entityJson;
+            return materializeEntity(crate, properties, isDataEntity, files, fileIndex);
+        });
 
-        if (graph.isArray()) {
-            moveRootEntitiesFromGraphToCrate(crate, (ArrayNode) graph);
+        // merge in the order of the graph, so the result does not depend on the threads
+        List<AbstractEntity> entities = new ArrayList<>(materialized.size());
+        for (MaterializedEntity entity : materialized) {
+            if (entity.file() != null) {
+                usedFiles.add(entity.file().toString());
+            }
+            entities.add(entity.entity());
         }
-        RootDataEntity root = crate.getRootDataEntity();
-        boolean rootExtractionSuccessful = root != null;
-
-        if (rootExtractionSuccessful) {
-            Set<String> dataEntityIds = getDataEntityIds(root, graph);
-            for (JsonNode entityJson : graph) {
-                String eId = unpackId(entityJson);
-                ObjectNode properties = entityJson.deepCopy();
-                boolean isDataEntity = dataEntityIds.contains(eId);
-
-                if (isDataEntity) {
-                    DataEntity data = null;
-                    boolean isDataSet = properties.path("@type").asText().equals("Dataset")
-                            || properties.path("@type").valueStream()
-                            .anyMatch(typeString -> typeString.asText().equals("Dataset"));
-                    if (isDataSet) {
-                        data = new DataSetEntity.DataSetBuilder()
-                                .setAllUnsafe(properties)
-                                .build();
-                    } else {
-                        // data entity
-                        DataEntity.DataEntityBuilder builder = new DataEntity.DataEntityBuilder()
-                                .setAllUnsafe(properties);
-
-                        // Handle data entities with corresponding file
-                        checkFolderHasFile(entityJson.get(PROP_ID).asText(), files).ifPresent(file -> {
-                            usedFiles.add(file.getPath());
-                            builder.setLocationWithExceptions(file.toPath())
-                                    .setId(file.getName());
-                        });
-                        data = builder.build();
-                    }
-                    crate.addDataEntityWithoutRootHasPart(data);
+        crate.addEntitiesWithoutRootHasPart(entities);
+        return finishCrate(crate, files, usedFiles, fileIndex);
+    }
 
-                } else {
-                    // contextual entity
-                    crate.addContextualEntity(
-                            new ContextualEntity.ContextualEntityBuilder()
-                                    .setAllUnsafe(properties)
-                                    .build());
+    /**
+     * Indexes the content of the crate folder with a single walk, so the
+     * files of the entities can be looked up without accessing the file
+     * system for each of them.
+     *
+     * @param files the folder containing the crates files.
+     * @return the index, or null if the folder could not be indexed.
+     */
+    private static FileIndex indexFiles(Path files) {
+        try {
+            return FileIndex.of(files);
+        } catch (IOException e) {
+            logger.debug("Unable to index the content of {}, checking files individually.", files, e);
+            return null;
+        }
+    }
+
+    /**
+     * Applies the given function to all entities, in parallel if there are
+     * more than {@link #PARALLELIZATION_THRESHOLD} entities.
+     *
+     * @param entities    the entities of the graph.
+     * @param materialize the function building an entity. Must be thread-safe.
+     * @return the results, in the order of the given entities.
+     */
+    private List<MaterializedEntity> materializeAll(
+            List<ObjectNode> entities,
+            Function<ObjectNode, MaterializedEntity> materialize
+    ) {
+        boolean isParallel = entities.size() > PARALLELIZATION_THRESHOLD
+                && (this.parallelism == null || this.parallelism > 1);
+        if (!isParallel) {
+            return entities.stream().map(materialize).toList();
+        }
+        if (this.parallelism == null) {
+            return entities.parallelStream().map(materialize).toList();
+        }
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            return pool.submit(() -> entities.parallelStream().map(materialize).toList()).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Turns the given properties into an entity. Does not modify the crate,
+     * so it may be called from multiple threads.
+     *
+     * @param crate        the crate to check the entity against.
+     * @param properties   the properties of the entity. Will be used by the entity directly.
+     * @param isDataEntity whether the entity is a data entity or a contextual entity.
+     * @param files        the folder containing the crates files.
+     * @param fileIndex    the index of the files in the folder, or null.
+     * @return the entity and the file it refers to, if any.
+     */
+    private MaterializedEntity materializeEntity(
+            RoCrateUnsafe crate,
+            ObjectNode properties,
+            boolean isDataEntity,
+            Path files,
+            FileIndex fileIndex
+    ) {
+        AbstractEntity entity;
+        Path file = null;
+        if (isDataEntity) {
+            boolean isDataSet = properties.path("@type").asText().equals("Dataset")
+                    || properties.path("@type").valueStream()
+                    .anyMatch(typeString -> typeString.asText().equals("Dataset"));
+            if (isDataSet) {
+                entity = new DataSetEntity.DataSetBuilder()
+                        .setAllUnsafe(properties)
+                        .build();
+            } else {
+                // data entity
+                DataEntity.DataEntityBuilder builder = new DataEntity.DataEntityBuilder()
+                        .setAllUnsafe(properties);
+
+                // Handle data entities with corresponding file
+                Optional<Path> found = findFileInFolder(properties.get(PROP_ID).asText(), files, fileIndex);
+                if (found.isPresent()) {
+                    file = found.get();
+                    builder.setLocationWithExceptions(file)
+                            .setId(file.getFileName().toString());
                 }
+                entity = builder.build();
             }
+        } else {
+            // contextual entity
+            entity = new ContextualEntity.ContextualEntityBuilder()
+                    .setAllUnsafe(properties)
+                    .build();
         }
+        crate.checkEntity(entity);
+        return new MaterializedEntity(entity, file);
+    }
 
-        Collection<File> untrackedFiles = Arrays.stream(
-                Optional.ofNullable(files.listFiles()).orElse(new File[0]))
-                .filter(f -> !usedFiles.contains(f.getPath()))
-                .collect(Collectors.toSet());
-
-        crate.setUntrackedFiles(untrackedFiles);
-        Validator defaultValidation = new Validator(new JsonSchemaValidation());
-        defaultValidation.validate(crate);
+    private RoCrate finishCrate(RoCrateUnsafe crate, Path files, Set<String> usedFiles, FileIndex fileIndex) {
+        // untracked files are only supported on the default file system, as the crate keeps them as files
+        if (files.getFileSystem() == FileSystems.getDefault()) {
+            Stream<File> topLevelFiles = fileIndex != null
+                    ? fileIndex.getTopLevelEntries().stream().map(Path::toFile)
+                    : Arrays.stream(Optional.ofNullable(files.toFile().listFiles()).orElse(new File[0]));
+            Collection<File> untrackedFiles = topLevelFiles
+                    .filter(f -> !usedFiles.contains(f.getPath()))
+                    .collect(Collectors.toSet());
+            crate.setUntrackedFiles(untrackedFiles);
+        } else {
+            logger.debug("Crate content is not on the default file system, untracked files are ignored.");
+        }
+        if (this.validationPolicy.shouldValidate()) {
+            this.validator.validate(crate);
+        }
         return crate;
     }
 
@@ -178,7 +475,11 @@ public class CrateReader<T> {
      *
      * @param graph the ArrayNode with all Entities.
      * @return the graph connections.
+     *
+     * @deprecated The reader now uses a single-pass index of the graph and no
+     * longer calls this method. It will be removed in a future version.
      */
+    @Deprecated(since = "2.1.2")
     protected Map<String, Set<String>> makeEntityGraph(JsonNode graph) {
         Map<String, Set<String>> connections = new HashMap<>();
 
@@ -204,6 +505,16 @@ public class CrateReader<T> {
         return connections;
     }
 
+    /**
+     * Computes the ids of all entities (in-)directly connected to the root.
+     *
+     * @param root  the root data entity.
+     * @param graph the graph without root and descriptor.
+     * @return the ids of all data entities.
+     * @deprecated The reader now uses a single-pass index of the graph and no
+     * longer calls this method. It will be removed in a future version.
+     */
+    @Deprecated(since = "2.1.2")
     protected Set<String> getDataEntityIds(RootDataEntity root, JsonNode graph) {
         if (root == null) {
             return Set.of();
@@ -237,15 +548,51 @@ public class CrateReader<T> {
     }
 
     protected Optional<File> checkFolderHasFile(String filepathOrId, File folder) {
+        return findFileInFolder(filepathOrId, folder.toPath()).map(Path::toFile);
+    }
+
+    /**
+     * Resolves the id of an entity to an existing file within the given
+     * folder. The folder may be on any file system.
+     *
+     * @param filepathOrId the id of the entity.
+     * @param folder       the folder containing the crates files.
+     * @return the file, if the id refers to an existing file within the folder.
+     */
+    protected Optional<Path> findFileInFolder(String filepathOrId, Path folder) {
         if (IdentifierUtils.isUrl(filepathOrId)) {
             return Optional.empty();
         }
         return IdentifierUtils.decode(filepathOrId)
-                .map(decoded -> folder.toPath().resolve(decoded).normalize())
+                .map(decoded -> folder.resolve(decoded).normalize())
                 // defence-in-depth: ensure we are still inside the crate folder
-                .filter(resolved -> resolved.startsWith(folder.toPath()))
-                .map(Path::toFile)
-                .filter(File::exists);
+                .filter(resolved -> resolved.startsWith(folder))
+                .filter(Files::exists);
+    }
+
+    /**
+     * Like {@link #findFileInFolder(String, Path)}, but checks the existence
+     * of the file using the given index, if available. Files missing in the
+     * index are checked on the file system, e.g. for case-insensitive file
+     * systems.
+     *
+     * @param filepathOrId the id of the entity.
+     * @param folder       the folder containing the crates files.
+     * @param fileIndex    the index of the folder, or null.
+     * @return the file, if the id refers to an existing file within the folder.
+     */
+    private Optional<Path> findFileInFolder(String filepathOrId, Path folder, FileIndex fileIndex) {
+        if (fileIndex == null) {
+            return findFileInFolder(filepathOrId, folder);
+        }
+        if (IdentifierUtils.isUrl(filepathOrId)) {
+            return Optional.empty();
+        }
+        return IdentifierUtils.decode(filepathOrId)
+                .map(decoded -> folder.resolve(decoded).normalize())
+                // defence-in-depth: ensure we are still inside the crate folder
+                .filter(resolved -> resolved.startsWith(folder))
+                .filter(resolved -> fileIndex.contains(resolved) || Files.exists(resolved));
     }
 
     /**
@@ -260,7 +607,11 @@ public class CrateReader<T> {
      * the graph.
      * @param graph the graph of the Metadata JSON file, where the entities are
      * extracted and removed from.
+     *
+     * @deprecated The reader now uses a single-pass index of the graph and no
+     * longer calls this method. It will be removed in a future version.
      */
+    @Deprecated(since = "2.1.2")
     protected void moveRootEntitiesFromGraphToCrate(RoCrate crate, ArrayNode graph) {
         Optional<JsonNode> maybeDescriptor = getMetadataDescriptor(graph);
 
@@ -291,7 +642,11 @@ public class CrateReader<T> {
      *
      * @param graph the graph to search the descriptor in.
      * @return the metadata descriptor of the crate.
+     *
+     * @deprecated The reader now uses a single-pass index of the graph and no
+     * longer calls this method. It will be removed in a future version.
      */
+    @Deprecated(since = "2.1.2")
     protected Optional<JsonNode> getMetadataDescriptor(ArrayNode graph) {
         boolean isParallel = graph.size() > PARALLELIZATION_THRESHOLD;
         // use the algorithm described here:
@@ -0,0 +1,133 @@
+package edu.kit.datamanager.ro_crate.reader;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+
+/**
+ * An in-memory index of all files and folders within the folder of a crate.
+ * <p>
+ * The index is built with a single walk through the folder, so checking
+ * whether the file of a data entity exists does not require a request to
+ * the file system per entity. This matters especially on network file
+ * systems. The size and modification time of each file are recorded as
+ * well.
+ * <p>
+ * Symbolic links are followed. Entries which can not be accessed (e.g.,
+ * broken links) are not part of the index. The index is a snapshot: later
+ * changes to the folder are not reflected. It is immutable and thread-safe.
+ */
+public class FileIndex {
+
+    /**
+     * The attributes recorded for each file or folder.
+     *
+     * @param size         the size in bytes.
+     * @param lastModified the time of the last modification.
+     * @param isDirectory  whether the entry is a folder.
+     */
+    public record FileInfo(long size, FileTime lastModified, boolean isDirectory) {}
+
+    private final Path folder;
+    private final Map<Path, FileInfo> files;
+    private final List<Path> topLevelEntries;
+
+    private FileIndex(Path folder, Map<Path, FileInfo> files, List<Path> topLevelEntries) {
+        this.folder = folder;
+        this.files = files;
+        this.topLevelEntries = topLevelEntries;
+    }
+
+    /**
+     * Walks through the given folder and indexes all of its content.
+     *
+     * @param folder the folder to index.
+     * @return the index.
+     * @throws IOException if the folder can not be read.
+     */
+    public static FileIndex of(Path folder) throws IOException {
+        Map<Path, FileInfo> files = new HashMap<>();
+        List<Path> topLevelEntries = new ArrayList<>();
+        Path normalizedFolder = normalize(folder);
+        Files.walkFileTree(folder, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                add(dir, attrs);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                add(file, attrs);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                if (file.equals(folder)) {
+                    throw exc;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            private void add(Path path, BasicFileAttributes attrs) {
+                if (path.equals(folder)) {
+                    return;
+                }
+                files.put(normalize(path), new FileInfo(attrs.size(), attrs.lastModifiedTime(), attrs.isDirectory()));
+                if (folder.equals(path.getParent())) {
+                    topLevelEntries.add(path);
+                }
+            }
+        });
+        return new FileIndex(normalizedFolder, Collections.unmodifiableMap(files), Collections.unmodifiableList(topLevelEntries));
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    /**
+     * @return the indexed folder.
+     */
+    public Path getFolder() {
+        return folder;
+    }
+
+    /**
+     * @param path a path within the indexed folder.
+     * @return the recorded attributes of the file or folder, if it exists.
+     */
+    public Optional<FileInfo> get(Path path) {
+        return Optional.ofNullable(this.files.get(normalize(path)));
+    }
+
+    /**
+     * @param path a path within the indexed folder.
+     * @return whether the file or folder exists.
+     */
+    public boolean contains(Path path) {
+        return this.files.containsKey(normalize(path));
+    }
+
+    /**
+     * @return the files and folders directly within the indexed folder, as
+     * paths resolved against the folder given to {@link #of(Path)}.
+     */
+    public List<Path> getTopLevelEntries() {
+        return topLevelEntries;
+    }
+
+    /**
+     * @return the number of indexed files and folders.
+     */
+    public int size() {
+        return this.files.size();
+    }
+}
@@ -1,8 +1,15 @@
 package edu.kit.datamanager.ro_crate.reader;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+import edu.kit.datamanager.ro_crate.util.TempSpace;
+
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
 
 /**
  * Generic interface for the strategy of the reader class.
@@ -26,4 +33,51 @@ public interface GenericReaderStrategy<SOURCE_TYPE> {
      * @return the content as a File
      */
     File readContent(SOURCE_TYPE location) throws IOException;
-}
\ No newline at end of file
+
+    /**
+     * Open the metadata.json file from the given location as a stream.
+     * <p>
+     * Used by the streaming parser of the {@link CrateReader}. The default
+     * implementation serializes the result of
+     * {@link #readMetadataJson(Object)}. Strategies with access to the
+     * file should override it to avoid building the tree.
+     *
+     * @param location the location to read from
+     * @return a stream of the metadata.json file. The caller closes it.
+     */
+    default InputStream openMetadataJson(SOURCE_TYPE location) throws IOException {
+        ObjectNode metadata = readMetadataJson(location);
+        return new ByteArrayInputStream(MyObjectMapper.getMapper().writeValueAsBytes(metadata));
+    }
+
+    /**
+     * Read the content from the given location as a path.
+     * <p>
+     * Used by the {@link CrateReader} to associate data entities with their
+     * files. The default implementation returns the path of
+     * {@link #readContent(Object)}. Strategies which do not extract the crate
+     * may return a path of another file system, for example within a zip
+     * file.
+     *
+     * @param location the location to read from
+     * @return the folder containing the crates files
+     */
+    default Path readContentPath(SOURCE_TYPE location) throws IOException {
+        File content = readContent(location);
+        return content == null ? null : content.toPath();
+    }
+
+    /**
+     * The temporary folder holding the content of the last read crate, if
+     * the strategy extracted it to one.
+     * <p>
+     * The {@link CrateReader} keeps the folder as long as the read crate or
+     * one of its data entities with a file in the folder is reachable. The
+     * default implementation returns an empty optional.
+     *
+     * @return the lease of the temporary folder, if any.
+     */
+    default Optional<TempSpace.Lease> getTemporaryContent() {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,229 @@
+package edu.kit.datamanager.ro_crate.reader;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.util.*;
+
+/**
+ * Collects the entities of a crates "@graph" one at a time and remembers
+ * everything the reader needs to rebuild the crate afterwards: the
+ * candidates for the metadata descriptor and the hasPart/isPartOf edges
+ * between entities.
+ * <p>
+ * This allows the reader to process the graph while it is being parsed,
+ * without keeping an additional tree of the whole metadata document.
+ * Descriptor and root are found within the same pass, and entities are
+ * removed logically instead of shifting the underlying list, so reading a
+ * crate stays linear in the number of entities.
+ * <p>
+ * This class is not thread-safe and only meant to be used by the
+ * {@link CrateReader}.
+ */
+class GraphIndex {
+
+    /**
+     * All entities in the order of their appearance.
+     */
+    private final List<ObjectNode> entities = new ArrayList<>();
+    /**
+     * The position of the first entity with a given id. Also used to check if
+     * an edge points to a known entity.
+     */
+    private final Map<String, Integer> positions = new HashMap<>();
+    /**
+     * Positions of entities which have been removed from the graph.
+     */
+    private final BitSet removed = new BitSet();
+    /**
+     * Edges as pairs of (parent, child).
+     */
+    private final List<String[]> edges = new ArrayList<>();
+    /**
+     * One text node per id. Entities refer to each other by id, so without
+     * sharing the nodes, each reference would keep its own copy of the id
+     * in the resulting crate.
+     */
+    private final Map<String, TextNode> ids = new HashMap<>();
+
+    private ObjectNode descriptor11 = null;
+    private ObjectNode descriptor12 = null;
+
+    /**
+     * Adds an entity to the index and extracts the information required for
+     * finding the root and the data entities.
+     *
+     * @param entity the entity, as it appears in the graph.
+     */
+    void add(ObjectNode entity) {
+        this.shareIds(entity);
+        String id = entity.path(CrateReader.PROP_ID).asText();
+        positions.putIfAbsent(id, entities.size());
+        entities.add(entity);
+
+        // 1.1 algorithm: conformsTo starts with the specification prefix and about has an id
+        if (descriptor11 == null
+                && entity.path(CrateReader.PROP_CONFORMS_TO).path(CrateReader.PROP_ID).asText()
+                .startsWith(CrateReader.SPECIFICATION_PREFIX)
+                && entity.path(CrateReader.PROP_ABOUT).path(CrateReader.PROP_ID).isTextual()) {
+            descriptor11 = entity;
+        }
+        // 1.2 algorithm: the descriptor has the well-known id
+        if (descriptor12 == null && id.equals(CrateReader.FILE_METADATA_JSON)) {
+            descriptor12 = entity;
+        }
+
+        for (JsonNode child : entity.path(CrateReader.PROP_HAS_PART)) {
+            edges.add(new String[]{id, unpackId(child)});
+        }
+        for (JsonNode parent : entity.path(CrateReader.PROP_IS_PART_OF)) {
+            edges.add(new String[]{unpackId(parent), id});
+        }
+    }
+
+    /**
+     * Replaces the id of the entity and the ids of its references by the
+     * shared text nodes. According to the specification, references are
+     * objects in property values or in arrays of property values.
+     *
+     * @param entity the entity, as it appears in the graph.
+     */
+    private void shareIds(ObjectNode entity) {
+        this.shareId(entity);
+        for (JsonNode value : entity) {
+            if (value.isObject()) {
+                this.shareId((ObjectNode) value);
+            } else if (value.isArray()) {
+                for (JsonNode element : value) {
+                    if (element.isObject()) {
+                        this.shareId((ObjectNode) element);
+                    }
+                }
+            }
+        }
+    }
+
+    private void shareId(ObjectNode node) {
+        JsonNode id = node.get(CrateReader.PROP_ID);
+        if (id instanceof TextNode text) {
+            TextNode shared = this.ids.putIfAbsent(text.textValue(), text);
+            if (shared != null && shared != text) {
+                node.set(CrateReader.PROP_ID, shared);
+            }
+        }
+    }
+
+    /**
+     * @return the metadata descriptor, preferring the algorithm of version
+     * 1.1 over the one of 1.2.
+     */
+    Optional<ObjectNode> getDescriptor() {
+        return Optional.ofNullable(descriptor11).or(() -> Optional.ofNullable(descriptor12));
+    }
+
+    /**
+     * Finds the root entity, which is the first object with the id the
+     * descriptor is about.
+     *
+     * @param descriptor the metadata descriptor.
+     * @return the root entity, if found.
+     */
+    Optional<ObjectNode> getRoot(ObjectNode descriptor) {
+        String rootId = descriptor.path(CrateReader.PROP_ABOUT).path(CrateReader.PROP_ID).asText();
+        Integer position = positions.get(rootId);
+        if (position == null) {
+            return Optional.empty();
+        }
+        // usually the first hit. Only if root and descriptor share the id, we need to look further.
+        for (int i = position; i < entities.size(); i++) {
+            ObjectNode candidate = entities.get(i);
+            if (candidate != descriptor && !removed.get(i)
+                    && candidate.path(CrateReader.PROP_ID).asText().equals(rootId)) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Removes the given entity from the graph. The removal is only logical;
+     * the entity will not be returned by {@link #getEntities()} anymore and
+     * is not considered when searching for data entities.
+     *
+     * @param entity the entity to remove.
+     */
+    void remove(ObjectNode entity) {
+        Integer position = positions.get(entity.path(CrateReader.PROP_ID).asText());
+        if (position == null) {
+            return;
+        }
+        for (int i = position; i < entities.size(); i++) {
+            if (entities.get(i) == entity) {
+                removed.set(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return all entities which have not been removed, in the order of their
+     * appearance.
+     */
+    List<ObjectNode> getEntities() {
+        if (removed.isEmpty()) {
+            return Collections.unmodifiableList(entities);
+        }
+        List<ObjectNode> result = new ArrayList<>(entities.size() - removed.cardinality());
+        for (int i = 0; i < entities.size(); i++) {
+            if (!removed.get(i)) {
+                result.add(entities.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the ids of all entities which are (in-)directly part of the
+     * root entity, following only edges between entities which have not been
+     * removed.
+     *
+     * @param rootHasPart the ids the root entity has as parts.
+     * @return the ids of all data entities.
+     */
+    Set<String> getDataEntityIds(Collection<String> rootHasPart) {
+        Set<String> known = new HashSet<>(positions.size());
+        for (int i = 0; i < entities.size(); i++) {
+            if (!removed.get(i)) {
+                known.add(entities.get(i).path(CrateReader.PROP_ID).asText());
+            }
+        }
+
+        Map<String, Set<String>> network = new HashMap<>();
+        for (String[] edge : edges) {
+            if (known.contains(edge[0]) && known.contains(edge[1])) {
+                network.computeIfAbsent(edge[0], key -> new HashSet<>()).add(edge[1]);
+            }
+        }
+
+        Deque<String> processingQueue = new ArrayDeque<>(rootHasPart);
+        Set<String> result = new HashSet<>(rootHasPart);
+        while (!processingQueue.isEmpty()) {
+            String currentId = processingQueue.pop();
+            for (String subId : network.getOrDefault(currentId, Set.of())) {
+                // avoid loops!
+                if (result.add(subId)) {
+                    processingQueue.push(subId);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String unpackId(JsonNode node) {
+        if (node.isTextual()) {
+            return node.asText();
+        }
+        return node.path(CrateReader.PROP_ID).asText();
+    }
+}
@@ -6,6 +6,8 @@ import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 /**
@@ -25,6 +27,11 @@ public class ReadFolderStrategy implements GenericReaderStrategy<String> {
     return objectNode;
   }
 
+  @Override
+  public InputStream openMetadataJson(String location) throws IOException {
+    return Files.newInputStream(new File(location).toPath().resolve("ro-crate-metadata.json"));
+  }
+
   @Override
   public File readContent(String location) {
     return new File(location);
@@ -0,0 +1,201 @@
+package edu.kit.datamanager.ro_crate.reader;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.datamanager.ro_crate.entities.contextual.JsonDescriptor;
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Reads a crate from a ZIP archive (file) without extracting it.
+ * <p>
+ * The archive is opened as a read-only zip {@link FileSystem}, which uses the
+ * central directory of the archive to access single entries. Only the
+ * metadata file is read when the crate is being read. Data entities refer to
+ * {@link Path}s within the archive, so their content is read on demand only,
+ * for example when the crate is written to another location.
+ * <p>
+ * Supports <a href=https://github.com/TheELNConsortium/TheELNFileFormat>ELN-Style crates</a>,
+ * meaning the crate may be either in the zip archive directly or in a single,
+ * direct subfolder beneath the root folder (/folder). Like
+ * {@link ReadZipStrategy}, at most 50 subdirectories are checked.
+ * <p>
+ * NOTE: The paths of the resulting crate are only valid while this strategy
+ * is open. Close it after the crate (and its files) are not needed anymore:
+ * <pre>{@code
+ * try (ReadZipLazyStrategy strategy = new ReadZipLazyStrategy()) {
+ *     RoCrate crate = new CrateReader<>(strategy).readCrate("crate.zip");
+ *     Writers.newFolderWriter().save(crate, "extracted");
+ * }
+ * }</pre>
+ * Files in the archive which are not associated with a data entity are not
+ * available as untracked files of the crate, as those are expected to be
+ * regular files. If a caller requires the content as a regular folder,
+ * {@link #readContent(String)} extracts the archive like
+ * {@link ReadZipStrategy} does.
+ */
+public class ReadZipLazyStrategy implements GenericReaderStrategy<String>, ZipOrigin, Closeable {
+
+    protected final ReadZipStrategy extractor;
+    protected FileSystem zipFileSystem = null;
+    protected String openedLocation = null;
+
+    /**
+     * Crates an instance with the default configuration.
+     * <p>
+     * If the content is requested as a regular folder, the archive will be
+     * extracted to `./.tmp/ro-crate-java/zipReader/$UUID/`.
+     */
+    public ReadZipLazyStrategy() {
+        this.extractor = new ReadZipStrategy();
+    }
+
+    /**
+     * Creates an instance which will extract the archive to the given
+     * location, if the content is requested as a regular folder.
+     *
+     * @param folderPath            the custom directory to extract
+     *                              content to for temporary access.
+     * @param shallAddUuidSubfolder if true, the content will be extracted
+     *                              into a subdirectory with a UUID as its
+     *                              name.
+     * @see ReadZipStrategy#ReadZipStrategy(Path, boolean)
+     */
+    public ReadZipLazyStrategy(Path folderPath, boolean shallAddUuidSubfolder) {
+        this.extractor = new ReadZipStrategy(folderPath, shallAddUuidSubfolder);
+    }
+
+    /**
+     * @return whether the archive is currently opened.
+     */
+    public boolean isOpen() {
+        return zipFileSystem != null && zipFileSystem.isOpen();
+    }
+
+    /**
+     * @return the strategy used to extract the archive, if the content is
+     * requested as a regular folder.
+     */
+    public ReadZipStrategy getExtractor() {
+        return extractor;
+    }
+
+    /**
+     * Opens the archive at the given location, if not done yet. One instance
+     * can only be used for a single archive.
+     *
+     * @param location the location of the archive.
+     * @return the root of the archive.
+     * @throws IOException if the archive can not be opened.
+     */
+    protected Path open(String location) throws IOException {
+        if (isOpen()) {
+            if (!location.equals(openedLocation)) {
+                throw new IllegalStateException(
+                        "This strategy has already opened %s and can not read %s.".formatted(openedLocation, location));
+            }
+        } else {
+            zipFileSystem = FileSystems.newFileSystem(Path.of(location), Map.of("accessMode", "readOnly"));
+            openedLocation = location;
+        }
+        return zipFileSystem.getRootDirectories().iterator().next();
+    }
+
+    /**
+     * Locates the folder of the crate within the archive, which may be the
+     * root of the archive or one of its direct subfolders (ELN-style).
+     *
+     * @param location the location of the archive.
+     * @return the folder containing the metadata file.
+     * @throws IOException if the archive can not be read.
+     */
+    protected Path locateCrateFolder(String location) throws IOException {
+        Path root = open(location);
+        if (Files.isRegularFile(root.resolve(JsonDescriptor.ID))) {
+            return root;
+        }
+        try (Stream<Path> children = Files.list(root)) {
+            return children
+                    .filter(Files::isDirectory)
+                    .limit(50)
+                    .filter(folder -> Files.isRegularFile(folder.resolve(JsonDescriptor.ID)))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No %s found in zip file".formatted(JsonDescriptor.ID)));
+        }
+    }
+
+    @Override
+    public ObjectNode readMetadataJson(String location) throws IOException {
+        try (InputStream metadata = openMetadataJson(location)) {
+            return (ObjectNode) MyObjectMapper.getMapper().readTree(metadata);
+        }
+    }
+
+    @Override
+    public InputStream openMetadataJson(String location) throws IOException {
+        return Files.newInputStream(locateCrateFolder(location).resolve(JsonDescriptor.ID));
+    }
+
+    @Override
+    public Path readContentPath(String location) throws IOException {
+        return locateCrateFolder(location);
+    }
+
+    @Override
+    public Optional<Path> getSourceArchive() {
+        return isOpen() ? Optional.of(Path.of(openedLocation)) : Optional.empty();
+    }
+
+    /**
+     * Files within the opened archive can not be modified, so every file of
+     * the archive is considered unchanged.
+     */
+    @Override
+    public Optional<String> getUnchangedEntryName(Path file) {
+        if (!isOpen() || file.getFileSystem() != zipFileSystem) {
+            return Optional.empty();
+        }
+        String entryName = file.toAbsolutePath().normalize().toString();
+        // entry names have no leading slash
+        return Optional.of(entryName.startsWith("/") ? entryName.substring(1) : entryName);
+    }
+
+    /**
+     * Extracts the archive and returns the folder it has been extracted to.
+     * This is only required by callers which need the content as a regular
+     * folder; the {@link CrateReader} uses {@link #readContentPath(String)}.
+     *
+     * @param location the location of the archive.
+     * @return the folder the archive has been extracted to.
+     * @throws IOException if the archive can not be extracted.
+     */
+    @Override
+    public File readContent(String location) throws IOException {
+        return extractor.readContent(location);
+    }
+
+    /**
+     * Closes the archive. Paths of crates read with this strategy are not
+     * accessible anymore afterwards.
+     *
+     * @throws IOException if the archive can not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (zipFileSystem != null) {
+            zipFileSystem.close();
+            zipFileSystem = null;
+            openedLocation = null;
+        }
+    }
+}
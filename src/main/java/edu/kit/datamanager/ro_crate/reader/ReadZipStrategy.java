@@ -5,14 +5,24 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.datamanager.ro_crate.entities.contextual.JsonDescriptor;
 import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
 import edu.kit.datamanager.ro_crate.util.FileSystemUtil;
+import edu.kit.datamanager.ro_crate.util.TempSpace;
 import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.FileFilterUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Reads a crate from a ZIP archive (file).
@@ -31,19 +41,32 @@ import java.util.UUID;
  * (for example, thumbnails).
  * <p>
  * NOTE: The resulting crate may refer to these temporary files. Therefore,
- * these files are only being deleted before the JVM exits. If you need to free
- * space because your application is long-running or creates a lot of
- * crates, you may use the getters to retrieve information which will help
- * you to clean up manually. Keep in mind that crates may refer to this
- * folder after extraction. Use RoCrateWriter to export it so some
- * persistent location and possibly read it from there, if required. Or use
- * the ZipWriter to write it back to its source.
+ * the temporary folder is held by a {@link TempSpace} and deleted once this
+ * strategy, the crate and its data entities with files in the folder are no
+ * longer reachable, or when the space is closed. Use
+ * {@link #withTempSpace(TempSpace)} to extract into a space with a quota, or
+ * to delete the files of all crates of a session at once. Keep in mind that
+ * crates may refer to this folder after extraction. Use RoCrateWriter to
+ * export it so some persistent location and possibly read it from there, if
+ * required. Or use the ZipWriter to write it back to its source.
  */
-public class ReadZipStrategy implements GenericReaderStrategy<String> {
+public class ReadZipStrategy implements GenericReaderStrategy<String>, ZipOrigin {
 
   protected final String ID = UUID.randomUUID().toString();
   protected Path temporaryFolder = Path.of(String.format("./.tmp/ro-crate-java/zipReader/%s/", ID));
   protected boolean isExtracted = false;
+  protected Path sourceArchive = null;
+  protected TempSpace tempSpace = TempSpace.getDefault();
+  private boolean usesDefaultFolder = true;
+  private TempSpace.Lease temporaryContent = null;
+
+  /**
+   * Size and modification time of each extracted file, by its entry name.
+   * Used to detect files which have not been modified since extraction.
+   */
+  private final Map<String, FileState> extractedFiles = new HashMap<>();
+
+  private record FileState(long size, long lastModified) {}
 
   /**
    * Crates an instance with the default configuration.
@@ -65,6 +88,7 @@ public class ReadZipStrategy implements GenericReaderStrategy<String> {
    *                              will have UUIDs as their names.
    */
   public ReadZipStrategy(Path folderPath, boolean shallAddUuidSubfolder) {
+    this.usesDefaultFolder = false;
     if (shallAddUuidSubfolder) {
       this.temporaryFolder = folderPath.resolve(ID);
     } else {
@@ -72,6 +96,22 @@ public class ReadZipStrategy implements GenericReaderStrategy<String> {
     }
   }
 
+  /**
+   * Sets the space holding the temporary folder. If no folder has been given
+   * to the constructor, the crate is extracted to
+   * `$ROOT/zipReader/$UUID/`, where `$ROOT` is the root of the space.
+   *
+   * @param tempSpace the space to use.
+   * @return this instance of ReadZipStrategy
+   */
+  public ReadZipStrategy withTempSpace(TempSpace tempSpace) {
+    this.tempSpace = Objects.requireNonNull(tempSpace);
+    if (usesDefaultFolder) {
+      this.temporaryFolder = tempSpace.getRoot().resolve("zipReader").resolve(ID);
+    }
+    return this;
+  }
+
   /**
    * @return the identifier which may be used as the name for a subfolder in the temporary directory.
    */
@@ -95,14 +135,24 @@ public class ReadZipStrategy implements GenericReaderStrategy<String> {
 
   private void readCrate(String location) throws IOException {
     File folder = temporaryFolder.toFile();
-    FileSystemUtil.mkdirOrDeleteContent(folder);
-    // extract
-    try (ZipFile zf = new ZipFile(location)) {
-      zf.extractAll(temporaryFolder.toAbsolutePath().toString());
-      this.isExtracted = true;
+    TempSpace.Lease lease = tempSpace.adopt(temporaryFolder);
+    try {
+      FileSystemUtil.mkdirOrDeleteContent(folder);
+      // extract
+      try (ZipFile zf = new ZipFile(location)) {
+        lease.reserve(zf.getFileHeaders().stream().mapToLong(FileHeader::getUncompressedSize).sum());
+        zf.extractAll(temporaryFolder.toAbsolutePath().toString());
+      }
+      rememberExtractedFiles();
+    } catch (IOException | RuntimeException e) {
+      lease.close();
+      throw e;
     }
-    // register deletion on exit
-    FileUtils.forceDeleteOnExit(folder);
+    this.isExtracted = true;
+    this.sourceArchive = Path.of(location);
+    // delete the folder once neither this strategy nor the crate use it
+    lease.transferTo(this);
+    this.temporaryContent = lease;
   }
 
   @Override
@@ -112,6 +162,25 @@ public class ReadZipStrategy implements GenericReaderStrategy<String> {
     }
 
     ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    File jsonMetadata = locateMetadataFile();
+    return objectMapper.readTree(jsonMetadata).deepCopy();
+  }
+
+  @Override
+  public InputStream openMetadataJson(String location) throws IOException {
+    if (!isExtracted) {
+      this.readCrate(location);
+    }
+    return Files.newInputStream(locateMetadataFile().toPath());
+  }
+
+  /**
+   * Locates the metadata file in the extracted crate, which may be in the
+   * temporary folder itself or in one of its direct subfolders (ELN-style).
+   *
+   * @return the metadata file.
+   */
+  private File locateMetadataFile() {
     File jsonMetadata = this.temporaryFolder.resolve(JsonDescriptor.ID).toFile();
     if (!jsonMetadata.isFile()) {
       // Try to find the metadata file in subdirectories
@@ -127,8 +196,57 @@ public class ReadZipStrategy implements GenericReaderStrategy<String> {
         .orElseThrow(() -> new IllegalStateException("No %s found in zip file".formatted(JsonDescriptor.ID)));
       jsonMetadata = firstSubdir.toPath().resolve(JsonDescriptor.ID).toFile();
     }
+    return jsonMetadata;
+  }
 
-    return objectMapper.readTree(jsonMetadata).deepCopy();
+  private void rememberExtractedFiles() throws IOException {
+    extractedFiles.clear();
+    Path root = temporaryFolder.toAbsolutePath().normalize();
+    try (Stream<Path> files = Files.walk(root)) {
+      for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+        extractedFiles.put(toEntryName(root.relativize(file)), stateOf(file));
+      }
+    }
+  }
+
+  private static String toEntryName(Path relativePath) {
+    return relativePath.toString().replace(File.separatorChar, '/');
+  }
+
+  private static FileState stateOf(Path file) throws IOException {
+    return new FileState(Files.size(file), Files.getLastModifiedTime(file).toMillis());
+  }
+
+  @Override
+  public Optional<TempSpace.Lease> getTemporaryContent() {
+    return Optional.ofNullable(temporaryContent);
+  }
+
+  @Override
+  public Optional<Path> getSourceArchive() {
+    return Optional.ofNullable(sourceArchive);
+  }
+
+  @Override
+  public Optional<String> getUnchangedEntryName(Path file) {
+    if (!isExtracted || file.getFileSystem() != FileSystems.getDefault()) {
+      return Optional.empty();
+    }
+    Path root = temporaryFolder.toAbsolutePath().normalize();
+    Path absolute = file.toAbsolutePath().normalize();
+    if (!absolute.startsWith(root)) {
+      return Optional.empty();
+    }
+    String entryName = toEntryName(root.relativize(absolute));
+    FileState extracted = extractedFiles.get(entryName);
+    try {
+      if (extracted != null && Files.isRegularFile(absolute) && extracted.equals(stateOf(absolute))) {
+        return Optional.of(entryName);
+      }
+    } catch (IOException e) {
+      // treated as modified
+    }
+    return Optional.empty();
   }
 
   @Override
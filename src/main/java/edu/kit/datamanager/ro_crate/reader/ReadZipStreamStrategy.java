@@ -9,14 +9,19 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 import edu.kit.datamanager.ro_crate.util.FileSystemUtil;
+import edu.kit.datamanager.ro_crate.util.TempSpace;
 import net.lingala.zip4j.io.inputstream.ZipInputStream;
 import net.lingala.zip4j.model.LocalFileHeader;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.FileFilterUtils;
+import org.apache.commons.io.output.DeferredFileOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,13 +42,22 @@ import org.slf4j.LoggerFactory;
  * (for example, thumbnails).
  * <p>
  * NOTE: The resulting crate may refer to these temporary files. Therefore,
- * these files are only being deleted before the JVM exits. If you need to free
- * space because your application is long-running or creates a lot of
- * crates, you may use the getters to retrieve information which will help
- * you to clean up manually. Keep in mind that crates may refer to this
+ * the temporary folder is held by a {@link TempSpace} and deleted once this
+ * strategy, the crate and its data entities with files in the folder are no
+ * longer reachable, or when the space is closed (see
+ * {@link #withTempSpace(TempSpace)}). Keep in mind that crates may refer to this
  * folder after extraction. Use RoCrateWriter to export it so some
  * persistent location and possibly read it from there, if required. Or use
  * the ZipWriter to write it back to its source.
+ * <p>
+ * To only inspect the metadata of a crate, for example of an uploaded
+ * {@code .eln} file, use {@link #withMetadataOnly(boolean)}. The stream is
+ * then only read up to the metadata file, and the other files are neither
+ * extracted nor read:
+ * <pre>{@code
+ * RoCrate crate = new CrateReader<>(new ReadZipStreamStrategy().withMetadataOnly(true))
+ *     .readCrate(uploadStream);
+ * }</pre>
  *
  * @author jejkal
  */
@@ -53,6 +67,18 @@ public class ReadZipStreamStrategy implements GenericReaderStrategy<InputStream>
     protected final String ID = UUID.randomUUID().toString();
     protected Path temporaryFolder = Path.of(String.format("./.tmp/ro-crate-java/zipStreamReader/%s/", ID));
     protected boolean isExtracted = false;
+    protected boolean metadataOnly = false;
+    protected boolean strictMetadataLookup = false;
+    protected int inMemoryLimit = 16 * 1024 * 1024;
+    protected TempSpace tempSpace = TempSpace.getDefault();
+    private boolean usesDefaultFolder = true;
+    private TempSpace.Lease temporaryContent = null;
+
+    /**
+     * The metadata file in metadata-only mode, in memory or (if larger than
+     * {@link #inMemoryLimit}) in the temporary folder.
+     */
+    private DeferredFileOutputStream metadataBuffer = null;
 
     /**
      * Crates an instance with the default configuration.
@@ -73,6 +99,7 @@ public class ReadZipStreamStrategy implements GenericReaderStrategy<InputStream>
      * UUIDs as their names.
      */
     public ReadZipStreamStrategy(Path folderPath, boolean shallAddUuidSubfolder) {
+        this.usesDefaultFolder = false;
         if (shallAddUuidSubfolder) {
             this.temporaryFolder = folderPath.resolve(ID);
         } else {
@@ -80,6 +107,90 @@ public class ReadZipStreamStrategy implements GenericReaderStrategy<InputStream>
         }
     }
 
+    /**
+     * Enables or disables the metadata-only mode.
+     * <p>
+     * In this mode, the stream is read until the metadata file in the root
+     * of the archive is found. Nothing is extracted: the metadata file is
+     * kept in memory, or in the temporary folder if it is larger than the
+     * {@link #withInMemoryLimit(int) in-memory limit}. The remainder of the
+     * stream is not read.
+     * <p>
+     * A metadata file in a direct subfolder is only used if no file of the
+     * root of the archive came before it (ELN-style). Otherwise, it belongs
+     * to a nested crate. To make sure a root metadata file later in the
+     * stream is preferred, see {@link #withStrictMetadataLookup(boolean)}.
+     * <p>
+     * As the files are not extracted, the data entities of the resulting
+     * crate are not associated with files, and the crate has no untracked
+     * files. Writing such a crate only writes its metadata.
+     *
+     * @param metadataOnly true to only read the metadata file.
+     * @return this instance of ReadZipStreamStrategy
+     */
+    public ReadZipStreamStrategy withMetadataOnly(boolean metadataOnly) {
+        this.metadataOnly = metadataOnly;
+        return this;
+    }
+
+    /**
+     * Enables or disables the strict lookup of the metadata file in
+     * metadata-only mode.
+     * <p>
+     * ELN-style archives have a single folder in the root, so a metadata
+     * file in a direct subfolder is used as soon as it is found, as long as
+     * no file in the root came before it. In strict mode, it is only used if
+     * the root contains no files at all, so a nested crate is never taken for
+     * the crate itself. This requires reading the stream to its end for
+     * ELN-style archives.
+     *
+     * @param strict true to read ELN-style archives to their end.
+     * @return this instance of ReadZipStreamStrategy
+     */
+    public ReadZipStreamStrategy withStrictMetadataLookup(boolean strict) {
+        this.strictMetadataLookup = strict;
+        return this;
+    }
+
+    /**
+     * Sets the size up to which the metadata file is kept in memory in
+     * metadata-only mode. A larger metadata file is written to the temporary
+     * folder. The default is 16 MiB.
+     *
+     * @param bytes the limit in bytes.
+     * @return this instance of ReadZipStreamStrategy
+     */
+    public ReadZipStreamStrategy withInMemoryLimit(int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("The in-memory limit must not be negative, but was " + bytes);
+        }
+        this.inMemoryLimit = bytes;
+        return this;
+    }
+
+    /**
+     * Sets the space holding the temporary folder. If no folder has been
+     * given to the constructor, the crate is extracted to
+     * `$ROOT/zipStreamReader/$UUID/`, where `$ROOT` is the root of the space.
+     *
+     * @param tempSpace the space to use.
+     * @return this instance of ReadZipStreamStrategy
+     */
+    public ReadZipStreamStrategy withTempSpace(TempSpace tempSpace) {
+        this.tempSpace = Objects.requireNonNull(tempSpace);
+        if (usesDefaultFolder) {
+            this.temporaryFolder = tempSpace.getRoot().resolve("zipStreamReader").resolve(ID);
+        }
+        return this;
+    }
+
+    /**
+     * @return whether only the metadata file is read from the stream.
+     */
+    public boolean isMetadataOnly() {
+        return metadataOnly;
+    }
+
     /**
      * @return the identifier which may be used as the name for a subfolder in
      * the temporary directory.
@@ -109,7 +220,25 @@ public class ReadZipStreamStrategy implements GenericReaderStrategy<InputStream>
      * @param stream The input stream.
      */
     private void readCrate(InputStream stream) throws IOException {
+        if (metadataOnly) {
+            readMetadataOnly(stream);
+            return;
+        }
         File folder = temporaryFolder.toFile();
+        TempSpace.Lease lease = tempSpace.adopt(temporaryFolder);
+        try {
+            extractAll(stream, folder, lease);
+        } catch (IOException | RuntimeException e) {
+            lease.close();
+            throw e;
+        }
+        this.isExtracted = true;
+        // delete the folder once neither this strategy nor the crate use it
+        lease.transferTo(this);
+        this.temporaryContent = lease;
+    }
+
+    private void extractAll(InputStream stream, File folder, TempSpace.Lease lease) throws IOException {
         FileSystemUtil.mkdirOrDeleteContent(folder);
 
         LocalFileHeader localFileHeader;
@@ -129,25 +258,164 @@ public class ReadZipStreamStrategy implements GenericReaderStrategy<InputStream>
                     continue;
                 }
                 FileUtils.forceMkdir(extractedFile.getParentFile());
+                long size = 0;
                 try (OutputStream outputStream = new FileOutputStream(extractedFile)) {
                     while ((readLen = zipInputStream.read(readBuffer)) != -1) {
                         outputStream.write(readBuffer, 0, readLen);
+                        size += readLen;
+                    }
+                }
+                lease.reserve(size);
+            }
+        }
+    }
+
+    /**
+     * Reads the stream up to the metadata file and buffers it. A metadata
+     * file in a direct subfolder is used if no file in the root came before
+     * (ELN-style). In strict mode, it is buffered as a candidate, which is
+     * used if the root turns out to contain no files.
+     *
+     * @param stream The input stream.
+     */
+    private void readMetadataOnly(InputStream stream) throws IOException {
+        LocalFileHeader localFileHeader;
+        DeferredFileOutputStream candidate = null;
+        boolean rootHasFiles = false;
+        try (ZipInputStream zipInputStream = new ZipInputStream(stream)) {
+            while ((localFileHeader = zipInputStream.getNextEntry()) != null) {
+                // the content of skipped entries is not extracted
+                if (localFileHeader.isDirectory()) {
+                    continue;
+                }
+                String entryName = localFileHeader.getFileName();
+                if (isRootEntry(entryName)) {
+                    rootHasFiles = true;
+                    discard(candidate);
+                    candidate = null;
+                    if (isMetadataEntry(entryName)) {
+                        acceptMetadata(buffer(zipInputStream));
+                        return;
+                    }
+                } else if (!rootHasFiles && candidate == null && isMetadataEntry(entryName)) {
+                    candidate = buffer(zipInputStream);
+                    if (!strictMetadataLookup) {
+                        acceptMetadata(candidate);
+                        return;
                     }
                 }
             }
+        } catch (IOException | RuntimeException e) {
+            discard(candidate);
+            throw e;
+        }
+        if (candidate != null) {
+            acceptMetadata(candidate);
+            return;
+        }
+        throw new IllegalStateException("No %s found in zip file".formatted(JsonDescriptor.ID));
+    }
+
+    private DeferredFileOutputStream buffer(ZipInputStream zipInputStream) throws IOException {
+        DeferredFileOutputStream buffer = DeferredFileOutputStream.builder()
+                .setThreshold(inMemoryLimit)
+                .setOutputFile(temporaryFolder.resolve(JsonDescriptor.ID).toFile())
+                .get();
+        try (buffer) {
+            zipInputStream.transferTo(buffer);
         }
+        return buffer;
+    }
+
+    private static void discard(DeferredFileOutputStream buffer) throws IOException {
+        if (buffer != null && !buffer.isInMemory()) {
+            Files.deleteIfExists(buffer.getPath());
+        }
+    }
+
+    private void acceptMetadata(DeferredFileOutputStream buffer) throws IOException {
+        if (!buffer.isInMemory()) {
+            logger.debug("Metadata file exceeds the in-memory limit, buffered in {}.", buffer.getFile());
+            holdSpilledMetadata(buffer);
+        }
+        this.metadataBuffer = buffer;
         this.isExtracted = true;
-        // register deletion on exit
-        FileUtils.forceDeleteOnExit(folder);
+    }
+
+    /**
+     * Accounts the spilled metadata file to the temporary space, or deletes
+     * it if the space is at its quota.
+     *
+     * @param buffer the buffer of the metadata file.
+     */
+    private void holdSpilledMetadata(DeferredFileOutputStream buffer) throws IOException {
+        TempSpace.Lease lease;
+        try {
+            lease = tempSpace.adopt(temporaryFolder);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(buffer.getPath());
+            throw e;
+        }
+        try {
+            lease.reserve(buffer.getByteCount());
+        } catch (IOException e) {
+            lease.close();
+            throw e;
+        }
+        // delete the folder once neither this strategy nor the crate use it
+        lease.transferTo(this);
+        this.temporaryContent = lease;
+    }
+
+    /**
+     * Checks whether the entry is a metadata file in the root of the archive
+     * or in a direct subfolder of it (ELN-style).
+     *
+     * @param entryName the name of the zip entry.
+     * @return true if the entry is a metadata file.
+     */
+    private static boolean isMetadataEntry(String entryName) {
+        Path path = Path.of(entryName).normalize();
+        return path.getNameCount() <= 2
+                && !path.startsWith("..")
+                && Objects.equals(path.getFileName(), Path.of(JsonDescriptor.ID));
+    }
+
+    /**
+     * @param entryName the name of the zip entry.
+     * @return true if the entry is directly in the root of the archive.
+     */
+    private static boolean isRootEntry(String entryName) {
+        Path path = Path.of(entryName).normalize();
+        return path.getNameCount() == 1 && !path.startsWith("..");
     }
 
     @Override
     public ObjectNode readMetadataJson(InputStream stream) throws IOException {
+        ObjectMapper objectMapper = MyObjectMapper.getMapper();
+        try (InputStream jsonMetadata = openMetadataJson(stream)) {
+            return objectMapper.readTree(jsonMetadata).deepCopy();
+        }
+    }
+
+    @Override
+    public InputStream openMetadataJson(InputStream stream) throws IOException {
         if (!isExtracted) {
             this.readCrate(stream);
         }
+        if (metadataBuffer != null) {
+            return metadataBuffer.toInputStream();
+        }
+        return Files.newInputStream(locateMetadataFile().toPath());
+    }
 
-        ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    /**
+     * Locates the metadata file in the extracted crate, which may be in the
+     * temporary folder itself or in one of its direct subfolders (ELN-style).
+     *
+     * @return the metadata file.
+     */
+    private File locateMetadataFile() {
         File jsonMetadata = temporaryFolder.resolve(JsonDescriptor.ID).toFile();
         if (!jsonMetadata.isFile()) {
             // Try to find the metadata file in subdirectories
@@ -163,7 +431,12 @@ public class ReadZipStreamStrategy implements GenericReaderStrategy<InputStream>
                     .orElseThrow(() -> new IllegalStateException("No %s found in zip file".formatted(JsonDescriptor.ID)));
             jsonMetadata = firstSubdir.toPath().resolve(JsonDescriptor.ID).toFile();
         }
-        return objectMapper.readTree(jsonMetadata).deepCopy();
+        return jsonMetadata;
+    }
+
+    @Override
+    public Optional<TempSpace.Lease> getTemporaryContent() {
+        return Optional.ofNullable(temporaryContent);
     }
 
     @Override
@@ -0,0 +1,32 @@
+package edu.kit.datamanager.ro_crate.reader;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Implemented by reader strategies which read crates from a zip file.
+ * <p>
+ * Allows writers to find out which files of a crate are still unchanged
+ * since reading, so their compressed data can be copied from the original
+ * zip file instead of compressing them again.
+ *
+ * @see edu.kit.datamanager.ro_crate.writer.WriteParallelZipStreamStrategy#copyingUnchangedEntriesFrom(ZipOrigin)
+ */
+public interface ZipOrigin {
+
+    /**
+     * @return the zip file the crate has been read from, if a crate has been
+     * read already.
+     */
+    Optional<Path> getSourceArchive();
+
+    /**
+     * Returns the name of the entry in the source archive the given file has
+     * been read from, if the file has not been modified since.
+     *
+     * @param file the file of a data entity.
+     * @return the entry name, or empty if the file does not originate from
+     * the source archive or has been modified.
+     */
+    Optional<String> getUnchangedEntryName(Path file);
+}
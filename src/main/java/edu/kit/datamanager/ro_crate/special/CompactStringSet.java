@@ -0,0 +1,173 @@
+package edu.kit.datamanager.ro_crate.special;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A mutable set of strings which needs little memory while it is small.
+ * <p>
+ * Most entities have only one or two types and refer to few other entities,
+ * but a crate may contain millions of entities. A {@link HashSet} needs
+ * about 150 bytes even for a single element, so up to
+ * {@value #MAX_ARRAY_SIZE} elements are stored in a plain array instead and
+ * found by linear search. Larger sets switch to a {@link HashSet}.
+ * <p>
+ * While the elements are stored in the array, they are iterated in insertion
+ * order. Like a {@link HashSet}, the set permits null and is not
+ * thread-safe.
+ */
+public class CompactStringSet extends AbstractSet<String> {
+
+    /**
+     * Up to this size, a linear search is about as fast as hashing.
+     */
+    static final int MAX_ARRAY_SIZE = 8;
+
+    private static final String[] EMPTY = new String[0];
+
+    private String[] elements = EMPTY;
+    private int size = 0;
+    /**
+     * Holds the elements instead of the array once the set grew beyond
+     * {@value #MAX_ARRAY_SIZE} elements, otherwise null.
+     */
+    private Set<String> large;
+
+    /**
+     * Creates an empty set.
+     */
+    public CompactStringSet() {
+    }
+
+    /**
+     * Creates a set containing the given elements.
+     *
+     * @param elements the elements to add.
+     */
+    public CompactStringSet(Collection<? extends String> elements) {
+        this.addAll(elements);
+    }
+
+    @Override
+    public int size() {
+        return this.large != null ? this.large.size() : this.size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (this.large != null) {
+            return this.large.contains(o);
+        }
+        return this.indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean add(String element) {
+        if (this.large != null) {
+            return this.large.add(element);
+        }
+        if (this.indexOf(element) >= 0) {
+            return false;
+        }
+        if (this.size == MAX_ARRAY_SIZE) {
+            this.large = new HashSet<>(Arrays.asList(this.elements));
+            this.elements = EMPTY;
+            this.size = 0;
+            return this.large.add(element);
+        }
+        if (this.size == this.elements.length) {
+            // grow slowly, as most sets stay very small
+            this.elements = Arrays.copyOf(this.elements, Math.min(MAX_ARRAY_SIZE, this.size + 2));
+        }
+        this.elements[this.size++] = element;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (this.large != null) {
+            return this.large.remove(o);
+        }
+        int index = this.indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        this.removeAt(index);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        this.large = null;
+        this.elements = EMPTY;
+        this.size = 0;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        if (this.large != null) {
+            return this.large.iterator();
+        }
+        return new ArrayIterator();
+    }
+
+    private int indexOf(Object o) {
+        for (int i = 0; i < this.size; i++) {
+            if (Objects.equals(this.elements[i], o)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(this.elements, index + 1, this.elements, index, this.size - index - 1);
+        this.elements[--this.size] = null;
+    }
+
+    private class ArrayIterator implements Iterator<String> {
+
+        private final String[] iterated = CompactStringSet.this.elements;
+        private int next = 0;
+        private boolean removable = false;
+
+        @Override
+        public boolean hasNext() {
+            return this.next < CompactStringSet.this.size;
+        }
+
+        @Override
+        public String next() {
+            this.checkForModification();
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.removable = true;
+            return this.iterated[this.next++];
+        }
+
+        @Override
+        public void remove() {
+            if (!this.removable) {
+                throw new IllegalStateException();
+            }
+            this.checkForModification();
+            CompactStringSet.this.removeAt(--this.next);
+            this.removable = false;
+        }
+
+        private void checkForModification() {
+            // growing replaces the array, switching to a hash set empties it
+            if (this.iterated != CompactStringSet.this.elements) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
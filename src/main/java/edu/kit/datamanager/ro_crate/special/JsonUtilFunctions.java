@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -58,7 +59,7 @@ public class JsonUtilFunctions {
         var nxt = itr.next();
         if (nxt.getValue().isValueNode()) {
           if (nxt.getValue().asText().equals(id)) {
-            newNode.remove(nxt.getKey());
+            itr.remove();
           }
         } else {
           removeFieldsWith(id, nxt.getValue());
@@ -66,7 +67,8 @@ public class JsonUtilFunctions {
       }
     } else if (node.isArray()) {
       ArrayNode arrayNode = (ArrayNode) node;
-      for (int i = 0; i < arrayNode.size(); i++) {
+      // backwards, so removing an element does not skip the next one
+      for (int i = arrayNode.size() - 1; i >= 0; i--) {
         var p = arrayNode.get(i);
         if (p.isValueNode()) {
           if (p.asText().equals(id)) {
@@ -79,6 +81,105 @@ public class JsonUtilFunctions {
     }
   }
 
+  /**
+   * Removes all references to the given ids from the given properties of a
+   * JSON object. A reference is either an object with one of the ids as
+   * "@id" (like {"@id": "id"}), or a plain value equal to one of the ids.
+   * References are also removed from arrays and nested objects. Properties
+   * which only consisted of references are removed completely.
+   * <p>
+   * Unlike {@link #removeFieldsWith(String, JsonNode)}, only the given
+   * properties are visited, so the effort does not depend on the size of
+   * other properties.
+   *
+   * @param node       the JSON object to remove the references from.
+   * @param properties the names of the properties which contain references.
+   * @param ids        the ids to remove the references to.
+   * @return true if any reference has been removed.
+   */
+  public static boolean removeReferences(ObjectNode node, Collection<String> properties, Set<String> ids) {
+    boolean changed = false;
+    for (String property : properties) {
+      JsonNode value = node.get(property);
+      if (value == null || "@id".equals(property)) {
+        continue;
+      }
+      if (isReferenceTo(value, ids)) {
+        node.remove(property);
+        changed = true;
+      } else if (removeReferencesWithin(value, ids)) {
+        if (value.isArray() && value.isEmpty()) {
+          node.remove(property);
+        }
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
+  private static boolean isReferenceTo(JsonNode node, Set<String> ids) {
+    if (node.isValueNode()) {
+      return ids.contains(node.asText());
+    }
+    return node.isObject() && node.path("@id").isTextual() && ids.contains(node.get("@id").asText());
+  }
+
+  private static boolean removeReferencesWithin(JsonNode node, Set<String> ids) {
+    boolean changed = false;
+    if (node.isArray()) {
+      ArrayNode arrayNode = (ArrayNode) node;
+      for (int i = arrayNode.size() - 1; i >= 0; i--) {
+        JsonNode element = arrayNode.get(i);
+        if (isReferenceTo(element, ids)) {
+          arrayNode.remove(i);
+          changed = true;
+        } else {
+          changed |= removeReferencesWithin(element, ids);
+        }
+      }
+    } else if (node.isObject()) {
+      var itr = node.properties().iterator();
+      while (itr.hasNext()) {
+        var nxt = itr.next();
+        if ("@id".equals(nxt.getKey())) {
+          continue;
+        }
+        if (isReferenceTo(nxt.getValue(), ids)) {
+          itr.remove();
+          changed = true;
+        } else {
+          changed |= removeReferencesWithin(nxt.getValue(), ids);
+        }
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Collects the ids of all references ({"@id": "id"} objects) within the
+   * given JSON value, including arrays and nested objects.
+   *
+   * @param node       the JSON value.
+   * @param references the set the found ids are added to.
+   */
+  public static void collectReferences(JsonNode node, Set<String> references) {
+    if (node.isArray()) {
+      for (JsonNode element : node) {
+        collectReferences(element, references);
+      }
+    } else if (node.isObject()) {
+      for (var nxt : node.properties()) {
+        if ("@id".equals(nxt.getKey())) {
+          if (nxt.getValue().isTextual()) {
+            references.add(nxt.getValue().asText());
+          }
+        } else {
+          collectReferences(nxt.getValue(), references);
+        }
+      }
+    }
+  }
+
   /**
    * This method extracts from every property of a json objects its id's.
    * The method is intended for flattened json objects.
@@ -0,0 +1,109 @@
+package edu.kit.datamanager.ro_crate.special;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares the strings and JSON nodes of entity types between all entities.
+ * <p>
+ * Crates usually use a handful of types ("File", "Dataset", "Person", ...)
+ * for a large number of entities. Without interning, every entity read from
+ * a metadata file keeps its own copies of them. As {@link TextNode}s are
+ * immutable, the nodes can be shared as well as the strings.
+ * <p>
+ * The number of interned types is limited, so crates with generated type
+ * names can not fill the memory. Types beyond the limit are returned as they
+ * are. This class is thread-safe.
+ */
+public class TypeInterner {
+
+    static final int MAX_INTERNED_TYPES = 10_000;
+
+    private static final Map<String, TextNode> TYPES = new ConcurrentHashMap<>();
+
+    /** Static class */
+    private TypeInterner() {}
+
+    /**
+     * Returns the shared instance of the given type.
+     *
+     * @param type the type, may be null.
+     * @return an equal string, or null if the type is null.
+     */
+    public static String intern(String type) {
+        if (type == null) {
+            return null;
+        }
+        return internNode(type).textValue();
+    }
+
+    /**
+     * Returns a shared text node of the given type.
+     *
+     * @param type the type.
+     * @return a text node containing the type.
+     */
+    public static TextNode internNode(String type) {
+        TextNode node = TYPES.get(type);
+        if (node != null) {
+            return node;
+        }
+        if (TYPES.size() >= MAX_INTERNED_TYPES) {
+            return TextNode.valueOf(type);
+        }
+        return TYPES.computeIfAbsent(type, TextNode::valueOf);
+    }
+
+    /**
+     * Creates the value of the "@type" property from the given types, using
+     * shared text nodes. Like the {@link MyObjectMapper}, a single type is
+     * not wrapped into an array.
+     *
+     * @param types the types of an entity.
+     * @return a text node for a single type, an array node otherwise.
+     */
+    public static JsonNode toTypeNode(Collection<String> types) {
+        if (types.size() == 1) {
+            String type = types.iterator().next();
+            if (type != null) {
+                return internNode(type);
+            }
+        }
+        ArrayNode node = MyObjectMapper.getMapper().createArrayNode();
+        for (String type : types) {
+            node.add(type == null ? node.nullNode() : internNode(type));
+        }
+        return node;
+    }
+
+    /**
+     * Replaces the text nodes of the "@type" property of the given entity
+     * properties with shared ones. Other properties are left unchanged.
+     *
+     * @param properties the properties of an entity.
+     */
+    public static void internTypeProperty(ObjectNode properties) {
+        JsonNode types = properties.get("@type");
+        if (types == null) {
+            return;
+        }
+        if (types.isTextual()) {
+            properties.set("@type", internNode(types.textValue()));
+        } else if (types.isArray()) {
+            ArrayNode array = (ArrayNode) types;
+            for (int i = 0; i < array.size(); i++) {
+                if (array.get(i).isTextual()) {
+                    array.set(i, internNode(array.get(i).textValue()));
+                }
+            }
+        }
+    }
+}
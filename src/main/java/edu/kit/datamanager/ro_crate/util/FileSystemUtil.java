@@ -4,8 +4,13 @@ import org.apache.commons.io.FileUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Collection;
+import java.util.List;
 import java.util.regex.Matcher;
+import java.util.stream.Stream;
 
 public class FileSystemUtil {
     private FileSystemUtil() {
@@ -119,4 +124,45 @@ public class FileSystemUtil {
         }
         FileUtils.forceMkdir(folder);
     }
+
+    /**
+     * Copies a file or a folder with all its content to the given target.
+     * <p>
+     * In contrast to {@link FileUtils}, source and target may be on different
+     * file systems, for example the source may be within a zip file.
+     *
+     * @param source the file or folder to copy
+     * @param target the target path, which will be created or overwritten
+     * @throws IOException if an I/O error occurs
+     */
+    public static void copyRecursively(Path source, Path target) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(source)) {
+            paths = walk.toList();
+        }
+        for (Path path : paths) {
+            Path destination = target;
+            // resolve by name, as paths of different file systems can not be resolved against each other
+            for (Path name : source.relativize(path)) {
+                destination = destination.resolve(stripTrailingSlash(name.toString()));
+            }
+            if (Files.isDirectory(path)) {
+                Files.createDirectories(destination);
+            } else {
+                Path parent = destination.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                Files.copy(path, destination, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * @param name a file name, possibly of a folder within a zip file
+     * @return the name without a trailing slash
+     */
+    public static String stripTrailingSlash(String name) {
+        return name.endsWith("/") ? name.substring(0, name.length() - 1) : name;
+    }
 }
@@ -0,0 +1,307 @@
+package edu.kit.datamanager.ro_crate.util;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manages the temporary folders of readers and writers, for example the
+ * folders zip files are extracted to.
+ * <p>
+ * Each folder is held by a {@link Lease}, which counts the references to
+ * it. A reference is either released explicitly ({@link Lease#close()}) or
+ * belongs to an owner object and is released when the owner is no longer
+ * reachable ({@link Lease#retainFor(Object)}). For example, the folder a
+ * crate has been extracted to is held by the reader strategy, the crate
+ * and its data entities with files in the folder. The folder is deleted as
+ * soon as the last reference is released.
+ * <p>
+ * A space has a root folder, under which it allocates new folders, and a
+ * quota for the bytes held by its leases. Closing the space deletes all
+ * folders it still holds, which makes it usable as a session:
+ * <pre>{@code
+ * try (TempSpace session = new TempSpace(Path.of("/scratch/crates"), 10L << 30)) {
+ *     RoCrate crate = new CrateReader<>(new ReadZipStrategy().withTempSpace(session))
+ *         .readCrate("crate.zip");
+ *     // ... work with the crate ...
+ * } // the extracted files are deleted here at the latest
+ * }</pre>
+ * <p>
+ * By default, readers and writers use the {@link #getDefault() default
+ * space}, which is closed when the JVM exits.
+ */
+public class TempSpace implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TempSpace.class);
+
+    /**
+     * The root of the default space.
+     */
+    public static final Path DEFAULT_ROOT = Path.of("./.tmp/ro-crate-java/");
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private static TempSpace defaultSpace;
+
+    private final Path root;
+    private final long quota;
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private final AtomicLong bytesHeld = new AtomicLong();
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a space without a quota.
+     *
+     * @param root the folder under which new folders are allocated.
+     */
+    public TempSpace(Path root) {
+        this(root, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a space with the given quota.
+     *
+     * @param root  the folder under which new folders are allocated.
+     * @param quota the maximum number of bytes held by the leases of this
+     *              space.
+     */
+    public TempSpace(Path root, long quota) {
+        if (quota < 0) {
+            throw new IllegalArgumentException("The quota must not be negative, but was " + quota);
+        }
+        this.root = Objects.requireNonNull(root);
+        this.quota = quota;
+    }
+
+    /**
+     * Returns the space used by readers and writers unless another one is
+     * configured. It has the root {@link #DEFAULT_ROOT}, no quota, and is
+     * closed when the JVM exits.
+     *
+     * @return the default space.
+     */
+    public static synchronized TempSpace getDefault() {
+        if (defaultSpace == null) {
+            TempSpace space = new TempSpace(DEFAULT_ROOT);
+            Runtime.getRuntime().addShutdownHook(new Thread(space::close, "ro-crate-java temp space cleanup"));
+            defaultSpace = space;
+        }
+        return defaultSpace;
+    }
+
+    /**
+     * @return the folder under which new folders are allocated.
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * @return the maximum number of bytes held by the leases of this space.
+     */
+    public long getQuota() {
+        return quota;
+    }
+
+    /**
+     * @return the number of bytes currently held by the leases of this space,
+     * as reserved by {@link Lease#reserve(long)}.
+     */
+    public long getBytesHeld() {
+        return bytesHeld.get();
+    }
+
+    /**
+     * @return the number of folders currently held.
+     */
+    public int getFolderCount() {
+        return leases.size();
+    }
+
+    /**
+     * Allocates a new, empty folder with a random name in a subfolder of the
+     * root. The returned lease holds one reference, which is released by
+     * closing it.
+     *
+     * @param purpose the name of the subfolder, e.g. the name of the reader.
+     * @return the lease of the folder.
+     * @throws IOException if the folder can not be created, or the space is
+     *                     at its quota.
+     */
+    public Lease allocate(String purpose) throws IOException {
+        Lease lease = adopt(root.resolve(purpose).resolve(UUID.randomUUID().toString()));
+        try {
+            FileUtils.forceMkdir(lease.getFolder().toFile());
+        } catch (IOException e) {
+            lease.close();
+            throw e;
+        }
+        return lease;
+    }
+
+    /**
+     * Takes over the given folder, which is deleted with all its content
+     * once the lease is released. The folder does not need to exist yet and
+     * may be outside the root. The returned lease holds one reference, which
+     * is released by closing it.
+     *
+     * @param folder the folder.
+     * @return the lease of the folder.
+     * @throws IOException if the space is at its quota.
+     */
+    public Lease adopt(Path folder) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The temporary space has been closed.");
+        }
+        checkQuota(0);
+        Lease lease = new Lease(folder);
+        leases.add(lease);
+        return lease;
+    }
+
+    private void checkQuota(long additionalBytes) throws IOException {
+        long held = bytesHeld.get();
+        if (held >= quota || additionalBytes > quota - held) {
+            throw new IOException("The quota of %d bytes for temporary files in %s is exceeded (%d bytes held)."
+                    .formatted(quota, root, held));
+        }
+    }
+
+    /**
+     * Deletes all folders held by this space, regardless of their references.
+     * No folders can be allocated afterwards.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Lease lease : leases) {
+            lease.delete();
+        }
+    }
+
+    /**
+     * A folder held by a {@link TempSpace}, with a count of the references
+     * to it.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final Path folder;
+        private final AtomicInteger references = new AtomicInteger(1);
+        private final AtomicLong bytes = new AtomicLong();
+
+        private Lease(Path folder) {
+            this.folder = folder;
+        }
+
+        /**
+         * @return the folder of this lease.
+         */
+        public Path getFolder() {
+            return folder;
+        }
+
+        /**
+         * @return the bytes reserved for this lease.
+         */
+        public long getBytes() {
+            return bytes.get();
+        }
+
+        /**
+         * @return whether the folder has not been deleted yet.
+         */
+        public boolean isHeld() {
+            return references.get() > 0;
+        }
+
+        /**
+         * Checks whether the given path is within the folder of this lease.
+         *
+         * @param path the path to check.
+         * @return true if the path is the folder or within it.
+         */
+        public boolean contains(Path path) {
+            return path.toAbsolutePath().normalize().startsWith(folder.toAbsolutePath().normalize());
+        }
+
+        /**
+         * Accounts the given number of bytes (for example, the size of the
+         * extracted files) to this lease and its space.
+         *
+         * @param additionalBytes the bytes to add.
+         * @throws IOException if the quota of the space would be exceeded.
+         *                     The bytes are not added in this case.
+         */
+        public void reserve(long additionalBytes) throws IOException {
+            synchronized (TempSpace.this) {
+                checkQuota(additionalBytes);
+                bytesHeld.addAndGet(additionalBytes);
+                bytes.addAndGet(additionalBytes);
+            }
+        }
+
+        /**
+         * Adds a reference which is released when the given owner is no
+         * longer reachable.
+         *
+         * @param owner the object using the folder.
+         * @throws IllegalStateException if the folder has been deleted already.
+         */
+        public void retainFor(Object owner) {
+            if (references.getAndUpdate(count -> count > 0 ? count + 1 : count) <= 0) {
+                throw new IllegalStateException("The temporary folder " + folder + " has been deleted already.");
+            }
+            CLEANER.register(owner, this::release);
+        }
+
+        /**
+         * Hands the reference of the creator of this lease over to the given
+         * owner, so it is released when the owner is no longer reachable
+         * instead of by closing the lease.
+         *
+         * @param owner the object using the folder.
+         */
+        public void transferTo(Object owner) {
+            CLEANER.register(owner, this::release);
+        }
+
+        /**
+         * Releases the reference of the owner which created this lease. Each
+         * lease must be closed at most once; references added with
+         * {@link #retainFor(Object)} are released automatically.
+         */
+        @Override
+        public void close() {
+            release();
+        }
+
+        private void release() {
+            if (references.decrementAndGet() == 0) {
+                delete();
+            }
+        }
+
+        private void delete() {
+            references.set(0);
+            if (!leases.remove(this)) {
+                return;
+            }
+            bytesHeld.addAndGet(-bytes.getAndSet(0));
+            try {
+                FileUtils.deleteDirectory(folder.toFile());
+            } catch (IOException | IllegalArgumentException e) {
+                logger.warn("Could not delete temporary folder {}.", folder, e);
+            }
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package edu.kit.datamanager.ro_crate.util;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
 import net.lingala.zip4j.io.outputstream.ZipOutputStream;
 import net.lingala.zip4j.model.ZipParameters;
 
@@ -26,22 +30,42 @@ public class ZipStreamUtil {
             File folder,
             String parentPath
     ) throws IOException {
-        if (!folder.exists() || !folder.isDirectory()) {
+        addFolderToZipStream(zipOutputStream, folder.toPath(), parentPath);
+    }
+
+    /**
+     * Adds a folder and its contents to a ZipOutputStream.
+     * <p>
+     * The folder may be on any file system, for example within another zip
+     * file.
+     *
+     * @param zipOutputStream The ZipOutputStream to which the folder will be added.
+     * @param folder The folder to be added.
+     * @param parentPath The path in the zip file where the folder will be added.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void addFolderToZipStream(
+            ZipOutputStream zipOutputStream,
+            Path folder,
+            String parentPath
+    ) throws IOException {
+        if (!Files.isDirectory(folder)) {
             throw new IllegalArgumentException(
                     "The provided folder path is not a valid directory: %s"
-                            .formatted(folder.getAbsolutePath())
+                            .formatted(folder.toAbsolutePath())
             );
         }
 
-        File[] files = folder.listFiles();
-        if (files == null) {
-            return;
+        List<Path> files;
+        try (Stream<Path> children = Files.list(folder)) {
+            files = children.toList();
         }
 
-        for (File file : files) {
-            String zipEntryPath = parentPath.isEmpty() ? file.getName() : parentPath + "/" + file.getName();
-            if (file.isDirectory()) {
-                addFolderToZipStream(zipOutputStream, file.getAbsolutePath(), zipEntryPath);
+        for (Path file : files) {
+            String name = FileSystemUtil.stripTrailingSlash(file.getFileName().toString());
+            String zipEntryPath = parentPath.isEmpty() ? name : parentPath + "/" + name;
+            if (Files.isDirectory(file)) {
+                addFolderToZipStream(zipOutputStream, file, zipEntryPath);
             } else {
                 addFileToZipStream(zipOutputStream, file, zipEntryPath);
             }
@@ -75,12 +99,28 @@ public class ZipStreamUtil {
             ZipOutputStream zipOutputStream,
             File file,
             String zipEntryPath
+    ) throws IOException {
+        addFileToZipStream(zipOutputStream, file.toPath(), zipEntryPath);
+    }
+
+    /**
+     * Adds a file to a ZipOutputStream. The file may be on any file system.
+     *
+     * @param zipOutputStream The ZipOutputStream to which the file will be added.
+     * @param file The file to be added.
+     * @param zipEntryPath The path in the zip file where the file will be added.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void addFileToZipStream(
+            ZipOutputStream zipOutputStream,
+            Path file,
+            String zipEntryPath
     ) throws IOException {
         ZipParameters zipParameters = new ZipParameters();
         zipParameters.setFileNameInZip(zipEntryPath);
         zipOutputStream.putNextEntry(zipParameters);
 
-        try (InputStream inputStream = new FileInputStream(file)) {
+        try (InputStream inputStream = Files.newInputStream(file)) {
             byte[] buffer = new byte[4096];
             int len;
             while ((len = inputStream.read(buffer)) != -1) {
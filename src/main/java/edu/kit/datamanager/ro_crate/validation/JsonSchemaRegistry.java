@@ -0,0 +1,101 @@
+package edu.kit.datamanager.ro_crate.validation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of compiled JSON schemas.
+ * <p>
+ * Loading and compiling a schema is expensive compared to validating a
+ * small crate with it. Schemas are therefore compiled only once, and shared
+ * by all validators. Schemas given by URI are cached by their URI, so later
+ * changes to the referenced file will not be considered. Schemas given as
+ * JSON are cached by a hash of their content.
+ * <p>
+ * Compiled schemas are immutable, so this class and the returned schemas
+ * are thread-safe.
+ */
+public class JsonSchemaRegistry {
+
+  /**
+   * The default schema used to validate crates.
+   */
+  public static final String DEFAULT_CRATE_SCHEMA = "json_schemas/default.json";
+
+  private static final JsonSchemaFactory factory
+      = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V201909);
+  private static final Map<String, JsonSchema> schemas = new ConcurrentHashMap<>();
+
+  private JsonSchemaRegistry() {
+  }
+
+  /**
+   * Returns the compiled schema of the given URI, loading and compiling it
+   * if it is requested for the first time.
+   *
+   * @param schemaUri the location of the schema.
+   * @return the compiled schema.
+   */
+  public static JsonSchema getSchema(URI schemaUri) {
+    return schemas.computeIfAbsent("uri:" + schemaUri, key -> factory.getSchema(schemaUri));
+  }
+
+  /**
+   * Returns the compiled schema of a schema resource on the class path.
+   *
+   * @param resource the name of the resource, e.g. {@link #DEFAULT_CRATE_SCHEMA}.
+   * @return the compiled schema.
+   */
+  public static JsonSchema getResourceSchema(String resource) {
+    try {
+      URI schemaUri = Objects.requireNonNull(
+          JsonSchemaRegistry.class.getClassLoader().getResource(resource),
+          "Schema resource not found: " + resource).toURI();
+      return getSchema(schemaUri);
+    } catch (URISyntaxException e) {
+      throw new IllegalArgumentException("Invalid location of schema resource " + resource, e);
+    }
+  }
+
+  /**
+   * Returns the compiled version of the given schema. Equal schemas are only
+   * compiled once.
+   *
+   * @param schema the schema as JSON.
+   * @return the compiled schema.
+   */
+  public static JsonSchema getSchema(JsonNode schema) {
+    return schemas.computeIfAbsent("sha256:" + hashOf(schema), key -> factory.getSchema(schema));
+  }
+
+  /**
+   * Removes all compiled schemas, e.g. to reload schemas which changed.
+   */
+  public static void clear() {
+    schemas.clear();
+  }
+
+  private static String hashOf(JsonNode schema) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(MyObjectMapper.getMapper().writeValueAsBytes(schema)));
+    } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+      // SHA-256 is available on every Java platform and trees can always be serialized
+      throw new IllegalStateException("Unable to hash schema", e);
+    }
+  }
+}
@@ -1,80 +1,66 @@
 package edu.kit.datamanager.ro_crate.validation;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.networknt.schema.JsonSchema;
-import com.networknt.schema.JsonSchemaFactory;
-import com.networknt.schema.SpecVersion;
 import com.networknt.schema.ValidationMessage;
 
 import edu.kit.datamanager.ro_crate.Crate;
-import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
 
 import java.io.File;
-import java.io.IOException;
 import java.net.URI;
-import java.net.URISyntaxException;
-import java.util.Objects;
 import java.util.Set;
 
 /**
  * Validation of the crate metadata using JSON-schema.
+ * <p>
+ * The schemas are compiled only once and shared using the
+ * {@link JsonSchemaRegistry}, so creating instances of this class is cheap.
+ * Instances are thread-safe.
  */
 public class JsonSchemaValidation implements ValidatorStrategy {
 
-  private static final String defaultSchema = "json_schemas/default.json";
-  private JsonSchema schema;
-
-  private void getSchema(URI schemaUri) {
-    JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V201909);
-    this.schema = factory.getSchema(schemaUri);
-  }
+  private final JsonSchema schema;
 
   /**
    * Default constructor for the JSON-schema validation.
    */
   public JsonSchemaValidation() {
-    try {
-      URI schemaUri = Objects.requireNonNull(
-          getClass().getClassLoader().getResource(defaultSchema)).toURI();
-      getSchema(schemaUri);
-    } catch (URISyntaxException e) {
-      e.printStackTrace();
-    }
+    this.schema = JsonSchemaRegistry.getResourceSchema(JsonSchemaRegistry.DEFAULT_CRATE_SCHEMA);
   }
 
   public JsonSchemaValidation(URI schemaUri) {
-    getSchema(schemaUri);
+    this.schema = JsonSchemaRegistry.getSchema(schemaUri);
   }
 
   public JsonSchemaValidation(String schema) {
-    URI schemaUri = new File(schema).toURI();
-    getSchema(schemaUri);
+    this(new File(schema).toURI());
   }
 
   public JsonSchemaValidation(JsonNode schema) {
-    JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V201909);
-    this.schema = factory.getSchema(schema);
+    this.schema = JsonSchemaRegistry.getSchema(schema);
   }
 
   @Override
   public boolean validate(Crate crate) {
-    ObjectMapper objectMapper = MyObjectMapper.getMapper();
-    try {
-      final JsonNode good = objectMapper.readTree(crate.getJsonMetadata());
-      Set<ValidationMessage> errors = this.schema.validate(good);
-      if (errors.size() == 0) {
-        return true;
-      } else {
-        System.err.println("This crate does not validate against the this schema."
-            + " If you haven't provided any schemas,"
-            + " then it does not validate against the default one.");
-        for (var e : errors) {
-          System.err.println(e.getMessage());
-        }
-      }
-    } catch (IOException e) {
-      e.printStackTrace();
+    return this.validate(crate.getJsonMetadataTree());
+  }
+
+  /**
+   * Validates crate metadata which is already available as JSON tree.
+   *
+   * @param metadata the content of a ro-crate-metadata.json file.
+   * @return true if the metadata is valid.
+   */
+  public boolean validate(JsonNode metadata) {
+    Set<ValidationMessage> errors = this.schema.validate(metadata);
+    if (errors.isEmpty()) {
+      return true;
+    }
+    System.err.println("This crate does not validate against the this schema."
+        + " If you haven't provided any schemas,"
+        + " then it does not validate against the default one.");
+    for (var e : errors) {
+      System.err.println(e.getMessage());
     }
     return false;
   }
@@ -0,0 +1,60 @@
+package edu.kit.datamanager.ro_crate.validation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which crates are validated by readers and writers.
+ * <p>
+ * Validating every crate is the default. When processing many crates from
+ * a trusted source, validating only a sample of them (or none) saves the
+ * time of the validation.
+ * <p>
+ * Instances are thread-safe. A sampled policy counts the crates of all
+ * readers and writers it is used with.
+ */
+public class ValidationPolicy {
+
+  /**
+   * Validates every crate.
+   */
+  public static final ValidationPolicy ALWAYS = new ValidationPolicy(1);
+
+  /**
+   * Does not validate any crate.
+   */
+  public static final ValidationPolicy OFF = new ValidationPolicy(0);
+
+  private final int interval;
+  private final AtomicLong crates = new AtomicLong();
+
+  private ValidationPolicy(int interval) {
+    this.interval = interval;
+  }
+
+  /**
+   * Creates a policy which validates only every n-th crate, starting with
+   * the first one.
+   *
+   * @param interval the number of crates per validated crate, e.g. 100 to
+   *                 validate 1% of the crates.
+   * @return the new policy.
+   */
+  public static ValidationPolicy sampled(int interval) {
+    if (interval < 1) {
+      throw new IllegalArgumentException("The interval must be positive, but was " + interval);
+    }
+    return new ValidationPolicy(interval);
+  }
+
+  /**
+   * Decides whether the next crate shall be validated.
+   *
+   * @return true if the crate shall be validated.
+   */
+  public boolean shouldValidate() {
+    if (this.interval <= 1) {
+      return this.interval == 1;
+    }
+    return this.crates.getAndIncrement() % this.interval == 0;
+  }
+}
@@ -0,0 +1,68 @@
+package edu.kit.datamanager.ro_crate.writer;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/**
+ * Decides per zip entry how it should be compressed.
+ * <p>
+ * Used by {@link WriteParallelZipStreamStrategy}. Implementations return a
+ * deflate level (0-9 or {@link Deflater#DEFAULT_COMPRESSION}) or
+ * {@link #STORE} if the entry should be stored without compression.
+ */
+@FunctionalInterface
+public interface CompressionPolicy {
+
+    /**
+     * Indicates that an entry should be stored without compression.
+     */
+    int STORE = -2;
+
+    /**
+     * File extensions of formats which are usually compressed already, so
+     * compressing them again mostly costs time.
+     */
+    Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "zip", "eln", "gz", "tgz", "bz2", "xz", "zst", "7z", "rar",
+            "jpg", "jpeg", "png", "gif", "webp", "heic",
+            "mp3", "mp4", "m4a", "mkv", "avi", "mov", "ogg", "flac",
+            "docx", "xlsx", "pptx", "odt", "ods", "odp", "jar",
+            "h5", "hdf5", "nc", "npz", "parquet"
+    );
+
+    /**
+     * Returns the compression level for the given entry.
+     *
+     * @param entryName the name (path) of the entry within the zip file.
+     * @return a deflate level or {@link #STORE}.
+     */
+    int levelFor(String entryName);
+
+    /**
+     * @param level the deflate level or {@link #STORE}.
+     * @return a policy using the same level for all entries.
+     */
+    static CompressionPolicy uniform(int level) {
+        return entryName -> level;
+    }
+
+    /**
+     * @param level the deflate level for all other entries.
+     * @return a policy storing entries with an extension from
+     * {@link #COMPRESSED_EXTENSIONS} and compressing all other entries with
+     * the given level.
+     */
+    static CompressionPolicy storeAlreadyCompressed(int level) {
+        return entryName -> {
+            int dot = entryName.lastIndexOf('.');
+            if (dot >= 0 && dot > entryName.lastIndexOf('/')) {
+                String extension = entryName.substring(dot + 1).toLowerCase(Locale.ROOT);
+                if (COMPRESSED_EXTENSIONS.contains(extension)) {
+                    return STORE;
+                }
+            }
+            return level;
+        };
+    }
+}
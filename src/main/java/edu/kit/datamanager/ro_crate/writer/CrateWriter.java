@@ -2,9 +2,11 @@ package edu.kit.datamanager.ro_crate.writer;
 
 import edu.kit.datamanager.ro_crate.Crate;
 import edu.kit.datamanager.ro_crate.validation.JsonSchemaValidation;
+import edu.kit.datamanager.ro_crate.validation.ValidationPolicy;
 import edu.kit.datamanager.ro_crate.validation.Validator;
 
 import java.io.IOException;
+import java.util.Objects;
 
 /**
  * The class used for writing (exporting) crates. The class uses a strategy
@@ -16,6 +18,8 @@ public class CrateWriter<DESTINATION_TYPE> {
 
     private final GenericWriterStrategy<DESTINATION_TYPE> strategy;
     protected ProvenanceManager provenanceManager = new ProvenanceManager();
+    private final Validator validator = new Validator(new JsonSchemaValidation());
+    private ValidationPolicy validationPolicy = ValidationPolicy.ALWAYS;
 
     /**
      * Constructs a CrateWriter with a specified strategy for writing crates.
@@ -38,6 +42,18 @@ public class CrateWriter<DESTINATION_TYPE> {
         return this;
     }
 
+    /**
+     * Sets which of the written crates are validated against the default
+     * schema. By default, every crate is validated.
+     *
+     * @param validationPolicy the policy to use.
+     * @return this CrateWriter instance for method chaining.
+     */
+    public CrateWriter<DESTINATION_TYPE> withValidationPolicy(ValidationPolicy validationPolicy) {
+        this.validationPolicy = Objects.requireNonNull(validationPolicy);
+        return this;
+    }
+
     /**
      * This method saves the crate to a destination provided.
      *
@@ -45,8 +61,9 @@ public class CrateWriter<DESTINATION_TYPE> {
      * @param destination the location where the crate should be written.
      */
     public void save(Crate crate, DESTINATION_TYPE destination) throws IOException {
-        Validator defaultValidation = new Validator(new JsonSchemaValidation());
-        defaultValidation.validate(crate);
+        if (this.validationPolicy.shouldValidate()) {
+            this.validator.validate(crate);
+        }
         if (this.provenanceManager != null) {
             this.provenanceManager.addProvenanceInformation(crate);
         }
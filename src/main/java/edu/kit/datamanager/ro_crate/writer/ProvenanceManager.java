@@ -6,6 +6,7 @@ import edu.kit.datamanager.ro_crate.util.ClasspathPropertiesVersionProvider;
 import edu.kit.datamanager.ro_crate.util.VersionProvider;
 
 import java.time.Instant;
+import java.util.Optional;
 
 import static edu.kit.datamanager.ro_crate.entities.contextual.ContextualEntity.ContextualEntityBuilder;
 
@@ -85,7 +86,7 @@ public class ProvenanceManager {
      */
     public void addProvenanceInformation(Crate crate) {
         // Determine if this is the first write
-        boolean isFirstWrite = crate.getAllContextualEntities().stream().noneMatch(
+        boolean isFirstWrite = crate.streamContextualEntities().noneMatch(
                 entity -> entity.getId().startsWith(RO_CRATE_JAVA_ID_PREFIX.toString()))
                 && !crate.isImported();
 
@@ -117,9 +118,7 @@ public class ProvenanceManager {
             String libraryId
     ) {
         String version = this.versionProvider.getVersion();
-        ContextualEntity self = crate.getAllContextualEntities().stream()
-                .filter(contextualEntity -> libraryId.equals(contextualEntity.getId()))
-                .findFirst()
+        ContextualEntity self = Optional.ofNullable(crate.getContextualEntityById(libraryId))
                 .orElseGet(() -> new ContextualEntityBuilder()
                         .setId(libraryId)
                         .addType("SoftwareApplication")
@@ -1,19 +1,17 @@
 package edu.kit.datamanager.ro_crate.writer;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.kit.datamanager.ro_crate.Crate;
 import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
-import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+import edu.kit.datamanager.ro_crate.util.FileSystemUtil;
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
 
 /**
  * A class for writing a crate to a folder.
@@ -44,14 +42,10 @@ public class WriteFolderStrategy implements GenericWriterStrategy<String> {
     public void save(Crate crate, String destination) throws IOException {
         File file = new File(destination);
         FileUtils.forceMkdir(file);
-        ObjectMapper objectMapper = MyObjectMapper.getMapper();
-        JsonNode node = objectMapper.readTree(crate.getJsonMetadata());
-        String str = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(node);
-        InputStream inputStream = new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8));
-
         File json = new File(destination, "ro-crate-metadata.json");
-        FileUtils.copyInputStreamToFile(inputStream, json);
-        inputStream.close();
+        try (OutputStream outputStream = new BufferedOutputStream(FileUtils.openOutputStream(json))) {
+            crate.writeJsonMetadata(outputStream, true);
+        }
         // save also the preview files to the crate destination
         if (crate.getPreview() != null && this.writePreview) {
             crate.getPreview().saveAllToFolder(file);
@@ -63,13 +57,16 @@ public class WriteFolderStrategy implements GenericWriterStrategy<String> {
                 FileUtils.copyFileToDirectory(e, file);
             }
         }
-        for (DataEntity dataEntity : crate.getAllDataEntities()) {
+        for (DataEntity dataEntity : crate.getDataEntitiesView()) {
             savetoFile(dataEntity, file);
         }
     }
 
     private void savetoFile(DataEntity entity, File file) throws IOException {
-        if (entity.getPath() != null) {
+        if (entity.getPath() != null && entity.getPath().getFileSystem() != FileSystems.getDefault()) {
+            // e.g. a file within the zip file the crate was read from
+            FileSystemUtil.copyRecursively(entity.getPath(), file.toPath().resolve(entity.getId()));
+        } else if (entity.getPath() != null) {
             if (entity.getPath().toFile().isDirectory()) {
                 FileUtils.copyDirectory(entity.getPath().toFile(), file.toPath().resolve(entity.getId()).toFile());
             } else {
@@ -0,0 +1,392 @@
+package edu.kit.datamanager.ro_crate.writer;
+
+import edu.kit.datamanager.ro_crate.Crate;
+import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
+import edu.kit.datamanager.ro_crate.reader.ZipOrigin;
+import edu.kit.datamanager.ro_crate.util.FileSystemUtil;
+import edu.kit.datamanager.ro_crate.util.ZipStreamUtil;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.function.IOSupplier;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Writes a crate to a zip stream, compressing the files of the crate in
+ * parallel.
+ * <p>
+ * Each file is compressed on a thread pool into a temporary buffer. Buffers
+ * larger than a configurable limit are spilled to temporary files. The
+ * compressed entries are then appended to the zip stream in a deterministic
+ * order (sorted by their path), so the same crate always results in the same
+ * archive layout. The
+ * number of entries being compressed at the same time is bounded to limit
+ * the memory and disk usage of the temporary buffers.
+ * <p>
+ * The compression can be configured per entry using a {@link CompressionPolicy},
+ * for example to store files which are compressed already:
+ * <pre>{@code
+ * new CrateWriter<>(new WriteParallelZipStreamStrategy()
+ *         .withThreads(8)
+ *         .withCompressionPolicy(CompressionPolicy.storeAlreadyCompressed(Deflater.DEFAULT_COMPRESSION)))
+ *     .save(crate, outputStream);
+ * }</pre>
+ * <p>
+ * If the crate has been read from a zip file, files which have not been
+ * modified since can be copied from the original zip file without
+ * decompressing and compressing them again. Only the metadata file and the
+ * preview are generated anew in this case:
+ * <pre>{@code
+ * ReadZipStrategy source = new ReadZipStrategy();
+ * RoCrate crate = new CrateReader<>(source).readCrate("crate.zip");
+ * // ... edit the metadata ...
+ * new CrateWriter<>(new WriteZipStrategy(new WriteParallelZipStreamStrategy()
+ *         .copyingUnchangedEntriesFrom(source)))
+ *     .save(crate, "edited-crate.zip");
+ * }</pre>
+ * <p>
+ * Like {@link WriteZipStreamStrategy}, the given stream will be closed after
+ * writing.
+ */
+public class WriteParallelZipStreamStrategy extends WriteZipStreamStrategy {
+
+    public static final String SPILL_DIR = "./.tmp/ro-crate-java/writer-parallel-zip-stream-strategy/";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected int threads = Runtime.getRuntime().availableProcessors();
+    protected CompressionPolicy compressionPolicy = CompressionPolicy.uniform(Deflater.DEFAULT_COMPRESSION);
+    protected int inMemoryLimit = 16 * 1024 * 1024;
+    protected Path spillDirectory = Path.of(SPILL_DIR);
+    protected ZipOrigin copySource = null;
+
+    /**
+     * Sets the number of threads used for compression.
+     *
+     * @param threads the number of threads, at least one.
+     * @return this instance of WriteParallelZipStreamStrategy
+     */
+    public WriteParallelZipStreamStrategy withThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required.");
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Sets the policy deciding how each entry is compressed.
+     *
+     * @param compressionPolicy the policy to use.
+     * @return this instance of WriteParallelZipStreamStrategy
+     */
+    public WriteParallelZipStreamStrategy withCompressionPolicy(CompressionPolicy compressionPolicy) {
+        this.compressionPolicy = Objects.requireNonNull(compressionPolicy);
+        return this;
+    }
+
+    /**
+     * Sets the size up to which compressed (or stored) entries are buffered
+     * in memory. Larger entries are written to temporary files.
+     *
+     * @param bytes the limit in bytes.
+     * @return this instance of WriteParallelZipStreamStrategy
+     */
+    public WriteParallelZipStreamStrategy withInMemoryLimit(int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("The in-memory limit must not be negative, but was " + bytes);
+        }
+        this.inMemoryLimit = bytes;
+        return this;
+    }
+
+    /**
+     * Sets the directory for temporary files of large entries.
+     * A subdirectory will be created and deleted for each written crate.
+     *
+     * @param spillDirectory the directory to use.
+     * @return this instance of WriteParallelZipStreamStrategy
+     */
+    public WriteParallelZipStreamStrategy withSpillDirectory(Path spillDirectory) {
+        this.spillDirectory = Objects.requireNonNull(spillDirectory);
+        return this;
+    }
+
+    /**
+     * Copies the compressed data of files which have not been modified since
+     * reading directly from the zip file the crate has been read from.
+     * <p>
+     * The source archive must not be the destination of the writer.
+     *
+     * @param origin the reader strategy used to read the crate.
+     * @return this instance of WriteParallelZipStreamStrategy
+     */
+    public WriteParallelZipStreamStrategy copyingUnchangedEntriesFrom(ZipOrigin origin) {
+        this.copySource = origin;
+        return this;
+    }
+
+    @Override
+    public void save(Crate crate, OutputStream destination) throws IOException {
+        String prefix = getInnerFolderName();
+        Path spillFolder = spillDirectory.resolve(UUID.randomUUID().toString());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (ZipFile sourceArchive = openSourceArchive();
+             ZipArchiveOutputStream zipStream = new ZipArchiveOutputStream(destination)) {
+            Files.createDirectories(spillFolder);
+            saveMetadataJson(crate, zipStream, prefix);
+
+            List<EntrySource> sources = new ArrayList<>();
+            for (DataEntity dataEntity : crate.getDataEntitiesView()) {
+                if (dataEntity != null && dataEntity.getPath() != null) {
+                    collectSources(dataEntity.getPath(), prefix + dataEntity.getId(), sources);
+                }
+            }
+            sources.sort(Comparator.comparing(EntrySource::entryName));
+            writeInParallel(sources, zipStream, executor, spillFolder, sourceArchive);
+
+            Optional<File> preview = generatePreview(crate);
+            if (preview.isPresent()) {
+                try {
+                    List<EntrySource> previewSources = new ArrayList<>();
+                    String[] paths = Optional.ofNullable(preview.get().list()).orElse(new String[0]);
+                    for (String path : paths) {
+                        collectSources(preview.get().toPath().resolve(path), prefix + path, previewSources);
+                    }
+                    writeInParallel(previewSources, zipStream, executor, spillFolder, null);
+                } finally {
+                    deletePreview(preview.get());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            FileUtils.deleteQuietly(spillFolder.toFile());
+        }
+    }
+
+    /**
+     * @return the zip file to copy unchanged entries from, or null if there is none.
+     */
+    private ZipFile openSourceArchive() throws IOException {
+        if (copySource == null || copySource.getSourceArchive().isEmpty()) {
+            return null;
+        }
+        return ZipFile.builder()
+                .setPath(copySource.getSourceArchive().get())
+                .get();
+    }
+
+    private void saveMetadataJson(Crate crate, ZipArchiveOutputStream zipStream, String prefix) throws IOException {
+        ZipArchiveEntry entry = new ZipArchiveEntry(prefix + "ro-crate-metadata.json");
+        zipStream.putArchiveEntry(entry);
+        crate.writeJsonMetadata(zipStream, true);
+        zipStream.closeArchiveEntry();
+    }
+
+    /**
+     * Collects the files to write, recursively for folders. Like
+     * {@link ZipStreamUtil}, only files get their own entries. The files may
+     * be on any file system.
+     */
+    private static void collectSources(Path file, String entryName, List<EntrySource> sources) throws IOException {
+        if (Files.isDirectory(file)) {
+            List<Path> children;
+            try (Stream<Path> list = Files.list(file)) {
+                children = list.toList();
+            }
+            for (Path child : children) {
+                String childName = FileSystemUtil.ensureTrailingSlash(entryName)
+                        + FileSystemUtil.stripTrailingSlash(child.getFileName().toString());
+                collectSources(child, childName, sources);
+            }
+        } else {
+            sources.add(new EntrySource(file, entryName));
+        }
+    }
+
+    /**
+     * Compresses the given sources on the executor and appends them to the
+     * zip stream in the order of the list. At most twice the number of
+     * threads entries are in flight at the same time. Unchanged entries of
+     * the source archive are not compressed but copied.
+     */
+    private void writeInParallel(
+            List<EntrySource> sources,
+            ZipArchiveOutputStream zipStream,
+            ExecutorService executor,
+            Path spillFolder,
+            ZipFile sourceArchive
+    ) throws IOException {
+        int maxInFlight = 2 * threads;
+        Deque<Future<CompressedEntry>> inFlight = new ArrayDeque<>();
+        try {
+            for (EntrySource source : sources) {
+                Optional<CompressedEntry> unchanged = findUnchangedEntry(source, sourceArchive);
+                if (unchanged.isPresent()) {
+                    inFlight.add(CompletableFuture.completedFuture(unchanged.get()));
+                } else {
+                    inFlight.add(executor.submit(() -> compress(source, spillFolder)));
+                }
+                if (inFlight.size() >= maxInFlight) {
+                    appendEntry(zipStream, inFlight.poll());
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                appendEntry(zipStream, inFlight.poll());
+            }
+        } finally {
+            // only non-empty in case of errors
+            for (Future<CompressedEntry> future : inFlight) {
+                future.cancel(true);
+                if (future.isDone() && !future.isCancelled()) {
+                    try {
+                        future.get().discard();
+                    } catch (ExecutionException | InterruptedException | IOException e) {
+                        // nothing to clean up, or the cleanup is done on exit with the spill folder
+                    }
+                }
+            }
+        }
+    }
+
+    private static void appendEntry(ZipArchiveOutputStream zipStream, Future<CompressedEntry> future)
+            throws IOException {
+        CompressedEntry compressed;
+        try {
+            compressed = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a compressed entry.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Compressing a zip entry failed.", e.getCause());
+        }
+        try (InputStream raw = compressed.openRaw()) {
+            zipStream.addRawArchiveEntry(compressed.entry, raw);
+        } finally {
+            compressed.discard();
+        }
+    }
+
+    /**
+     * Looks up the entry of the source archive the given file has been read
+     * from, if it is unchanged and can be copied as it is.
+     */
+    private Optional<CompressedEntry> findUnchangedEntry(EntrySource source, ZipFile sourceArchive) {
+        if (sourceArchive == null) {
+            return Optional.empty();
+        }
+        return copySource.getUnchangedEntryName(source.file)
+                .map(sourceArchive::getEntry)
+                .filter(sourceEntry -> !sourceEntry.getGeneralPurposeBit().usesEncryption())
+                .filter(sourceArchive::canReadEntryData)
+                .map(sourceEntry -> {
+                    ZipArchiveEntry entry = new ZipArchiveEntry(source.entryName);
+                    entry.setMethod(sourceEntry.getMethod());
+                    entry.setTime(sourceEntry.getTime());
+                    entry.setCrc(sourceEntry.getCrc());
+                    entry.setSize(sourceEntry.getSize());
+                    entry.setCompressedSize(sourceEntry.getCompressedSize());
+                    return new CompressedEntry(entry, () -> sourceArchive.getRawInputStream(sourceEntry));
+                });
+    }
+
+    /**
+     * Runs on the worker threads. Reads the file once, computing the CRC and
+     * buffering the deflated data, or the data itself if it is stored.
+     */
+    private CompressedEntry compress(EntrySource source, Path spillFolder) throws IOException {
+        ZipArchiveEntry entry = new ZipArchiveEntry(source.entryName);
+        entry.setTime(Files.getLastModifiedTime(source.file).toMillis());
+        int level = compressionPolicy.levelFor(source.entryName);
+        boolean stored = level == CompressionPolicy.STORE;
+        CRC32 crc = new CRC32();
+
+        DeferredFileOutputStream buffer = DeferredFileOutputStream.builder()
+                .setThreshold(inMemoryLimit)
+                .setPrefix("entry")
+                .setSuffix(stored ? ".stored" : ".deflate")
+                .setDirectory(spillFolder.toFile())
+                .get();
+        Deflater deflater = stored ? null : new Deflater(level, true);
+        try {
+            long size;
+            try (InputStream in = new CheckedInputStream(Files.newInputStream(source.file), crc);
+                 OutputStream out = stored ? buffer : new DeflaterOutputStream(buffer, deflater, BUFFER_SIZE)) {
+                size = in.transferTo(out);
+            }
+            if (stored) {
+                entry.setMethod(ZipEntry.STORED);
+                entry.setCompressedSize(size);
+            } else {
+                entry.setMethod(ZipEntry.DEFLATED);
+                entry.setCompressedSize(deflater.getBytesWritten());
+            }
+            entry.setSize(size);
+            entry.setCrc(crc.getValue());
+        } catch (IOException | RuntimeException e) {
+            if (!buffer.isInMemory()) {
+                Files.deleteIfExists(buffer.getPath());
+            }
+            throw e;
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+        if (buffer.isInMemory()) {
+            byte[] data = buffer.getData();
+            return new CompressedEntry(entry, () -> new ByteArrayInputStream(data));
+        }
+        return new CompressedEntry(entry, buffer.getPath());
+    }
+
+    private record EntrySource(Path file, String entryName) {}
+
+    /**
+     * A compressed entry. The raw data is in memory, in a temporary file, or
+     * read from the source archive (copied entries).
+     */
+    private static final class CompressedEntry {
+        private final ZipArchiveEntry entry;
+        private final IOSupplier<InputStream> raw;
+        private final Path temporaryFile;
+
+        CompressedEntry(ZipArchiveEntry entry, IOSupplier<InputStream> raw) {
+            this.entry = entry;
+            this.raw = raw;
+            this.temporaryFile = null;
+        }
+
+        CompressedEntry(ZipArchiveEntry entry, Path temporaryFile) {
+            this.entry = entry;
+            this.raw = () -> new BufferedInputStream(Files.newInputStream(temporaryFile), BUFFER_SIZE);
+            this.temporaryFile = temporaryFile;
+        }
+
+        InputStream openRaw() throws IOException {
+            return raw.get();
+        }
+
+        void discard() throws IOException {
+            if (temporaryFile != null) {
+                Files.deleteIfExists(temporaryFile);
+            }
+        }
+    }
+}
@@ -18,7 +18,24 @@ public class WriteZipStrategy implements
         ElnFormatWriter<String>
 {
     private static final Logger logger = LoggerFactory.getLogger(WriteZipStrategy.class);
-    protected ElnFormatWriter<OutputStream> delegate = new WriteZipStreamStrategy();
+    protected ElnFormatWriter<OutputStream> delegate;
+
+    /**
+     * Creates a strategy writing zip files with a {@link WriteZipStreamStrategy}.
+     */
+    public WriteZipStrategy() {
+        this(new WriteZipStreamStrategy());
+    }
+
+    /**
+     * Creates a strategy writing zip files with the given stream strategy,
+     * for example a {@link WriteParallelZipStreamStrategy}.
+     *
+     * @param delegate the strategy writing the zip stream.
+     */
+    public WriteZipStrategy(ElnFormatWriter<OutputStream> delegate) {
+        this.delegate = delegate;
+    }
 
     @Override
     public ElnFormatWriter<String> usingElnStyle() {
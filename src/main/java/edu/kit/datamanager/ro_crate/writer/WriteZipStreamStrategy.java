@@ -1,21 +1,19 @@
 package edu.kit.datamanager.ro_crate.writer;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import edu.kit.datamanager.ro_crate.Crate;
 import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
-import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Path;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.kit.datamanager.ro_crate.preview.CratePreview;
 import edu.kit.datamanager.ro_crate.util.FileSystemUtil;
+import edu.kit.datamanager.ro_crate.util.TempSpace;
 import edu.kit.datamanager.ro_crate.util.ZipStreamUtil;
 import net.lingala.zip4j.io.outputstream.ZipOutputStream;
 import net.lingala.zip4j.model.ZipParameters;
@@ -33,6 +31,7 @@ public class WriteZipStreamStrategy implements
 
     private static final Logger logger = LoggerFactory.getLogger(WriteZipStreamStrategy.class);
     public static final String TMP_DIR = "./.tmp/ro-crate-java/writer-zip-stream-strategy/";
+    private static final String TMP_PURPOSE = "writer-zip-stream-strategy";
 
     /**
      * Defines if the zip file will directly contain the crate,
@@ -46,6 +45,16 @@ public class WriteZipStreamStrategy implements
      */
     protected String rootSubdirName = "content";
 
+    /**
+     * The space holding the temporary preview folders.
+     */
+    protected TempSpace tempSpace = TempSpace.getDefault();
+
+    /**
+     * The leases of the preview folders currently in use, by their folder.
+     */
+    private final Map<File, TempSpace.Lease> previewFolders = new ConcurrentHashMap<>();
+
     @Override
     public ElnFormatWriter<OutputStream> usingElnStyle() {
         this.createRootSubdir = true;
@@ -67,8 +76,34 @@ public class WriteZipStreamStrategy implements
         return this;
     }
 
+    /**
+     * Sets the space holding the temporary folders of the previews. By
+     * default, they are generated in {@link #TMP_DIR}.
+     *
+     * @param tempSpace the space to use.
+     * @return this instance of WriteZipStreamStrategy
+     */
+    public WriteZipStreamStrategy withTempSpace(TempSpace tempSpace) {
+        this.tempSpace = Objects.requireNonNull(tempSpace);
+        return this;
+    }
+
     @Override
     public void save(Crate crate, OutputStream destination) throws IOException {
+        String innerFolderName = getInnerFolderName();
+        try (ZipOutputStream zipFile = new ZipOutputStream(destination)) {
+            saveMetadataJson(crate, zipFile, innerFolderName);
+            saveDataEntities(crate, zipFile, innerFolderName);
+            savePreview(crate, zipFile, innerFolderName);
+        }
+    }
+
+    /**
+     * @return the prefix of all paths within the zip file. Empty if no root
+     * subdirectory is used, otherwise the name of the subdirectory with a
+     * trailing slash.
+     */
+    protected String getInnerFolderName() {
         String innerFolderName = "";
         if (this.createRootSubdir) {
             innerFolderName = FileSystemUtil.filterExtensionsFromFileName(
@@ -76,15 +111,11 @@ public class WriteZipStreamStrategy implements
                     Set.of("ELN", "ZIP"));
             innerFolderName = FileSystemUtil.ensureTrailingSlash(innerFolderName);
         }
-        try (ZipOutputStream zipFile = new ZipOutputStream(destination)) {
-            saveMetadataJson(crate, zipFile, innerFolderName);
-            saveDataEntities(crate, zipFile, innerFolderName);
-            savePreview(crate, zipFile, innerFolderName);
-        }
+        return innerFolderName;
     }
 
     private void saveDataEntities(Crate crate, ZipOutputStream zipStream, String prefix) throws IOException {
-        for (DataEntity dataEntity : crate.getAllDataEntities()) {
+        for (DataEntity dataEntity : crate.getDataEntitiesView()) {
             this.saveToStream(dataEntity, zipStream, prefix);
         }
     }
@@ -93,53 +124,77 @@ public class WriteZipStreamStrategy implements
         // write the metadata.json file
         ZipParameters zipParameters = new ZipParameters();
         zipParameters.setFileNameInZip(prefix + "ro-crate-metadata.json");
-        ObjectMapper objectMapper = MyObjectMapper.getMapper();
-        // we create an JsonNode only to have the file written pretty
-        JsonNode node = objectMapper.readTree(crate.getJsonMetadata());
-        String str = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(node);
-        // write the ro-crate-metadata
-
-        byte[] buff = new byte[4096];
-        int readLen;
+        // write the ro-crate-metadata directly into the zip entry
         zipStream.putNextEntry(zipParameters);
-        try (InputStream inputStream = new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8))) {
-            while ((readLen = inputStream.read(buff)) != -1) {
-                zipStream.write(buff, 0, readLen);
-            }
-        }
+        crate.writeJsonMetadata(zipStream, true);
         zipStream.closeEntry();
     }
 
     private void savePreview(Crate crate, ZipOutputStream zipStream, String prefix) throws IOException {
+        Optional<File> maybePreviewFolder = generatePreview(crate);
+        if (maybePreviewFolder.isEmpty()) {
+            return;
+        }
+        File tmpPreviewFolder = maybePreviewFolder.get();
+        try {
+            String[] paths = tmpPreviewFolder.list();
+            if (paths == null) {
+                throw new IOException("No preview files found in temporary folder. Preview generation failed.");
+            }
+            for (String path : paths) {
+                File file = tmpPreviewFolder.toPath().resolve(path).toFile();
+                if (file.isDirectory()) {
+                    ZipStreamUtil.addFolderToZipStream(
+                            zipStream,
+                            file,
+                            prefix + path);
+                } else {
+                    ZipStreamUtil.addFileToZipStream(
+                            zipStream,
+                            file,
+                            prefix + path);
+                }
+            }
+        } finally {
+            deletePreview(tmpPreviewFolder);
+        }
+    }
+
+    /**
+     * Generates the preview of the crate into a new temporary folder.
+     *
+     * @param crate the crate to generate the preview for.
+     * @return the folder containing the preview files, or empty if the crate has no preview.
+     * @throws IOException if the preview could not be generated.
+     */
+    protected Optional<File> generatePreview(Crate crate) throws IOException {
         Optional<CratePreview> preview = Optional.ofNullable(crate.getPreview());
         if (preview.isEmpty()) {
-            return;
+            return Optional.empty();
         }
-        final String ID = UUID.randomUUID().toString();
-        File tmpPreviewFolder = Path.of(TMP_DIR)
-                .resolve(ID)
-                .toFile();
-        FileUtils.forceMkdir(tmpPreviewFolder);
-        FileUtils.forceDeleteOnExit(tmpPreviewFolder);
-
-        preview.get().generate(crate, tmpPreviewFolder);
-        String[] paths = tmpPreviewFolder.list();
-        if (paths == null) {
-            throw new IOException("No preview files found in temporary folder. Preview generation failed.");
+        TempSpace.Lease lease = tempSpace.allocate(TMP_PURPOSE);
+        File tmpPreviewFolder = lease.getFolder().toFile();
+        try {
+            preview.get().generate(crate, tmpPreviewFolder);
+            lease.reserve(FileUtils.sizeOfDirectory(tmpPreviewFolder));
+        } catch (IOException | RuntimeException e) {
+            lease.close();
+            throw e;
         }
-        for (String path : paths) {
-            File file = tmpPreviewFolder.toPath().resolve(path).toFile();
-            if (file.isDirectory()) {
-                ZipStreamUtil.addFolderToZipStream(
-                        zipStream,
-                        file,
-                        prefix + path);
-            } else {
-                ZipStreamUtil.addFileToZipStream(
-                        zipStream,
-                        file,
-                        prefix + path);
-            }
+        previewFolders.put(tmpPreviewFolder, lease);
+        return Optional.of(tmpPreviewFolder);
+    }
+
+    /**
+     * Deletes a folder created by {@link #generatePreview(Crate)}.
+     *
+     * @param tmpPreviewFolder the folder to delete.
+     */
+    protected void deletePreview(File tmpPreviewFolder) {
+        TempSpace.Lease lease = previewFolders.remove(tmpPreviewFolder);
+        if (lease != null) {
+            lease.close();
+            return;
         }
         try {
             FileUtils.forceDelete(tmpPreviewFolder);
@@ -149,20 +204,21 @@ public class WriteZipStreamStrategy implements
     }
 
     private void saveToStream(DataEntity entity, ZipOutputStream zipStream, String prefix) throws IOException {
-        if (entity == null) {
+        if (entity == null || entity.getPath() == null) {
             return;
         }
 
-        boolean isDirectory = entity.getPath().toFile().isDirectory();
+        // the path may be on another file system, e.g. within the zip file the crate was read from
+        boolean isDirectory = Files.isDirectory(entity.getPath());
         if (isDirectory) {
             ZipStreamUtil.addFolderToZipStream(
                     zipStream,
-                    entity.getPath().toFile(),
+                    entity.getPath(),
                     prefix + entity.getId());
         } else {
             ZipStreamUtil.addFileToZipStream(
                     zipStream,
-                    entity.getPath().toFile(),
+                    entity.getPath(),
                     prefix + entity.getId());
         }
     }
@@ -39,4 +39,27 @@ public class Writers {
     public static CrateWriter<String> newZipPathWriter() {
         return new CrateWriter<>(new WriteZipStrategy());
     }
+
+    /**
+     * Creates a new instance of a crate writer that writes to a zip stream,
+     * compressing the files of the crate in parallel.
+     * <p>
+     * Use {@link WriteParallelZipStreamStrategy} directly to configure the
+     * number of threads or the compression per entry.
+     *
+     * @return a new instance of {@link CrateWriter} for writing to a zip stream
+     */
+    public static CrateWriter<OutputStream> newParallelZipStreamWriter() {
+        return new CrateWriter<>(new WriteParallelZipStreamStrategy());
+    }
+
+    /**
+     * Creates a new instance of a crate writer that writes to a zip file,
+     * compressing the files of the crate in parallel.
+     *
+     * @return a new instance of {@link CrateWriter} for writing to a zip file
+     */
+    public static CrateWriter<String> newParallelZipPathWriter() {
+        return new CrateWriter<>(new WriteZipStrategy(new WriteParallelZipStreamStrategy()));
+    }
 }
@@ -0,0 +1,174 @@
+package edu.kit.datamanager.ro_crate.singlecratebenchmarks;
+
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.entities.AbstractEntity;
+import edu.kit.datamanager.ro_crate.entities.contextual.ContextualEntity;
+import edu.kit.datamanager.ro_crate.entities.contextual.OrganizationEntity;
+import edu.kit.datamanager.ro_crate.entities.contextual.PersonEntity;
+import edu.kit.datamanager.ro_crate.entities.contextual.PlaceEntity;
+import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
+import edu.kit.datamanager.ro_crate.entities.data.DataSetEntity;
+import edu.kit.datamanager.ro_crate.entities.data.FileEntity;
+import edu.kit.datamanager.ro_crate.entities.data.WorkflowEntity;
+import edu.kit.datamanager.ro_crate.preview.CratePreview;
+import edu.kit.datamanager.ro_crate.preview.CustomPreview;
+import edu.kit.datamanager.ro_crate.validation.ValidationPolicy;
+
+/**
+ * Crates and parameter values shared by the JMH benchmarks.
+ */
+final class BenchmarkCrates {
+
+    private BenchmarkCrates() {}
+
+    /**
+     * @return a builder for a crate with valid root properties and no entities.
+     */
+    static RoCrate.RoCrateBuilder emptyCrate() {
+        return new RoCrate.RoCrateBuilder(
+                "benchmark", "a crate for benchmarks", "2024-01-01",
+                "https://creativecommons.org/licenses/by/4.0/");
+    }
+
+    /**
+     * @param i the number of the person.
+     * @return a person with a name.
+     */
+    static PersonEntity person(int i) {
+        return new PersonEntity.PersonEntityBuilder()
+                .setId("#person" + i)
+                .addProperty("name", "Person " + i)
+                .build();
+    }
+
+    /**
+     * @param i      the number of the file.
+     * @param author the author of the file, or null.
+     * @return a file without content.
+     */
+    static DataEntity file(int i, PersonEntity author) {
+        return new DataEntity.DataEntityBuilder()
+                .setId("file" + i + ".txt")
+                .addType("File")
+                .addProperty("name", "File " + i)
+                .addIdProperty("author", author)
+                .build();
+    }
+
+    /**
+     * The kinds of entities accepted by {@link #entity(String, int)}, one
+     * for each entity class a crate usually contains many instances of.
+     */
+    static final String[] KINDS = {
+            "contextual", "person", "organization", "place", "data", "file", "dataset", "workflow"};
+
+    /**
+     * Creates a typical entity of the given kind: with a name, and where
+     * applicable a reference to another entity.
+     *
+     * @param kind one of {@link #KINDS}.
+     * @param i    the number of the entity, used for its id.
+     * @return the entity.
+     */
+    static AbstractEntity entity(String kind, int i) {
+        return switch (kind) {
+            case "contextual" -> new ContextualEntity.ContextualEntityBuilder()
+                    .setId("#thing" + i)
+                    .addType("Thing")
+                    .addProperty("name", "Thing " + i)
+                    .build();
+            case "person" -> new PersonEntity.PersonEntityBuilder()
+                    .setId("#person" + i)
+                    .addProperty("name", "Person " + i)
+                    .setAffiliation("#organization")
+                    .build();
+            case "organization" -> new OrganizationEntity.OrganizationEntityBuilder()
+                    .setId("#organization" + i)
+                    .addProperty("name", "Organization " + i)
+                    .setLocationId("#place")
+                    .build();
+            case "place" -> new PlaceEntity.PlaceEntityBuilder()
+                    .setId("#place" + i)
+                    .addProperty("name", "Place " + i)
+                    .setGeo("#geo")
+                    .build();
+            case "data" -> file(i, person(i));
+            case "file" -> new FileEntity.FileEntityBuilder()
+                    .setId("file" + i + ".txt")
+                    .addProperty("name", "File " + i)
+                    .setEncodingFormat("text/plain")
+                    .addIdProperty("author", "#person" + i)
+                    .build();
+            case "dataset" -> new DataSetEntity.DataSetBuilder()
+                    .setId("folder" + i + "/")
+                    .addProperty("name", "Folder " + i)
+                    .addToHasPart("folder" + i + "/a.txt")
+                    .addToHasPart("folder" + i + "/b.txt")
+                    .build();
+            case "workflow" -> new WorkflowEntity.WorkflowEntityBuilder()
+                    .setId("workflow" + i + ".cwl")
+                    .addProperty("name", "Workflow " + i)
+                    .addInput("#input")
+                    .addOutput("#output")
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown kind of entity " + kind);
+        };
+    }
+
+    /**
+     * Adds an entity as data entity or as contextual entity, depending on its
+     * class.
+     *
+     * @param crate  the crate to add the entity to.
+     * @param entity the entity.
+     */
+    static void add(RoCrate crate, AbstractEntity entity) {
+        if (entity instanceof DataEntity data) {
+            crate.addDataEntity(data);
+        } else {
+            crate.addContextualEntity((ContextualEntity) entity);
+        }
+    }
+
+    /**
+     * Creates a crate with the given number of files, each with a person as
+     * author, so it contains twice as many entities.
+     *
+     * @param files   the number of files.
+     * @param preview the preview of the crate, see {@link #preview(String)}.
+     * @return the crate.
+     */
+    static RoCrate createCrate(int files, CratePreview preview) {
+        RoCrate crate = emptyCrate().setPreview(preview).build();
+        for (int i = 0; i < files; i++) {
+            PersonEntity person = person(i);
+            crate.addContextualEntity(person);
+            crate.addDataEntity(file(i, person));
+        }
+        return crate;
+    }
+
+    /**
+     * @param preview "none" or "custom".
+     * @return the preview, or null for "none".
+     */
+    static CratePreview preview(String preview) {
+        return switch (preview) {
+            case "none" -> null;
+            case "custom" -> new CustomPreview();
+            default -> throw new IllegalArgumentException("Unknown preview " + preview);
+        };
+    }
+
+    /**
+     * @param validation "on" or "off".
+     * @return the validation policy for readers and writers.
+     */
+    static ValidationPolicy validation(String validation) {
+        return switch (validation) {
+            case "on" -> ValidationPolicy.ALWAYS;
+            case "off" -> ValidationPolicy.OFF;
+            default -> throw new IllegalArgumentException("Unknown validation " + validation);
+        };
+    }
+}
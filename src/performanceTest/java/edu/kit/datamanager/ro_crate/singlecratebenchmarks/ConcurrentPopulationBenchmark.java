@@ -0,0 +1,72 @@
+package edu.kit.datamanager.ro_crate.singlecratebenchmarks;
+
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.entities.contextual.PersonEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark populating a single crate from several threads at once.
+ * <p>
+ * Each operation creates a crate with a concurrent payload and lets the
+ * given number of threads add files with a person as author each, in total
+ * the given number of files. Comparing the thread counts shows how well
+ * adding entities scales (which requires as many processors).
+ * <p>
+ * Run with {@code gradle performanceBenchmark -Pbenchmarks=ConcurrentPopulationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class ConcurrentPopulationBenchmark {
+
+    @Param({"10000", "100000"})
+    public int files;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void startThreads() {
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopThreads() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public RoCrate populate() throws InterruptedException, ExecutionException {
+        RoCrate crate = BenchmarkCrates.emptyCrate()
+                .useConcurrentPayload()
+                .build();
+        List<Future<?>> results = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            results.add(executor.submit(() -> {
+                for (int i = first; i < files; i += threads) {
+                    PersonEntity person = BenchmarkCrates.person(i);
+                    crate.addContextualEntity(person);
+                    crate.addDataEntity(BenchmarkCrates.file(i, person));
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        return crate;
+    }
+}
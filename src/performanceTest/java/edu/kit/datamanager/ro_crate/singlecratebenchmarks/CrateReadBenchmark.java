@@ -0,0 +1,98 @@
+package edu.kit.datamanager.ro_crate.singlecratebenchmarks;
+
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.reader.Readers;
+import edu.kit.datamanager.ro_crate.validation.ValidationPolicy;
+import edu.kit.datamanager.ro_crate.writer.Writers;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark reading a crate with each of the reader strategies.
+ * <p>
+ * The crate contains the given number of files (without content), each
+ * with a person as author. It is written once as a folder and as a zip
+ * file. The parameters select the reader ("folder", "zip" for a zip file,
+ * "zip-stream" for a zip read from a stream) and whether the crate is
+ * validated after reading. The zip readers extract into a temporary folder,
+ * which is cleaned after each operation.
+ * <p>
+ * See {@link CrateReaderScalingBenchmark} for the tree-based and the
+ * streaming parser with larger crates.
+ * <p>
+ * Run with {@code gradle performanceBenchmark -Pbenchmarks=CrateReadBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class CrateReadBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int files;
+
+    @Param({"folder", "zip", "zip-stream"})
+    public String reader;
+
+    @Param({"on", "off"})
+    public String validation;
+
+    private Path folder;
+    private Path crateFolder;
+    private Path crateZip;
+    private Path extractFolder;
+
+    @Setup(Level.Trial)
+    public void writeCrate() throws IOException {
+        RoCrate crate = BenchmarkCrates.createCrate(files, null);
+        folder = Files.createTempDirectory("ro-crate-java-read");
+        crateFolder = folder.resolve("crate");
+        crateZip = folder.resolve("crate.zip");
+        extractFolder = folder.resolve("extracted");
+        Writers.newFolderWriter()
+                .withValidationPolicy(ValidationPolicy.OFF)
+                .save(crate, crateFolder.toString());
+        Writers.newZipPathWriter()
+                .withValidationPolicy(ValidationPolicy.OFF)
+                .save(crate, crateZip.toString());
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteExtracted() {
+        FileUtils.deleteQuietly(extractFolder.toFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFolder() throws IOException {
+        FileUtils.deleteDirectory(folder.toFile());
+    }
+
+    @Benchmark
+    public RoCrate read() throws IOException {
+        ValidationPolicy policy = BenchmarkCrates.validation(validation);
+        return switch (reader) {
+            case "folder" -> Readers.newFolderReader()
+                    .withValidationPolicy(policy)
+                    .readCrate(crateFolder.toString());
+            case "zip" -> Readers.newZipPathReader(extractFolder, true)
+                    .withValidationPolicy(policy)
+                    .readCrate(crateZip.toString());
+            case "zip-stream" -> {
+                try (InputStream stream = Files.newInputStream(crateZip)) {
+                    yield Readers.newZipStreamReader(extractFolder, true)
+                            .withValidationPolicy(policy)
+                            .readCrate(stream);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown reader " + reader);
+        };
+    }
+}
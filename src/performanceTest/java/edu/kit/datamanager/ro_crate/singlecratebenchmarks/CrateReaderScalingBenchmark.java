@@ -0,0 +1,116 @@
+package edu.kit.datamanager.ro_crate.singlecratebenchmarks;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+import edu.kit.datamanager.ro_crate.reader.Readers;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark reading crates with a growing number of entities.
+ * <p>
+ * Half of the entities are data entities (files without content, listed in
+ * the root entities hasPart), the other half are persons referenced by the
+ * files. If reading is linear in the number of entities, the time per
+ * operation grows by the same factor as the entity count.
+ * <p>
+ * Run with {@code gradle performanceReaderScalingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx8g"})
+public class CrateReaderScalingBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int entities;
+
+    private Path crateFolder;
+
+    @Setup(Level.Trial)
+    public void writeCrate() throws IOException {
+        crateFolder = Files.createTempDirectory("ro-crate-java-reader-scaling");
+        Path metadata = crateFolder.resolve("ro-crate-metadata.json");
+        int files = entities / 2;
+        try (JsonGenerator generator = MyObjectMapper.getMapper().getFactory()
+                .createGenerator(metadata.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("@context", "https://w3id.org/ro/crate/1.1/context");
+            generator.writeArrayFieldStart("@graph");
+
+            generator.writeStartObject();
+            generator.writeStringField("@id", "ro-crate-metadata.json");
+            generator.writeStringField("@type", "CreativeWork");
+            generator.writeObjectFieldStart("about");
+            generator.writeStringField("@id", "./");
+            generator.writeEndObject();
+            generator.writeObjectFieldStart("conformsTo");
+            generator.writeStringField("@id", "https://w3id.org/ro/crate/1.1");
+            generator.writeEndObject();
+            generator.writeEndObject();
+
+            generator.writeStartObject();
+            generator.writeStringField("@id", "./");
+            generator.writeStringField("@type", "Dataset");
+            generator.writeStringField("name", "scaling benchmark");
+            generator.writeStringField("description", "crate with " + entities + " entities");
+            generator.writeStringField("datePublished", "2024-01-01");
+            generator.writeObjectFieldStart("license");
+            generator.writeStringField("@id", "https://creativecommons.org/licenses/by/4.0/");
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("hasPart");
+            for (int i = 0; i < files; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("@id", "file" + i + ".txt");
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+
+            for (int i = 0; i < files; i++) {
+                generator.writeStartObject();
+                generator.writeStringField("@id", "file" + i + ".txt");
+                generator.writeStringField("@type", "File");
+                generator.writeStringField("name", "File " + i);
+                generator.writeObjectFieldStart("author");
+                generator.writeStringField("@id", "#person" + i);
+                generator.writeEndObject();
+                generator.writeEndObject();
+
+                generator.writeStartObject();
+                generator.writeStringField("@id", "#person" + i);
+                generator.writeStringField("@type", "Person");
+                generator.writeStringField("name", "Person " + i);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCrate() throws IOException {
+        FileUtils.deleteDirectory(crateFolder.toFile());
+    }
+
+    @Benchmark
+    public RoCrate readTree() throws IOException {
+        return Readers.newFolderReader().readCrate(crateFolder.toString());
+    }
+
+    @Benchmark
+    public RoCrate readStreaming() throws IOException {
+        return Readers.newFolderReader()
+                .usingStreamingParser(true)
+                .readCrate(crateFolder.toString());
+    }
+}
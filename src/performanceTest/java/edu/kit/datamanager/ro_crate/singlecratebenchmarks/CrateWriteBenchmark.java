@@ -0,0 +1,87 @@
+package edu.kit.datamanager.ro_crate.singlecratebenchmarks;
+
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.writer.Writers;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark writing a crate with each of the writer strategies.
+ * <p>
+ * The crate contains the given number of files (without content), each
+ * with a person as author. It is written to a fresh destination in a
+ * temporary folder, which is deleted after each operation. The parameters
+ * select the writer ("folder", "zip" for a zip file, "zip-stream" for a zip
+ * written to a stream), whether the crate is validated before writing, and
+ * the preview ("none" or the "custom" HTML preview).
+ * <p>
+ * Run with {@code gradle performanceBenchmark -Pbenchmarks=CrateWriteBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class CrateWriteBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int files;
+
+    @Param({"folder", "zip", "zip-stream"})
+    public String writer;
+
+    @Param({"on", "off"})
+    public String validation;
+
+    @Param({"none", "custom"})
+    public String preview;
+
+    private RoCrate crate;
+    private Path folder;
+    private Path destination;
+
+    @Setup(Level.Trial)
+    public void createCrate() throws IOException {
+        crate = BenchmarkCrates.createCrate(files, BenchmarkCrates.preview(preview));
+        folder = Files.createTempDirectory("ro-crate-java-write");
+        destination = folder.resolve(writer.equals("folder") ? "crate" : "crate.zip");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteDestination() throws IOException {
+        FileUtils.deleteQuietly(destination.toFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFolder() throws IOException {
+        FileUtils.deleteDirectory(folder.toFile());
+    }
+
+    @Benchmark
+    public Path write() throws IOException {
+        switch (writer) {
+            case "folder" -> Writers.newFolderWriter()
+                    .withValidationPolicy(BenchmarkCrates.validation(validation))
+                    .save(crate, destination.toString());
+            case "zip" -> Writers.newZipPathWriter()
+                    .withValidationPolicy(BenchmarkCrates.validation(validation))
+                    .save(crate, destination.toString());
+            case "zip-stream" -> {
+                try (OutputStream stream = Files.newOutputStream(destination)) {
+                    Writers.newZipStreamWriter()
+                            .withValidationPolicy(BenchmarkCrates.validation(validation))
+                            .save(crate, stream);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown writer " + writer);
+        }
+        return destination;
+    }
+}
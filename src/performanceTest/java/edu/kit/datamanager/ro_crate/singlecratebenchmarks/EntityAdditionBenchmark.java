@@ -0,0 +1,72 @@
+package edu.kit.datamanager.ro_crate.singlecratebenchmarks;
+
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.entities.contextual.PersonEntity;
+import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark building a crate entity by entity.
+ * <p>
+ * Each operation creates a new crate with the given number of entities:
+ * persons ({@code addContextualEntities}), files without content
+ * ({@code addDataEntities}), files with an URL as id
+ * ({@code addRemoteDataEntities}) or files with a person as author each
+ * ({@code addMixedEntities}, twice as many entities).
+ * <p>
+ * Run with {@code gradle performanceBenchmark -Pbenchmarks=EntityAdditionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class EntityAdditionBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int entities;
+
+    @Benchmark
+    public RoCrate addContextualEntities() {
+        RoCrate crate = BenchmarkCrates.emptyCrate().build();
+        for (int i = 0; i < entities; i++) {
+            crate.addContextualEntity(BenchmarkCrates.person(i));
+        }
+        return crate;
+    }
+
+    @Benchmark
+    public RoCrate addDataEntities() {
+        RoCrate crate = BenchmarkCrates.emptyCrate().build();
+        for (int i = 0; i < entities; i++) {
+            crate.addDataEntity(BenchmarkCrates.file(i, null));
+        }
+        return crate;
+    }
+
+    @Benchmark
+    public RoCrate addRemoteDataEntities() {
+        RoCrate crate = BenchmarkCrates.emptyCrate().build();
+        for (int i = 0; i < entities; i++) {
+            crate.addDataEntity(new DataEntity.DataEntityBuilder()
+                    .setId("https://www.example.com/file" + i)
+                    .addType("File")
+                    .build());
+        }
+        return crate;
+    }
+
+    @Benchmark
+    public RoCrate addMixedEntities() {
+        RoCrate crate = BenchmarkCrates.emptyCrate().build();
+        for (int i = 0; i < entities; i++) {
+            PersonEntity person = BenchmarkCrates.person(i);
+            crate.addContextualEntity(person);
+            crate.addDataEntity(BenchmarkCrates.file(i, person));
+        }
+        return crate;
+    }
+}
@@ -0,0 +1,105 @@
+package edu.kit.datamanager.ro_crate.singlecratebenchmarks;
+
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.reader.Readers;
+import edu.kit.datamanager.ro_crate.validation.ValidationPolicy;
+import edu.kit.datamanager.ro_crate.writer.Writers;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the memory allocated per entity when adding entities
+ * to a crate, serializing the metadata and reading a crate.
+ * <p>
+ * Each operation handles {@value #ENTITIES} entities of the given kind (see
+ * {@link BenchmarkCrates#KINDS}), and the results are normalized per
+ * entity. Run it with the GC profiler, whose {@code gc.alloc.rate.norm}
+ * shows the allocated bytes per entity:
+ * <ul>
+ *   <li>{@code createEntity}: building an entity,</li>
+ *   <li>{@code addEntity}: building an entity and adding it to a new crate,
+ *   so the difference to {@code createEntity} is the cost of adding it
+ *   (the profiler counts the allocations of setup methods as well, which
+ *   is why the entities are not built beforehand),</li>
+ *   <li>{@code getJsonMetadata}: serializing the metadata of a crate whose
+ *   entities were serialized before (the serialization of unchanged
+ *   entities is cached),</li>
+ *   <li>{@code readCrate}: reading a crate from a folder, without
+ *   validation.</li>
+ * </ul>
+ * See {@link EntityFootprint} for the retained heap per entity.
+ * <p>
+ * Run with {@code gradle performanceEntityAllocationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class EntityAllocationBenchmark {
+
+    static final int ENTITIES = 1000;
+
+    @Param({"contextual", "person", "organization", "place", "data", "file", "dataset", "workflow"})
+    public String kind;
+
+    private RoCrate fullCrate;
+    private Path folder;
+
+    @Setup(Level.Trial)
+    public void createCrate() throws IOException {
+        fullCrate = BenchmarkCrates.emptyCrate().setPreview(null).build();
+        for (int i = 0; i < ENTITIES; i++) {
+            BenchmarkCrates.add(fullCrate, BenchmarkCrates.entity(kind, i));
+        }
+        fullCrate.getJsonMetadata();
+        folder = Files.createTempDirectory("ro-crate-java-allocation");
+        Writers.newFolderWriter()
+                .withValidationPolicy(ValidationPolicy.OFF)
+                .save(fullCrate, folder.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFolder() throws IOException {
+        FileUtils.deleteDirectory(folder.toFile());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES)
+    public void createEntity(Blackhole blackhole) {
+        for (int i = 0; i < ENTITIES; i++) {
+            blackhole.consume(BenchmarkCrates.entity(kind, i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES)
+    public RoCrate addEntity() {
+        RoCrate crate = BenchmarkCrates.emptyCrate().setPreview(null).build();
+        for (int i = 0; i < ENTITIES; i++) {
+            BenchmarkCrates.add(crate, BenchmarkCrates.entity(kind, i));
+        }
+        return crate;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES)
+    public String getJsonMetadata() {
+        return fullCrate.getJsonMetadata();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES)
+    public RoCrate readCrate() throws IOException {
+        return Readers.newFolderReader()
+                .withValidationPolicy(ValidationPolicy.OFF)
+                .readCrate(folder.toString());
+    }
+}
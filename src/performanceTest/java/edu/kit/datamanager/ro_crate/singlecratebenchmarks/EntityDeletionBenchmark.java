@@ -0,0 +1,56 @@
+package edu.kit.datamanager.ro_crate.singlecratebenchmarks;
+
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.entities.AbstractEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark deleting all entities of a crate, one by one or with a
+ * single call.
+ * <p>
+ * The crate contains the given number of files, each with a person as
+ * author. It is created before each operation, so only the deletion is
+ * measured.
+ * <p>
+ * Run with {@code gradle performanceBenchmark -Pbenchmarks=EntityDeletionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class EntityDeletionBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int files;
+
+    private RoCrate crate;
+    private List<String> ids;
+
+    @Setup(Level.Invocation)
+    public void createCrate() {
+        crate = BenchmarkCrates.createCrate(files, null);
+        ids = new ArrayList<>(2 * files);
+        crate.getAllContextualEntities().stream().map(AbstractEntity::getId).forEach(ids::add);
+        crate.getAllDataEntities().stream().map(AbstractEntity::getId).forEach(ids::add);
+    }
+
+    @Benchmark
+    public RoCrate deleteOneByOne() {
+        for (String id : ids) {
+            crate.deleteEntityById(id);
+        }
+        return crate;
+    }
+
+    @Benchmark
+    public RoCrate deleteAtOnce() {
+        crate.deleteEntitiesById(ids);
+        return crate;
+    }
+}
@@ -0,0 +1,76 @@
+package edu.kit.datamanager.ro_crate.singlecratebenchmarks;
+
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.entities.AbstractEntity;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * Measures the heap retained per entity, for each kind of entity (see
+ * {@link BenchmarkCrates#KINDS}), by walking the object graph with JOL.
+ * <p>
+ * For each kind, it reports the size of a single entity on its own, and
+ * the bytes an entity adds to a crate: the size of a crate with
+ * {@value #ENTITIES} entities minus the size of an empty crate, divided by
+ * the number of entities. The latter includes the indexes of the crate and
+ * the strings shared with other entities (such as interned types) only
+ * once. With {@code -v}, it also prints the field layout of each entity
+ * class.
+ * <p>
+ * The results are appended to {@code footprint_java.txt} as
+ * {@code kind,entity bytes,bytes in crate}.
+ * <p>
+ * See {@link EntityAllocationBenchmark} for the memory allocated per entity.
+ * <p>
+ * Run with {@code gradle performanceEntityFootprint}.
+ */
+public class EntityFootprint {
+
+    static final int ENTITIES = 1000;
+
+    /**
+     * The main file of the benchmark from which it should be run.
+     *
+     * @param args optionally contains {@code -v} to print the class layouts.
+     * @throws IOException if writing the results fails.
+     */
+    public static void main(String[] args) throws IOException {
+        boolean verbose = args.length > 0 && args[0].equals("-v");
+        long empty = GraphLayout.parseInstance(emptyCrate()).totalSize();
+        System.out.printf("%-14s %14s %16s%n", "kind", "entity bytes", "bytes in crate");
+        StringBuilder results = new StringBuilder();
+        for (String kind : BenchmarkCrates.KINDS) {
+            AbstractEntity entity = BenchmarkCrates.entity(kind, 0);
+            long entityBytes = GraphLayout.parseInstance(entity).totalSize();
+
+            RoCrate crate = emptyCrate();
+            for (int i = 0; i < ENTITIES; i++) {
+                BenchmarkCrates.add(crate, BenchmarkCrates.entity(kind, i));
+            }
+            long crateBytes = (GraphLayout.parseInstance(crate).totalSize() - empty) / ENTITIES;
+
+            System.out.printf("%-14s %14d %16d%n", kind, entityBytes, crateBytes);
+            if (verbose) {
+                System.out.println(ClassLayout.parseInstance(entity).toPrintable());
+                System.out.println(GraphLayout.parseInstance(entity).toFootprint());
+            }
+            results.append(kind).append(',')
+                    .append(entityBytes).append(',')
+                    .append(crateBytes).append('\n');
+        }
+        FileUtils.writeStringToFile(
+                new File("footprint_java.txt"),
+                results.toString(),
+                Charset.defaultCharset(),
+                true);
+    }
+
+    private static RoCrate emptyCrate() {
+        return BenchmarkCrates.emptyCrate().setPreview(null).build();
+    }
+}
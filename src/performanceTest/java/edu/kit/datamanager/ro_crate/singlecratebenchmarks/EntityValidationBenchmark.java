@@ -0,0 +1,86 @@
+package edu.kit.datamanager.ro_crate.singlecratebenchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.datamanager.ro_crate.entities.AbstractEntity;
+import edu.kit.datamanager.ro_crate.entities.contextual.ContextualEntity;
+import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
+import edu.kit.datamanager.ro_crate.entities.validation.FlatStructureValidation;
+import edu.kit.datamanager.ro_crate.entities.validation.JsonSchemaValidation;
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark constructing entities with the structural validation and
+ * with the validation using JSON schemas.
+ * <p>
+ * {@code buildWithProperties} adds properties one by one (validating each
+ * value), {@code buildFromJson} sets all properties at once like the
+ * {@link edu.kit.datamanager.ro_crate.reader.CrateReader} does for every
+ * element of the graph (validating the whole entity).
+ * <p>
+ * Run with {@code gradle performanceEntityValidationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityValidationBenchmark {
+
+    @Param({"flat", "schema"})
+    public String validation;
+
+    private JsonNode author;
+    private JsonNode keywords;
+    private ObjectNode entityJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AbstractEntity.setEntityValidationStrategy(
+                "schema".equals(validation) ? new JsonSchemaValidation() : new FlatStructureValidation());
+        ObjectMapper objectMapper = MyObjectMapper.getMapper();
+        author = objectMapper.createObjectNode().put("@id", "#person");
+        keywords = objectMapper.createArrayNode().add("one").add("two").add("three");
+        entityJson = objectMapper.createObjectNode()
+                .put("@id", "file.txt")
+                .put("@type", "File")
+                .put("name", "a file")
+                .put("contentSize", 1024)
+                .put("encodingFormat", "text/plain");
+        entityJson.set("author", author);
+        entityJson.set("keywords", keywords);
+        entityJson.set("isPartOf", objectMapper.createArrayNode()
+                .add(objectMapper.createObjectNode().put("@id", "./"))
+                .add(objectMapper.createObjectNode().put("@id", "set/")));
+    }
+
+    @TearDown(Level.Trial)
+    public void resetValidation() {
+        AbstractEntity.setEntityValidationStrategy(new FlatStructureValidation());
+    }
+
+    @Benchmark
+    public DataEntity buildWithProperties() {
+        DataEntity entity = new DataEntity.DataEntityBuilder()
+                .setId("file.txt")
+                .addType("File")
+                .build();
+        entity.addProperty("author", author);
+        entity.addProperty("keywords", keywords);
+        entity.addProperty("name", MyObjectMapper.getMapper().getNodeFactory().textNode("a file"));
+        entity.addProperty("contentSize", MyObjectMapper.getMapper().getNodeFactory().numberNode(1024));
+        return entity;
+    }
+
+    @Benchmark
+    public ContextualEntity buildFromJson() {
+        return new ContextualEntity.ContextualEntityBuilder()
+                .setAllUnsafe(entityJson.deepCopy())
+                .build();
+    }
+}
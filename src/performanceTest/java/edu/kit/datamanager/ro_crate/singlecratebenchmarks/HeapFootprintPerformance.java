@@ -0,0 +1,146 @@
+package edu.kit.datamanager.ro_crate.singlecratebenchmarks;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+import edu.kit.datamanager.ro_crate.reader.Readers;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures the heap retained by a crate after reading it.
+ * <p>
+ * The crate consists of files in folders of 100 files each, and one person
+ * per file as author. The retained heap is measured as the difference of
+ * the used heap after garbage collection, before and after reading.
+ * <p>
+ * Run with {@code gradle performanceHeapFootprintBenchmark}. For large
+ * crates, give the JVM enough heap, e.g. {@code -Xmx8g}.
+ */
+public class HeapFootprintPerformance {
+
+  private static final int FILES_PER_FOLDER = 100;
+
+  /**
+   * The main file of the benchmark from which it should be run.
+   *
+   * @param args optionally contains the number of files (default: 100000).
+   *             The crate contains twice as many entities plus the folders.
+   * @throws IOException if writing or reading the crate fails.
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int files = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    Path crateFolder = Files.createTempDirectory("ro-crate-java-heap");
+    try {
+      writeCrate(crateFolder, files);
+      long before = usedHeap();
+      RoCrate crate = Readers.newFolderReader().readCrate(crateFolder.toString());
+      long after = usedHeap();
+      int entities = crate.getAllDataEntities().size() + crate.getAllContextualEntities().size();
+      long retained = after - before;
+      System.out.println("entities: " + entities);
+      System.out.println("retained heap: " + retained / (1024 * 1024) + " MiB");
+      System.out.println("bytes per entity: " + retained / entities);
+      FileUtils.writeStringToFile(
+          new File("heap_java.txt"),
+          entities + "," + retained + '\n',
+          Charset.defaultCharset(),
+          true);
+    } finally {
+      FileUtils.deleteDirectory(crateFolder.toFile());
+    }
+  }
+
+  private static long usedHeap() throws InterruptedException {
+    Runtime runtime = Runtime.getRuntime();
+    long used = Long.MAX_VALUE;
+    // collect until the used heap does not shrink anymore
+    for (int i = 0; i < 10; i++) {
+      System.gc();
+      Thread.sleep(100);
+      long now = runtime.totalMemory() - runtime.freeMemory();
+      if (now >= used) {
+        return now;
+      }
+      used = now;
+    }
+    return used;
+  }
+
+  private static void writeCrate(Path crateFolder, int files) throws IOException {
+    Path metadata = crateFolder.resolve("ro-crate-metadata.json");
+    int folders = (files + FILES_PER_FOLDER - 1) / FILES_PER_FOLDER;
+    try (JsonGenerator generator = MyObjectMapper.getMapper().getFactory()
+        .createGenerator(metadata.toFile(), JsonEncoding.UTF8)) {
+      generator.writeStartObject();
+      generator.writeStringField("@context", "https://w3id.org/ro/crate/1.1/context");
+      generator.writeArrayFieldStart("@graph");
+
+      generator.writeStartObject();
+      generator.writeStringField("@id", "ro-crate-metadata.json");
+      generator.writeStringField("@type", "CreativeWork");
+      writeReference(generator, "about", "./");
+      writeReference(generator, "conformsTo", "https://w3id.org/ro/crate/1.1");
+      generator.writeEndObject();
+
+      generator.writeStartObject();
+      generator.writeStringField("@id", "./");
+      generator.writeStringField("@type", "Dataset");
+      generator.writeStringField("name", "heap benchmark");
+      generator.writeStringField("description", "crate with " + files + " files");
+      generator.writeStringField("datePublished", "2024-01-01");
+      writeReference(generator, "license", "https://creativecommons.org/licenses/by/4.0/");
+      generator.writeArrayFieldStart("hasPart");
+      for (int f = 0; f < folders; f++) {
+        generator.writeStartObject();
+        generator.writeStringField("@id", "folder" + f + "/");
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+
+      for (int f = 0; f < folders; f++) {
+        generator.writeStartObject();
+        generator.writeStringField("@id", "folder" + f + "/");
+        generator.writeStringField("@type", "Dataset");
+        generator.writeArrayFieldStart("hasPart");
+        for (int i = f * FILES_PER_FOLDER; i < Math.min(files, (f + 1) * FILES_PER_FOLDER); i++) {
+          generator.writeStartObject();
+          generator.writeStringField("@id", "folder" + f + "/file" + i + ".txt");
+          generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+      }
+
+      for (int i = 0; i < files; i++) {
+        generator.writeStartObject();
+        generator.writeStringField("@id", "folder" + (i / FILES_PER_FOLDER) + "/file" + i + ".txt");
+        generator.writeStringField("@type", "File");
+        generator.writeStringField("name", "File " + i);
+        writeReference(generator, "author", "#person" + i);
+        generator.writeEndObject();
+
+        generator.writeStartObject();
+        generator.writeStringField("@id", "#person" + i);
+        generator.writeStringField("@type", "Person");
+        generator.writeStringField("name", "Person " + i);
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+  }
+
+  private static void writeReference(JsonGenerator generator, String property, String id) throws IOException {
+    generator.writeObjectFieldStart(property);
+    generator.writeStringField("@id", id);
+    generator.writeEndObject();
+  }
+}
@@ -0,0 +1,150 @@
+package edu.kit.datamanager.ro_crate.batch;
+
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.entities.contextual.PersonEntity;
+import edu.kit.datamanager.ro_crate.reader.Readers;
+import edu.kit.datamanager.ro_crate.writer.Writers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrateBatchProcessorTest {
+
+    private static List<String> writeCrates(Path folder, int count) throws IOException {
+        List<String> locations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            RoCrate crate = new RoCrate.RoCrateBuilder(
+                    "crate " + i, "a crate of a batch", "2024-01-01",
+                    "https://creativecommons.org/licenses/by/4.0/")
+                    .addContextualEntity(new PersonEntity.PersonEntityBuilder()
+                            .setId("#person" + i)
+                            .addProperty("name", "Person " + i)
+                            .build())
+                    .build();
+            String location = folder.resolve("crate" + i).toString();
+            Writers.newFolderWriter().save(crate, location);
+            locations.add(location);
+        }
+        return locations;
+    }
+
+    @Test
+    void testProcessFoldersToZips(@TempDir Path temp) throws IOException, InterruptedException {
+        List<String> folders = writeCrates(temp, 10);
+
+        BatchReport<String> report = new CrateBatchProcessor<>(
+                Readers::newFolderReader,
+                Writers::newZipPathWriter,
+                folder -> folder + ".zip")
+                .withTransformation(crate -> {
+                    crate.getRootDataEntity().addProperty("keywords", "converted");
+                    return crate;
+                })
+                .withParallelism(3)
+                .process(folders.stream());
+
+        assertTrue(report.isSuccessful());
+        assertEquals(10, report.processed());
+        assertTrue(report.bytes() > 0);
+        assertTrue(report.cratesPerSecond() > 0);
+        assertTrue(report.bytesPerSecond() > 0);
+        for (int i = 0; i < 10; i++) {
+            RoCrate crate = Readers.newZipPathReader(temp.resolve("extracted"), true)
+                    .readCrate(folders.get(i) + ".zip");
+            assertEquals("converted", crate.getRootDataEntity().getProperty("keywords").asText());
+            assertNotNull(crate.getContextualEntityById("#person" + i));
+        }
+    }
+
+    @Test
+    void testFailuresAreIsolated(@TempDir Path temp) throws IOException, InterruptedException {
+        List<String> sources = new ArrayList<>(writeCrates(temp, 4));
+        String missing = temp.resolve("missing").toString();
+        sources.add(2, missing);
+
+        BatchReport<String> report = new CrateBatchProcessor<>(
+                Readers::newFolderReader,
+                Writers::newFolderWriter,
+                folder -> folder + "-copy")
+                .withParallelism(2)
+                .process(sources.stream());
+
+        assertFalse(report.isSuccessful());
+        assertEquals(4, report.processed());
+        assertEquals(1, report.failures().size());
+        assertEquals(missing, report.failures().get(0).source());
+        assertNotNull(report.failures().get(0).exception());
+        assertTrue(temp.resolve("crate3-copy").resolve("ro-crate-metadata.json").toFile().isFile());
+    }
+
+    @Test
+    void testParallelismLimitsCratesInFlight(@TempDir Path temp) throws IOException, InterruptedException {
+        List<String> folders = writeCrates(temp, 12);
+        AtomicInteger taken = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            BatchReport<String> report = new CrateBatchProcessor<>(
+                    Readers::newFolderReader,
+                    Writers::newFolderWriter,
+                    folder -> folder + "-copy")
+                    .withParallelism(2)
+                    .withExecutor(executor)
+                    .withTransformation(crate -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        running.decrementAndGet();
+                        done.incrementAndGet();
+                        return crate;
+                    })
+                    .process(folders.stream()
+                            .peek(folder -> maxAhead.accumulateAndGet(
+                                    taken.incrementAndGet() - done.get(), Math::max)));
+
+            assertEquals(12, report.processed());
+            assertTrue(maxRunning.get() <= 2);
+            assertTrue(maxAhead.get() <= 2);
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testEmptyBatch() throws InterruptedException {
+        BatchReport<String> report = new CrateBatchProcessor<>(
+                Readers::newFolderReader,
+                Writers::newFolderWriter,
+                folder -> folder + "-copy")
+                .process(Stream.empty());
+        assertTrue(report.isSuccessful());
+        assertEquals(0, report.processed());
+        assertEquals(0, report.bytes());
+    }
+
+    @Test
+    void testInvalidParallelism() {
+        CrateBatchProcessor<String, String> processor = new CrateBatchProcessor<>(
+                Readers::newFolderReader,
+                Writers::newFolderWriter,
+                folder -> folder + "-copy");
+        assertThrows(IllegalArgumentException.class, () -> processor.withParallelism(0));
+    }
+}
@@ -0,0 +1,188 @@
+package edu.kit.datamanager.ro_crate.context;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextDocumentLoaderTest {
+
+  private static final String CONTEXT_URL = "https://example.org/context";
+
+  @AfterEach
+  void resetLoader() {
+    RoCrateMetadataContext.setContextDocumentLoader(RoCrateMetadataContext.createDefaultDocumentLoader());
+  }
+
+  private static JsonNode contextDocument(String key, String value) {
+    ObjectNode document = MyObjectMapper.getMapper().createObjectNode();
+    document.putObject("@context").put(key, value);
+    return document;
+  }
+
+  @Test
+  void testBundledDefaultContext() throws IOException {
+    JsonNode document = ClasspathContextLoader.withDefaults().load(RoCrateMetadataContext.DEFAULT_CONTEXT);
+    assertTrue(document.get("@context").has("Dataset"));
+    assertThrows(FileNotFoundException.class, () -> ClasspathContextLoader.withDefaults().load(CONTEXT_URL));
+  }
+
+  @Test
+  void testFileLoaderIsUsedByContext(@TempDir Path temp) throws IOException {
+    Path file = temp.resolve("context.json");
+    Files.writeString(file, contextDocument("localTerm", "https://example.org/localTerm").toString());
+    RoCrateMetadataContext.setContextDocumentLoader(new FileContextLoader().withFile(CONTEXT_URL, file));
+
+    RoCrateMetadataContext context = new RoCrateMetadataContext(List.of(CONTEXT_URL));
+    assertEquals("https://example.org/localTerm", context.getValueOf("localTerm"));
+  }
+
+  @Test
+  void testOrElseUsesFallback() throws IOException {
+    ContextDocumentLoader failing = url -> {
+      throw new FileNotFoundException(url);
+    };
+    JsonNode expected = contextDocument("a", "b");
+    assertEquals(expected, failing.orElse(url -> expected).load(CONTEXT_URL));
+
+    IOException e = assertThrows(IOException.class, () -> failing.orElse(failing).load(CONTEXT_URL));
+    assertEquals(1, e.getSuppressed().length);
+  }
+
+  @Test
+  void testCachingLoadsOnce() throws IOException {
+    AtomicInteger loads = new AtomicInteger();
+    CachingContextLoader loader = new CachingContextLoader(url -> {
+      loads.incrementAndGet();
+      return contextDocument("url", url);
+    }, 2);
+
+    JsonNode first = loader.load("a");
+    assertSame(first, loader.load("a"));
+    assertEquals(1, loads.get());
+
+    // "a" was used last, so "b" is evicted when adding "c"
+    loader.load("b");
+    loader.load("a");
+    loader.load("c");
+    assertEquals(2, loader.size());
+    assertEquals(3, loads.get());
+    loader.load("a");
+    assertEquals(3, loads.get());
+    loader.load("b");
+    assertEquals(4, loads.get());
+  }
+
+  @Test
+  void testCachingDoesNotCacheFailures() {
+    AtomicInteger loads = new AtomicInteger();
+    CachingContextLoader loader = new CachingContextLoader(url -> {
+      loads.incrementAndGet();
+      throw new IOException("offline");
+    }, 2);
+    assertThrows(IOException.class, () -> loader.load("a"));
+    assertThrows(IOException.class, () -> loader.load("a"));
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void testConcurrentRequestsShareOneLoad() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CachingContextLoader loader = new CachingContextLoader(url -> {
+      loads.incrementAndGet();
+      started.countDown();
+      try {
+        assertTrue(release.await(10, TimeUnit.SECONDS));
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      }
+      return contextDocument("url", url);
+    }, 2);
+
+    int threads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<JsonNode>> results = new ArrayList<>();
+      results.add(executor.submit(() -> loader.load("a")));
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+      for (int i = 1; i < threads; i++) {
+        results.add(executor.submit(() -> loader.load("a")));
+      }
+      // give the other threads time to wait for the running load
+      Thread.sleep(100);
+      release.countDown();
+      JsonNode first = results.get(0).get(10, TimeUnit.SECONDS);
+      for (Future<JsonNode> result : results) {
+        assertSame(first, result.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void testHttpLoaderRevalidatesPersistedDocument(@TempDir Path temp) throws IOException {
+    byte[] body = contextDocument("remoteTerm", "https://example.org/remoteTerm").toString()
+        .getBytes(StandardCharsets.UTF_8);
+    AtomicInteger fullResponses = new AtomicInteger();
+    AtomicInteger notModified = new AtomicInteger();
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/context", exchange -> {
+      if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        notModified.incrementAndGet();
+        exchange.sendResponseHeaders(304, -1);
+      } else {
+        fullResponses.incrementAndGet();
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+      }
+      exchange.close();
+    });
+    server.start();
+    String url = "http://localhost:" + server.getAddress().getPort() + "/context";
+    Path cacheFolder = temp.resolve("contexts");
+    try {
+      HttpContextLoader loader = new HttpContextLoader().withCacheFolder(cacheFolder);
+      assertEquals("https://example.org/remoteTerm", loader.load(url).get("@context").get("remoteTerm").asText());
+      assertEquals("https://example.org/remoteTerm", loader.load(url).get("@context").get("remoteTerm").asText());
+      assertEquals(1, fullResponses.get());
+      assertEquals(1, notModified.get());
+    } finally {
+      server.stop(0);
+    }
+
+    // the server is gone, but the persisted document is still available
+    HttpContextLoader offline = new HttpContextLoader().withCacheFolder(cacheFolder);
+    assertEquals("https://example.org/remoteTerm", offline.load(url).get("@context").get("remoteTerm").asText());
+    assertThrows(IOException.class, () -> new HttpContextLoader().load(url));
+  }
+}
@@ -303,4 +303,55 @@ public class RoCrateMetadataContextTest {
     // Then we expect this to work
     assertTrue(context.checkEntity(entity));
   }
+
+  @Test
+  void checkEntity_afterChangingContext_usesCurrentContext() {
+    DataEntity entity = new DataEntity.DataEntityBuilder()
+            .addType("CustomType")
+            .addProperty("customProperty", "value")
+            .build();
+    assertFalse(this.context.checkEntity(entity));
+
+    this.context.addToContext("CustomType", "https://example.org/CustomType");
+    this.context.addToContext("customProperty", "https://example.org/customProperty");
+    assertTrue(this.context.checkEntity(entity));
+    // repeated checks give the same result
+    assertTrue(this.context.checkEntity(entity));
+
+    this.context.deleteValuePairFromContext("customProperty");
+    assertFalse(this.context.checkEntity(entity));
+  }
+
+  @Test
+  void checkEntity_withPrefixContainingColon_succeeds() {
+    this.context.addToContext("ex:sub", "https://example.org/sub/");
+    DataEntity entity = new DataEntity.DataEntityBuilder()
+            .addProperty("ex:sub:name", "value")
+            .build();
+    assertTrue(this.context.checkEntity(entity));
+
+    DataEntity unknownPrefix = new DataEntity.DataEntityBuilder()
+            .addProperty("ex:other:name", "value")
+            .build();
+    assertFalse(this.context.checkEntity(unknownPrefix));
+  }
+
+  @Test
+  void checkEntities_checksEachTermOnce() {
+    List<AbstractEntity> entities = List.of(
+        new DataEntity.DataEntityBuilder().addType("File").addProperty("name", "a").build(),
+        new DataEntity.DataEntityBuilder().addType("File").addProperty("name", "b").build());
+    assertTrue(this.context.checkEntities(entities));
+
+    List<AbstractEntity> withUnknown = List.of(
+        new DataEntity.DataEntityBuilder().addType("File").build(),
+        new DataEntity.DataEntityBuilder().addProperty("unknownTerm", "b").build());
+    assertFalse(this.context.checkEntities(withUnknown));
+
+    // "@id" as a type refers to the id of each entity
+    List<AbstractEntity> idTypes = List.of(
+        new DataEntity.DataEntityBuilder().setId("Airline").addType("@id").build(),
+        new DataEntity.DataEntityBuilder().setId("NotInTheContext").addType("@id").build());
+    assertFalse(this.context.checkEntities(idTypes));
+  }
 }
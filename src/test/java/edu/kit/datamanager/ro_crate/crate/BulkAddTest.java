@@ -0,0 +1,104 @@
+package edu.kit.datamanager.ro_crate.crate;
+
+import edu.kit.datamanager.ro_crate.BulkOptions;
+import edu.kit.datamanager.ro_crate.HelpFunctions;
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.entities.AbstractEntity;
+import edu.kit.datamanager.ro_crate.entities.contextual.PersonEntity;
+import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
+import edu.kit.datamanager.ro_crate.entities.data.DataSetEntity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkAddTest {
+
+  private static List<AbstractEntity> createEntities(int files) {
+    List<AbstractEntity> entities = new ArrayList<>();
+    for (int i = 0; i < files; i++) {
+      PersonEntity person = new PersonEntity.PersonEntityBuilder()
+          .setId("#person" + i)
+          .addProperty("name", "Person " + i)
+          .build();
+      entities.add(person);
+      entities.add(new DataEntity.DataEntityBuilder()
+          .setId("file" + i)
+          .addType("File")
+          .addIdProperty("author", person.getId())
+          .build());
+    }
+    return entities;
+  }
+
+  @Test
+  void testAddAllEqualsAddingOneByOne() throws JsonProcessingException {
+    RoCrate bulk = new RoCrate();
+    bulk.addAll(createEntities(10), BulkOptions.defaults());
+
+    RoCrate single = new RoCrate();
+    for (AbstractEntity entity : createEntities(10)) {
+      if (entity instanceof DataEntity data) {
+        single.addDataEntity(data);
+      } else {
+        single.addContextualEntity((PersonEntity) entity);
+      }
+    }
+    HelpFunctions.compareTwoCrateJson(bulk, single);
+    assertEquals(10, bulk.getRootDataEntity().hasPart.size());
+  }
+
+  @Test
+  void testAddAllToDataset() {
+    RoCrate crate = new RoCrate();
+    crate.addDataEntity(new DataSetEntity.DataSetBuilder().setId("folder/").build());
+    crate.addAll(createEntities(3), BulkOptions.defaults().withParentId("folder/"));
+
+    DataSetEntity folder = crate.getDataSetById("folder/").orElseThrow();
+    assertEquals(3, folder.hasPart.size());
+    assertTrue(folder.hasPart("file2"));
+    assertFalse(crate.getRootDataEntity().hasPart("file2"));
+    // the references of the parent are indexed
+    crate.deleteEntityById("file2");
+    assertFalse(folder.hasPart("file2"));
+  }
+
+  @Test
+  void testAddAllWithoutParent() {
+    RoCrate crate = new RoCrate();
+    crate.addAll(createEntities(3), BulkOptions.defaults().withParentId(null).withContextCheck(false));
+    assertEquals(3, crate.getAllDataEntities().size());
+    assertTrue(crate.getRootDataEntity().hasPart.isEmpty());
+  }
+
+  @Test
+  void testAddAllWithInvalidParentAddsNothing() {
+    RoCrate crate = new RoCrate();
+    crate.addDataEntity(new DataEntity.DataEntityBuilder().setId("file").addType("File").build());
+    List<AbstractEntity> entities = createEntities(3);
+    assertThrows(IllegalArgumentException.class,
+        () -> crate.addAll(entities, BulkOptions.defaults().withParentId("file")));
+    assertThrows(IllegalArgumentException.class,
+        () -> crate.addAll(entities, BulkOptions.defaults().withParentId("missing/")));
+    assertEquals(1, crate.getAllDataEntities().size());
+    assertTrue(crate.getAllContextualEntities().isEmpty());
+  }
+
+  @Test
+  void testLargeAddAllKeepsViewsLive() {
+    RoCrate crate = new RoCrate();
+    Collection<DataEntity> view = crate.getDataEntitiesView();
+    // large enough for the payload to resize its maps in advance
+    crate.addAll(createEntities(3000), BulkOptions.defaults());
+    assertEquals(3000, view.size());
+    assertEquals(3000, crate.getAllContextualEntities().size());
+    assertEquals(3000, crate.getRootDataEntity().hasPart.size());
+    assertEquals(1, crate.findByProperty("author", "#person42").size());
+  }
+}
@@ -0,0 +1,156 @@
+package edu.kit.datamanager.ro_crate.crate;
+
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.entities.AbstractEntity;
+import edu.kit.datamanager.ro_crate.entities.contextual.PersonEntity;
+import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
+import edu.kit.datamanager.ro_crate.entities.data.DataSetEntity;
+import edu.kit.datamanager.ro_crate.payload.ConcurrentRoCratePayload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentBuildingTest {
+
+  private static final int THREADS = 8;
+  private static final int FILES_PER_THREAD = 200;
+  private static final int FOLDERS = 4;
+
+  @Test
+  void testAddingFromManyThreads() throws Exception {
+    RoCrate crate = new RoCrate.RoCrateBuilder("name", "description", "2024", "https://spdx.org/licenses/MIT")
+        .addContextualEntity(new PersonEntity.PersonEntityBuilder().setId("#creator").build())
+        .useConcurrentPayload()
+        .build();
+    // entities added to the builder before are kept when switching the payload
+    assertNotNull(crate.getContextualEntityById("#creator"));
+
+    for (int f = 0; f < FOLDERS; f++) {
+      crate.addDataEntity(new DataSetEntity.DataSetBuilder().setId("folder" + f + "/").build());
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        int thread = t;
+        results.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < FILES_PER_THREAD; i++) {
+            String suffix = thread + "-" + i;
+            PersonEntity person = new PersonEntity.PersonEntityBuilder()
+                .setId("#person" + suffix)
+                .addProperty("name", "Person " + suffix)
+                .build();
+            crate.addContextualEntity(person);
+            DataEntity file = new DataEntity.DataEntityBuilder()
+                .setId("file" + suffix)
+                .addType("File")
+                .addIdProperty("author", person.getId())
+                .build();
+            // all threads add to the same few folders
+            crate.addDataEntity(file, "folder" + (i % FOLDERS) + "/");
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> result : results) {
+        result.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int files = THREADS * FILES_PER_THREAD;
+    assertEquals(FOLDERS + files, crate.getAllDataEntities().size());
+    // the persons and the creator
+    assertEquals(files + 1, crate.getAllContextualEntities().size());
+    int parts = 0;
+    for (int f = 0; f < FOLDERS; f++) {
+      DataSetEntity folder = crate.getDataSetById("folder" + f + "/").orElseThrow();
+      parts += folder.hasPart.size();
+    }
+    assertEquals(files, parts);
+    assertEquals(FOLDERS, crate.getRootDataEntity().hasPart.size());
+    assertEquals(files, crate.findByType("File").size());
+    assertEquals(1, crate.findByProperty("author", "#person3-7").size());
+
+    // the indexes are up to date, so deletion removes the references
+    crate.deleteEntityById("file3-7");
+    assertFalse(crate.getDataSetById("folder3/").orElseThrow().hasPart("file3-7"));
+  }
+
+  @Test
+  void testModificationsOfTheSameEntityDoNotOverlap() throws Exception {
+    ConcurrentRoCratePayload payload = new ConcurrentRoCratePayload(1);
+    int[] counter = {0};
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        results.add(executor.submit(() -> {
+          for (int i = 0; i < 10_000; i++) {
+            payload.modifyEntity("id", () -> counter[0]++);
+          }
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(THREADS * 10_000, counter[0]);
+  }
+
+  @Test
+  void testConcurrentPropertyWritesToOneEntity() throws Exception {
+    RoCrate crate = new RoCrate.RoCrateBuilder("name", "description", "2024", "https://spdx.org/licenses/MIT")
+        .addDataEntity(new DataSetEntity.DataSetBuilder().setId("folder/").build())
+        .useConcurrentPayload()
+        .build();
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        int thread = t;
+        results.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < FILES_PER_THREAD; i++) {
+            String suffix = thread + "-" + i;
+            crate.modifyEntity("folder/", folder -> {
+              folder.addProperty("note" + suffix, "value " + suffix);
+              folder.addIdProperty("mentions", "#person" + suffix);
+            });
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> result : results) {
+        result.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    AbstractEntity folder = crate.getDataEntityById("folder/");
+    int writes = THREADS * FILES_PER_THREAD;
+    assertEquals(writes, folder.getPropertyNames().stream().filter(name -> name.startsWith("note")).count());
+    assertEquals(writes, folder.readProperty("mentions").size());
+    assertEquals(1, crate.findByProperty("mentions", "#person3-7").size());
+    assertThrows(IllegalArgumentException.class, () -> crate.modifyEntity("missing", entity -> {}));
+  }
+}
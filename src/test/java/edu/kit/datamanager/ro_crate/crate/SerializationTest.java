@@ -1,9 +1,14 @@
 package edu.kit.datamanager.ro_crate.crate;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.datamanager.ro_crate.HelpFunctions;
 import edu.kit.datamanager.ro_crate.RoCrate;
 import edu.kit.datamanager.ro_crate.entities.contextual.ContextualEntity;
@@ -12,11 +17,18 @@ import edu.kit.datamanager.ro_crate.entities.contextual.PersonEntity;
 import edu.kit.datamanager.ro_crate.entities.contextual.PlaceEntity;
 import edu.kit.datamanager.ro_crate.entities.data.DataSetEntity;
 import edu.kit.datamanager.ro_crate.entities.data.FileEntity;
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+import edu.kit.datamanager.ro_crate.payload.ChangeJournal;
+import edu.kit.datamanager.ro_crate.validation.JsonSchemaValidation;
+import edu.kit.datamanager.ro_crate.validation.Validator;
+import edu.kit.datamanager.ro_crate.writer.Writers;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * @author Nikola Tzotchev on 6.2.2022 г.
  * @version 1
@@ -263,4 +275,90 @@ public class SerializationTest {
 
     HelpFunctions.compareCrateJsonToFileInResources(roCrate, "/json/crate/BiggerExample.json");
   }
+
+  @Test
+  void testWriteJsonMetadataMatchesGetJsonMetadata() throws IOException {
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("minimal", "minimal RO_crate", "2024", "https://creativecommons.org/licenses/by-nc-sa/3.0/au/")
+        .addContextualEntity(new PersonEntity.PersonEntityBuilder()
+            .setId("#joe")
+            .addProperty("name", "Jöe")
+            .build())
+        .addDataEntity(new DataSetEntity.DataSetBuilder()
+            .setId("folder/")
+            .addProperty("name", "a folder")
+            .build())
+        .build();
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    JsonNode expected = objectMapper.readTree(roCrate.getJsonMetadata());
+
+    ByteArrayOutputStream compact = new ByteArrayOutputStream();
+    roCrate.writeJsonMetadata(compact, false);
+    assertEquals(roCrate.getJsonMetadata(), compact.toString(StandardCharsets.UTF_8));
+
+    ByteArrayOutputStream pretty = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        fail("The stream must not be closed by the crate.");
+      }
+    };
+    roCrate.writeJsonMetadata(pretty, true);
+    String prettyString = pretty.toString(StandardCharsets.UTF_8);
+    assertTrue(prettyString.contains("\n"));
+    assertEquals(expected, objectMapper.readTree(prettyString));
+  }
+
+  @Test
+  void testSerializationDoesNotRecordChanges(@TempDir Path temp) throws IOException {
+    PersonEntity person = new PersonEntity.PersonEntityBuilder()
+        .setId("#joe")
+        .addProperty("name", "Joe")
+        .build();
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("minimal", "minimal RO_crate", "2024", "https://creativecommons.org/licenses/by-nc-sa/3.0/au/")
+        .addContextualEntity(person)
+        .addDataEntity(new DataSetEntity.DataSetBuilder()
+            .setId("folder/")
+            .addProperty("name", "a folder")
+            .build())
+        .build();
+    ChangeJournal journal = roCrate.enableChangeJournal();
+
+    roCrate.getJsonMetadata();
+    roCrate.getJsonMetadataTree();
+    roCrate.writeJsonMetadata(new ByteArrayOutputStream(), true);
+    assertTrue(new Validator(new JsonSchemaValidation()).validate(roCrate));
+    // without provenance, saving only serializes and validates the crate
+    Writers.newFolderWriter()
+        .withAutomaticProvenance(null)
+        .save(roCrate, temp.resolve("crate").toString());
+    assertTrue(journal.getChangesSince(0).isEmpty());
+
+    person.addProperty("name", "Jane");
+    assertEquals(1, journal.getChangesSince(0).size());
+    assertEquals("#joe", journal.getChangesSince(0).get(0).entityId());
+  }
+
+  @Test
+  void testDirectChangesAfterSerialization() throws IOException {
+    DataSetEntity folder = new DataSetEntity.DataSetBuilder()
+        .setId("folder/")
+        .addProperty("name", "a folder")
+        .addIdProperty("author", "#joe")
+        .build();
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("minimal", "minimal RO_crate", "2024", "https://creativecommons.org/licenses/by-nc-sa/3.0/au/")
+        .addDataEntity(folder)
+        .build();
+    assertFalse(roCrate.getJsonMetadata().contains("x.txt"));
+
+    // the hasPart set notifies the crate about changes
+    folder.hasPart.add("x.txt");
+    assertTrue(roCrate.getJsonMetadata().contains("x.txt"));
+    folder.hasPart.remove("x.txt");
+    assertFalse(roCrate.getJsonMetadata().contains("x.txt"));
+
+    // objects returned by getProperty may be changed in place
+    ((ObjectNode) folder.getProperty("author")).put("@id", "#jane");
+    String json = roCrate.getJsonMetadata();
+    assertTrue(json.contains("#jane"));
+    assertFalse(json.contains("#joe"));
+  }
 }
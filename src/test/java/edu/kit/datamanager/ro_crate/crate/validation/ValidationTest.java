@@ -7,7 +7,9 @@ import edu.kit.datamanager.ro_crate.Crate;
 import edu.kit.datamanager.ro_crate.RoCrate;
 import edu.kit.datamanager.ro_crate.entities.data.WorkflowEntity;
 import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+import edu.kit.datamanager.ro_crate.validation.JsonSchemaRegistry;
 import edu.kit.datamanager.ro_crate.validation.JsonSchemaValidation;
+import edu.kit.datamanager.ro_crate.validation.ValidationPolicy;
 import edu.kit.datamanager.ro_crate.validation.Validator;
 
 import org.junit.jupiter.api.Test;
@@ -17,9 +19,9 @@ import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Objects;
+import java.util.stream.IntStream;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class ValidationTest {
 
@@ -53,4 +55,51 @@ public class ValidationTest {
     // crate should not match this schema
     assertFalse(validator.validate(crate));
   }
+
+  @Test
+  void testSchemasAreCompiledOnce() throws IOException, URISyntaxException {
+    URL schemaUrl = Objects.requireNonNull(ValidationTest.class.getResource("/crates/validation/workflowschema.json"));
+    assertSame(JsonSchemaRegistry.getSchema(schemaUrl.toURI()), JsonSchemaRegistry.getSchema(schemaUrl.toURI()));
+
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    JsonNode first;
+    JsonNode second;
+    try (InputStream inputStream = schemaUrl.openStream()) {
+      first = objectMapper.readTree(inputStream);
+    }
+    try (InputStream inputStream = schemaUrl.openStream()) {
+      second = objectMapper.readTree(inputStream);
+    }
+    assertNotSame(first, second);
+    assertSame(JsonSchemaRegistry.getSchema(first), JsonSchemaRegistry.getSchema(second));
+    assertSame(
+        JsonSchemaRegistry.getResourceSchema(JsonSchemaRegistry.DEFAULT_CRATE_SCHEMA),
+        JsonSchemaRegistry.getResourceSchema(JsonSchemaRegistry.DEFAULT_CRATE_SCHEMA));
+  }
+
+  @Test
+  void testMetadataTreeEqualsMetadata() throws IOException {
+    Crate crate = new RoCrate.RoCrateBuilder("name", "description", "2024-01-01", "https://creativecommons.org/licenses/by/4.0/")
+        .addDataEntity(
+            new WorkflowEntity.WorkflowEntityBuilder()
+                .setId("https://www.example.com/entity")
+                .build()
+        )
+        .build();
+    assertEquals(MyObjectMapper.getMapper().readTree(crate.getJsonMetadata()), crate.getJsonMetadataTree());
+    assertTrue(new JsonSchemaValidation().validate(crate.getJsonMetadataTree()));
+  }
+
+  @Test
+  void testValidationPolicies() {
+    assertTrue(ValidationPolicy.ALWAYS.shouldValidate());
+    assertTrue(ValidationPolicy.ALWAYS.shouldValidate());
+    assertFalse(ValidationPolicy.OFF.shouldValidate());
+    assertFalse(ValidationPolicy.OFF.shouldValidate());
+
+    ValidationPolicy sampled = ValidationPolicy.sampled(3);
+    long validated = IntStream.range(0, 9).filter(i -> sampled.shouldValidate()).count();
+    assertEquals(3, validated);
+    assertThrows(IllegalArgumentException.class, () -> ValidationPolicy.sampled(0));
+  }
 }
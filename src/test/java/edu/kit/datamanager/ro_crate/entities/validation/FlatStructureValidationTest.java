@@ -0,0 +1,52 @@
+package edu.kit.datamanager.ro_crate.entities.validation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FlatStructureValidationTest {
+
+    private final FlatStructureValidation flat = new FlatStructureValidation();
+    private final JsonSchemaValidation schema = new JsonSchemaValidation();
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "'\"text\"'                                  | true",
+            "42                                        | true",
+            "4.2                                       | true",
+            "true                                      | true",
+            "null                                      | true",
+            "'{\"@id\": \"#person\"}'                    | true",
+            "'[\"a\", 1, false, null, {\"@id\": \"x\"}]' | true",
+            "[]                                        | true",
+            "'{}'                                      | false",
+            "'{\"@id\": 1}'                             | false",
+            "'{\"@id\": \"x\", \"name\": \"y\"}'          | false",
+            "'{\"name\": \"y\"}'                         | false",
+            "'[[\"nested\"]]'                           | false",
+            "'[{\"@id\": \"x\"}, {\"name\": \"y\"}]'      | false",
+    })
+    void testFieldValidationEqualsSchema(String json, boolean expected) throws JsonProcessingException {
+        JsonNode field = MyObjectMapper.getMapper().readTree(json);
+        assertEquals(expected, flat.validateFieldOfEntity(field));
+        assertEquals(expected, schema.validateFieldOfEntity(field));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "'{\"@id\": \"a\", \"@type\": [\"File\", \"Thing\"], \"author\": {\"@id\": \"#p\"}}' | true",
+            "'{}'                                                                          | true",
+            "'{\"@id\": \"a\", \"nested\": {\"name\": \"b\"}}'                                | false",
+            "'[]'                                                                          | false",
+            "'\"text\"'                                                                      | false",
+    })
+    void testEntityValidationEqualsSchema(String json, boolean expected) throws JsonProcessingException {
+        JsonNode entity = MyObjectMapper.getMapper().readTree(json);
+        assertEquals(expected, flat.validateEntity(entity));
+        assertEquals(expected, schema.validateEntity(entity));
+    }
+}
@@ -13,8 +13,12 @@ import io.json.compare.JSONCompare;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class UtilFunctionsTest {
@@ -53,6 +57,57 @@ public class UtilFunctionsTest {
     assertTrue(result.contains("string2"));
   }
 
+  @Test
+  void testRemovingReferences() {
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    ObjectNode jsonNode = objectMapper.createObjectNode();
+    jsonNode.put("@id", "self");
+    jsonNode.put("name", "a");
+    jsonNode.set("single", objectMapper.createObjectNode().put("@id", "a"));
+    jsonNode.set("multiple", objectMapper.createArrayNode()
+        .add(objectMapper.createObjectNode().put("@id", "a"))
+        .add(objectMapper.createObjectNode().put("@id", "b"))
+        .add(objectMapper.createObjectNode().put("@id", "c")));
+    jsonNode.set("nested", objectMapper.createObjectNode()
+        .put("@id", "d")
+        .set("member", objectMapper.createObjectNode().put("@id", "b")));
+
+    Set<String> references = new HashSet<>();
+    JsonUtilFunctions.collectReferences(jsonNode.get("multiple"), references);
+    JsonUtilFunctions.collectReferences(jsonNode.get("nested"), references);
+    assertEquals(Set.of("a", "b", "c", "d"), references);
+
+    // only the given properties are visited
+    assertTrue(JsonUtilFunctions.removeReferences(jsonNode, List.of("single", "multiple", "nested"), Set.of("a", "b")));
+    assertEquals("a", jsonNode.get("name").asText());
+    assertFalse(jsonNode.has("single"));
+    assertEquals(1, jsonNode.get("multiple").size());
+    assertEquals("c", jsonNode.get("multiple").get(0).get("@id").asText());
+    assertFalse(jsonNode.get("nested").has("member"));
+    assertEquals("d", jsonNode.get("nested").get("@id").asText());
+
+    assertTrue(JsonUtilFunctions.removeReferences(jsonNode, List.of("multiple"), Set.of("c")));
+    assertFalse(jsonNode.has("multiple"));
+    assertFalse(JsonUtilFunctions.removeReferences(jsonNode, List.of("@id", "name"), Set.of("c")));
+  }
+
+  @Test
+  void testRemovingFieldsFromArrayWithConsecutiveMatches() {
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    ObjectNode jsonNode = objectMapper.createObjectNode();
+    jsonNode.put("first", "id");
+    jsonNode.put("second", "id");
+    jsonNode.put("third", "other");
+    jsonNode.set("array", objectMapper.createArrayNode().add("id").add("id").add("other"));
+
+    JsonUtilFunctions.removeFieldsWith("id", jsonNode);
+    assertFalse(jsonNode.has("first"));
+    assertFalse(jsonNode.has("second"));
+    assertEquals("other", jsonNode.get("third").asText());
+    assertEquals(1, jsonNode.get("array").size());
+    assertEquals("other", jsonNode.get("array").get(0).asText());
+  }
+
   @Test
   void testGettingIdFromObject() {
     ObjectMapper objectMapper = MyObjectMapper.getMapper();
@@ -9,8 +9,18 @@ import edu.kit.datamanager.ro_crate.entities.contextual.PersonEntity;
 import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
 import edu.kit.datamanager.ro_crate.entities.data.DataSetEntity;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+import edu.kit.datamanager.ro_crate.special.JsonUtilFunctions;
+
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -170,4 +180,239 @@ public class PayloadTest {
     // when the first entity is deleted its occurrence in hasPart has to removed as well
     assertNull(setWithoutHasPart.getProperty("hasPart"));
   }
+
+  @Test
+  void testRemoveEntitiesByIdRemovesReferences() {
+    var alice = new PersonEntity.PersonEntityBuilder().setId("#alice").build();
+    var bob = new PersonEntity.PersonEntityBuilder().setId("#bob").build();
+    var file = new DataEntity.DataEntityBuilder()
+        .setId("file.txt")
+        .addProperty("name", "#alice")
+        .addIdProperty("author", alice)
+        .addIdProperty("author", bob)
+        .build();
+    var other = new DataEntity.DataEntityBuilder()
+        .setId("other.txt")
+        .addIdProperty("author", alice)
+        .build();
+    var set = new DataSetEntity.DataSetBuilder()
+        .setId("set/")
+        .addToHasPart(file)
+        .addToHasPart(other)
+        .build();
+    this.payload.addContextualEntity(alice);
+    this.payload.addContextualEntity(bob);
+    this.payload.addDataEntity(file);
+    this.payload.addDataEntity(other);
+    this.payload.addDataEntity(set);
+
+    this.payload.removeEntityById("#alice");
+    assertNull(this.payload.getEntityById("#alice"));
+    // only the reference is removed, not other values equal to the id
+    assertEquals("#alice", file.getProperty("name").asText());
+    assertEquals(Set.of("#bob"), referencedIds(file.getProperty("author")));
+    assertNull(other.getProperty("author"));
+
+    // references added after adding the entity to the payload are considered as well
+    other.addIdProperty("author", bob.getId());
+    this.payload.removeEntitiesById(Set.of("#bob", "file.txt"));
+    assertEquals(Set.of("set/", "other.txt"), ids(this.payload.getAllEntities()));
+    assertNull(other.getProperty("author"));
+    assertFalse(set.hasPart("file.txt"));
+    assertTrue(set.hasPart("other.txt"));
+  }
+
+  private static Set<String> referencedIds(JsonNode value) {
+    Set<String> ids = new HashSet<>();
+    JsonUtilFunctions.collectReferences(value, ids);
+    return ids;
+  }
+
+  private String writeEntities() throws IOException {
+    StringWriter writer = new StringWriter();
+    try (JsonGenerator generator = MyObjectMapper.getMapper().getFactory().createGenerator(writer)) {
+      generator.writeStartArray();
+      this.payload.writeEntitiesMetadata(generator);
+      generator.writeEndArray();
+    }
+    return writer.toString();
+  }
+
+  @Test
+  void testWrittenEntitiesEqualEntitiesMetadata() throws IOException {
+    this.payload.addDataEntity(new DataSetEntity.DataSetBuilder()
+        .setId("set/")
+        .addProperty("name", "set")
+        .build());
+    this.payload.addContextualEntity(new PersonEntity.PersonEntityBuilder()
+        .setId("#person")
+        .setGivenName("petko")
+        .build());
+    JsonNode written = MyObjectMapper.getMapper().readTree(writeEntities());
+    assertEquals(2, written.size());
+    assertEquals(
+        new HashSet<>(this.payload.getEntitiesMetadata().valueStream().toList()),
+        new HashSet<>(written.valueStream().toList()));
+  }
+
+  @Test
+  void testCachedSerializationFollowsChanges() throws IOException {
+    var file = new DataEntity.DataEntityBuilder()
+        .setId("file.txt")
+        .addProperty("description", "first")
+        .build();
+    var set = new DataSetEntity.DataSetBuilder()
+        .setId("set/")
+        .build();
+    this.payload.addDataEntity(file);
+    this.payload.addDataEntity(set);
+    String first = writeEntities();
+    // nothing changed, so the result is the same
+    assertEquals(first, writeEntities());
+
+    file.addProperty("description", "second");
+    String second = writeEntities();
+    assertTrue(second.contains("second"));
+    assertFalse(second.contains("first"));
+
+    set.addToHasPart("file.txt");
+    assertTrue(writeEntities().contains("\"hasPart\":{\"@id\":\"file.txt\"}"));
+
+    // modifications to the properties node are considered as well,
+    // even if the node is kept and modified after a write
+    ObjectNode fileProperties = file.getProperties();
+    assertFalse(writeEntities().contains("changed directly"));
+    fileProperties.put("name", "changed directly");
+    assertTrue(writeEntities().contains("changed directly"));
+    fileProperties.put("name", "changed again");
+    assertTrue(writeEntities().contains("changed again"));
+
+    this.payload.removeEntityById("file.txt");
+    JsonNode remaining = MyObjectMapper.getMapper().readTree(writeEntities());
+    assertEquals(1, remaining.size());
+    assertEquals("set/", remaining.get(0).path("@id").asText());
+  }
+
+  private static Set<String> ids(Collection<? extends AbstractEntity> entities) {
+    return entities.stream().map(AbstractEntity::getId).collect(Collectors.toSet());
+  }
+
+  @Test
+  void testFindByTypeAndProperty() {
+    var person = new PersonEntity.PersonEntityBuilder()
+        .setId("#person")
+        .setGivenName("petko")
+        .build();
+    var csv = new DataEntity.DataEntityBuilder()
+        .setId("data.csv")
+        .addType("File")
+        .addProperty("encodingFormat", "text/csv")
+        .addIdProperty("author", "#person")
+        .build();
+    var txt = new DataEntity.DataEntityBuilder()
+        .setId("notes.txt")
+        .addType("File")
+        .addProperty("encodingFormat", "text/plain")
+        .build();
+    this.payload.addContextualEntity(person);
+    this.payload.addDataEntity(csv);
+    this.payload.addDataEntity(txt);
+
+    assertEquals(Set.of("#person"), ids(this.payload.findByType("Person")));
+    assertEquals(Set.of("data.csv", "notes.txt"), ids(this.payload.findByType("File")));
+    assertEquals(Set.of("data.csv"), ids(this.payload.findByProperty("encodingFormat", "text/csv")));
+    // references are found by the referenced id
+    assertEquals(Set.of("data.csv"), ids(this.payload.findByProperty("author", "#person")));
+    assertTrue(this.payload.getIndexedProperties().containsAll(Set.of("encodingFormat", "author")));
+
+    // the indexes follow changes of the entities
+    txt.addProperty("encodingFormat", "text/csv");
+    txt.addType("Dataset");
+    assertEquals(Set.of("data.csv", "notes.txt"), ids(this.payload.findByProperty("encodingFormat", "text/csv")));
+    assertTrue(this.payload.findByProperty("encodingFormat", "text/plain").isEmpty());
+    assertEquals(Set.of("notes.txt"), ids(this.payload.findByType("Dataset")));
+    txt.getProperties().put("encodingFormat", "application/json");
+    assertEquals(Set.of("notes.txt"), ids(this.payload.findByProperty("encodingFormat", "application/json")));
+
+    // removing the person removes the references to it as well
+    this.payload.removeEntityById("#person");
+    assertTrue(this.payload.findByType("Person").isEmpty());
+    assertTrue(this.payload.findByProperty("author", "#person").isEmpty());
+    this.payload.removeEntityById("data.csv");
+    assertEquals(Set.of("notes.txt"), ids(this.payload.findByType("File")));
+  }
+
+  @Test
+  void testViewsAreLiveAndUnmodifiable() {
+    var dataView = this.payload.getDataEntitiesView();
+    var contextualView = this.payload.getContextualEntitiesView();
+    assertTrue(dataView.isEmpty());
+
+    this.payload.addDataEntity(new DataEntity.DataEntityBuilder().setId("file.txt").build());
+    this.payload.addContextualEntity(new PersonEntity.PersonEntityBuilder().setId("#person").build());
+    assertEquals(1, dataView.size());
+    assertEquals(1, contextualView.size());
+    assertEquals(Set.of("file.txt", "#person"), ids(this.payload.streamEntities().toList()));
+    assertEquals(Set.of("#person"), ids(this.payload.streamContextualEntities().toList()));
+
+    assertThrows(UnsupportedOperationException.class, dataView::clear);
+    assertThrows(UnsupportedOperationException.class,
+        () -> contextualView.remove(contextualView.iterator().next()));
+
+    this.payload.removeEntityById("file.txt");
+    assertTrue(dataView.isEmpty());
+    // the copying methods are independent of the payload
+    var copy = this.payload.getAllContextualEntities();
+    this.payload.removeEntityById("#person");
+    assertEquals(1, copy.size());
+    assertTrue(contextualView.isEmpty());
+  }
+
+  @Test
+  void testChangeJournalRecordsLatestChangePerEntity() {
+    assertTrue(this.payload.getChangeJournal().isEmpty());
+    DataEntity before = new DataEntity.DataEntityBuilder().setId("before").build();
+    this.payload.addDataEntity(before);
+
+    ChangeJournal journal = this.payload.enableChangeJournal();
+    assertSame(journal, this.payload.enableChangeJournal());
+    assertEquals(0, journal.size());
+
+    DataEntity file = new DataEntity.DataEntityBuilder().setId("file").build();
+    PersonEntity person = new PersonEntity.PersonEntityBuilder().setId("#person").build();
+    this.payload.addDataEntity(file);
+    this.payload.addContextualEntity(person);
+    long persisted = journal.getSequence();
+
+    file.addProperty("name", "changed");
+    file.addProperty("description", "changed again");
+    this.payload.removeEntityById("#person");
+
+    var changes = journal.getChangesSince(persisted);
+    assertEquals(2, changes.size());
+    assertEquals("file", changes.get(0).entityId());
+    assertEquals(ChangeJournal.Kind.CHANGED, changes.get(0).kind());
+    assertEquals("#person", changes.get(1).entityId());
+    assertEquals(ChangeJournal.Kind.REMOVED, changes.get(1).kind());
+    // only the latest change of each entity is kept
+    assertEquals(2, journal.getChangesSince(0).size());
+
+    journal.discardUpTo(journal.getSequence());
+    assertTrue(journal.getChangesSince(0).isEmpty());
+    before.addProperty("name", "changed");
+    assertEquals("before", journal.getChangesSince(0).get(0).entityId());
+  }
+
+  @Test
+  void testEntityInTwoPayloadsNotifiesBoth() {
+    RoCratePayload other = new RoCratePayload();
+    DataEntity file = new DataEntity.DataEntityBuilder().setId("file").addType("File").build();
+    this.payload.addDataEntity(file);
+    // adding it again does not add another observer
+    this.payload.addDataEntity(file);
+    other.addDataEntity(file);
+    file.addType("Dataset");
+    assertEquals(1, this.payload.findByType("Dataset").size());
+    assertEquals(1, other.findByType("Dataset").size());
+  }
 }
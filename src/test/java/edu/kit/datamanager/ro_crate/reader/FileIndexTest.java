@@ -0,0 +1,51 @@
+package edu.kit.datamanager.ro_crate.reader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileIndexTest {
+
+    @Test
+    void testIndexesFolderRecursively(@TempDir Path temp) throws IOException {
+        Files.writeString(temp.resolve("top.txt"), "12345", StandardCharsets.UTF_8);
+        Path sub = Files.createDirectories(temp.resolve("sub/deeper"));
+        Path deep = Files.writeString(sub.resolve("deep.csv"), "a,b", StandardCharsets.UTF_8);
+        FileTime modified = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(deep, modified);
+
+        FileIndex index = FileIndex.of(temp);
+        assertEquals(4, index.size());
+        assertTrue(index.contains(temp.resolve("sub")));
+        assertTrue(index.contains(temp.resolve("sub/./deeper/../deeper/deep.csv")));
+        assertFalse(index.contains(temp.resolve("missing.txt")));
+        assertFalse(index.contains(temp));
+
+        FileIndex.FileInfo top = index.get(temp.resolve("top.txt")).orElseThrow();
+        assertEquals(5, top.size());
+        assertFalse(top.isDirectory());
+        assertEquals(modified, index.get(deep).orElseThrow().lastModified());
+        assertTrue(index.get(temp.resolve("sub")).orElseThrow().isDirectory());
+
+        Set<String> topLevel = index.getTopLevelEntries().stream()
+                .map(path -> path.getFileName().toString())
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("top.txt", "sub"), topLevel);
+        index.getTopLevelEntries().forEach(path -> assertEquals(temp, path.getParent()));
+    }
+
+    @Test
+    void testMissingFolder(@TempDir Path temp) {
+        assertThrows(NoSuchFileException.class, () -> FileIndex.of(temp.resolve("missing")));
+    }
+}
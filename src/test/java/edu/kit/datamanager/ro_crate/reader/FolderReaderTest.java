@@ -4,11 +4,14 @@ import edu.kit.datamanager.ro_crate.Crate;
 import edu.kit.datamanager.ro_crate.HelpFunctions;
 import edu.kit.datamanager.ro_crate.RoCrate;
 import edu.kit.datamanager.ro_crate.entities.contextual.PersonEntity;
+import edu.kit.datamanager.ro_crate.entities.data.FileEntity;
 import edu.kit.datamanager.ro_crate.writer.Writers;
+import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -82,4 +85,50 @@ class FolderReaderTest implements CommonReaderTest<String, ReadFolderStrategy>
     assertEquals(1, c2_read.getAllContextualEntities().size());
     HelpFunctions.compareTwoMetadataJsonNotEqual(c1_read, c2_read);
   }
+
+  /**
+   * Large crates are built in parallel, which must lead to the same crate.
+   */
+  @Test
+  void testParallelReadEqualsSequentialRead(@TempDir Path temp) throws IOException {
+    Path content = temp.resolve("content");
+    RoCrate.RoCrateBuilder builder = CommonReaderTest.newBaseCrate();
+    for (int i = 0; i < 300; i++) {
+      Path file = content.resolve("file" + i + ".csv");
+      FileUtils.writeStringToFile(file.toFile(), "a,b," + i, StandardCharsets.UTF_8);
+      PersonEntity person = new PersonEntity.PersonEntityBuilder()
+              .setId("#person" + i)
+              .addProperty("name", "Person " + i)
+              .build();
+      builder.addContextualEntity(person)
+              .addDataEntity(new FileEntity.FileEntityBuilder()
+                      .setLocationWithExceptions(file)
+                      .setId(file.getFileName().toString())
+                      .addIdProperty("author", person)
+                      .build());
+    }
+    Path crateFolder = temp.resolve("crate");
+    this.saveCrate(builder.build(), crateFolder);
+
+    RoCrate sequential = Readers.newFolderReader()
+            .withParallelism(1)
+            .readCrate(crateFolder.toString());
+    RoCrate parallel = Readers.newFolderReader()
+            .withParallelism(4)
+            .readCrate(crateFolder.toString());
+    RoCrate commonPool = Readers.newFolderReader()
+            .readCrate(crateFolder.toString());
+
+    assertEquals(300, sequential.getAllDataEntities().size());
+    assertEquals(300, sequential.getAllContextualEntities().size());
+    for (RoCrate crate : new RoCrate[]{parallel, commonPool}) {
+      HelpFunctions.compareTwoCrateJson(sequential, crate);
+      assertEquals(sequential.getUntrackedFiles(), crate.getUntrackedFiles());
+      for (int i = 0; i < 300; i++) {
+        String id = "file" + i + ".csv";
+        assertEquals(sequential.getDataEntityById(id).getPath(), crate.getDataEntityById(id).getPath());
+      }
+    }
+    assertThrows(IllegalArgumentException.class, () -> Readers.newFolderReader().withParallelism(0));
+  }
 }
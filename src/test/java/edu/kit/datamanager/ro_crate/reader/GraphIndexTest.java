@@ -0,0 +1,74 @@
+package edu.kit.datamanager.ro_crate.reader;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.datamanager.ro_crate.objectmapper.MyObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphIndexTest {
+
+    private static ObjectNode entity(String json) throws IOException {
+        return (ObjectNode) MyObjectMapper.getMapper().readTree(json);
+    }
+
+    @Test
+    void testDescriptorPrefers11Algorithm() throws IOException {
+        GraphIndex index = new GraphIndex();
+        ObjectNode descriptor12 = entity("{\"@id\": \"ro-crate-metadata.json\", \"about\": {\"@id\": \"./\"}}");
+        ObjectNode descriptor11 = entity("{\"@id\": \"other.json\", \"about\": {\"@id\": \"./\"},"
+                + " \"conformsTo\": {\"@id\": \"https://w3id.org/ro/crate/1.1\"}}");
+        index.add(descriptor12);
+        index.add(descriptor11);
+        assertSame(descriptor11, index.getDescriptor().orElseThrow());
+    }
+
+    @Test
+    void testRootAndRemoval() throws IOException {
+        GraphIndex index = new GraphIndex();
+        ObjectNode descriptor = entity("{\"@id\": \"ro-crate-metadata.json\", \"about\": {\"@id\": \"./\"}}");
+        ObjectNode root = entity("{\"@id\": \"./\", \"hasPart\": [{\"@id\": \"a\"}]}");
+        ObjectNode a = entity("{\"@id\": \"a\", \"hasPart\": {\"@id\": \"b\"}}");
+        ObjectNode b = entity("{\"@id\": \"b\"}");
+        ObjectNode c = entity("{\"@id\": \"c\", \"isPartOf\": [{\"@id\": \"a\"}]}");
+        ObjectNode unrelated = entity("{\"@id\": \"d\", \"isPartOf\": [\"./\"]}");
+        for (ObjectNode node : new ObjectNode[]{a, descriptor, b, root, c, unrelated}) {
+            index.add(node);
+        }
+
+        assertSame(descriptor, index.getDescriptor().orElseThrow());
+        assertSame(root, index.getRoot(descriptor).orElseThrow());
+
+        index.remove(descriptor);
+        index.remove(root);
+        assertEquals(4, index.getEntities().size());
+        assertFalse(index.getEntities().contains(root));
+        // edges to the removed root are not followed
+        assertEquals(Set.of("a", "b", "c"), index.getDataEntityIds(Set.of("a")));
+    }
+
+    @Test
+    void testRootWithSameIdAsDescriptor() throws IOException {
+        GraphIndex index = new GraphIndex();
+        ObjectNode descriptor = entity("{\"@id\": \"x\", \"about\": {\"@id\": \"x\"},"
+                + " \"conformsTo\": {\"@id\": \"https://w3id.org/ro/crate/1.2\"}}");
+        ObjectNode root = entity("{\"@id\": \"x\", \"@type\": \"Dataset\"}");
+        index.add(descriptor);
+        index.add(root);
+        assertSame(root, index.getRoot(descriptor).orElseThrow());
+    }
+
+    @Test
+    void testReferencesShareIdNodes() throws IOException {
+        GraphIndex index = new GraphIndex();
+        ObjectNode file = entity("{\"@id\": \"file\", \"author\": [{\"@id\": \"#joe\"}, {\"@id\": \"#jane\"}]}");
+        ObjectNode joe = entity("{\"@id\": \"#joe\", \"knows\": {\"@id\": \"#jane\"}}");
+        index.add(file);
+        index.add(joe);
+        assertSame(file.get("author").get(0).get("@id"), joe.get("@id"));
+        assertSame(file.get("author").get(1).get("@id"), joe.get("knows").get("@id"));
+    }
+}
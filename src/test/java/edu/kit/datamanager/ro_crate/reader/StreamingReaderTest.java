@@ -0,0 +1,129 @@
+package edu.kit.datamanager.ro_crate.reader;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.datamanager.ro_crate.HelpFunctions;
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the streaming parser of the {@link CrateReader} by comparing its
+ * results with the default, tree-based parsing.
+ */
+class StreamingReaderTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/crates/simple_crate",
+            "/crates/hasPartHierarchy",
+            "/crates/extendedContextExample",
+            "/crates/workflowhub/workflow1",
+            "/crates/other/idrc_project",
+            "/crates/spec-1.2-DRAFT/minimal-with-conformsTo-Array"
+    })
+    void testStreamingFolderReadEqualsTreeRead(String resource) throws IOException {
+        String path = this.getClass().getResource(resource).getPath();
+        RoCrate treeCrate = Readers.newFolderReader().readCrate(path);
+        RoCrate streamedCrate = Readers.newFolderReader()
+                .usingStreamingParser(true)
+                .readCrate(path);
+
+        HelpFunctions.compareTwoCrateJson(treeCrate, streamedCrate);
+        assertEquals(ids(treeCrate.getAllDataEntities()), ids(streamedCrate.getAllDataEntities()));
+        assertEquals(
+                treeCrate.getAllContextualEntities().size(),
+                streamedCrate.getAllContextualEntities().size());
+        assertEquals(treeCrate.getRootDataEntity().hasPart, streamedCrate.getRootDataEntity().hasPart);
+        assertEquals(treeCrate.getUntrackedFiles(), streamedCrate.getUntrackedFiles());
+    }
+
+    @Test
+    void testStreamingZipReadEqualsTreeRead(@TempDir Path temp) throws IOException {
+        String zip = this.getClass().getResource("/crates/workflowhub/workflow-109-5.crate.zip").getPath();
+        RoCrate treeCrate = Readers.newZipPathReader(temp.resolve("tree"), false).readCrate(zip);
+        RoCrate streamedCrate = Readers.newZipPathReader(temp.resolve("streamed"), false)
+                .usingStreamingParser(true)
+                .readCrate(zip);
+        HelpFunctions.compareTwoCrateJson(treeCrate, streamedCrate);
+        assertEquals(ids(treeCrate.getAllDataEntities()), ids(streamedCrate.getAllDataEntities()));
+
+        try (InputStream stream = new FileInputStream(zip)) {
+            RoCrate streamedFromStream = Readers.newZipStreamReader(temp.resolve("stream"), false)
+                    .usingStreamingParser(true)
+                    .readCrate(stream);
+            HelpFunctions.compareTwoCrateJson(treeCrate, streamedFromStream);
+        }
+    }
+
+    @Test
+    void testStreamingReadWithDefaultStrategyStream() throws IOException {
+        String path = this.getClass().getResource("/crates/hasPartHierarchy").getPath();
+        // a strategy which does not override openMetadataJson
+        ReadFolderStrategy folderStrategy = new ReadFolderStrategy();
+        GenericReaderStrategy<String> treeOnlyStrategy = new GenericReaderStrategy<>() {
+            @Override
+            public ObjectNode readMetadataJson(String location) throws IOException {
+                return folderStrategy.readMetadataJson(location);
+            }
+
+            @Override
+            public File readContent(String location) {
+                return folderStrategy.readContent(location);
+            }
+        };
+        RoCrate treeCrate = new CrateReader<>(folderStrategy).readCrate(path);
+        RoCrate streamedCrate = new CrateReader<>(treeOnlyStrategy)
+                .usingStreamingParser(true)
+                .readCrate(path);
+        HelpFunctions.compareTwoCrateJson(treeCrate, streamedCrate);
+    }
+
+    @Test
+    void testStreamingIgnoresUnknownFieldsAndOrder(@TempDir Path temp) throws IOException {
+        // graph before context, unknown top-level fields and non-object graph elements
+        String json = """
+                {
+                  "unknown": {"nested": [1, 2, {"a": "b"}]},
+                  "@graph": [
+                    "not-an-entity",
+                    {"@id": "./", "@type": "Dataset", "hasPart": [{"@id": "data.csv"}]},
+                    {"@id": "ro-crate-metadata.json", "@type": "CreativeWork",
+                     "about": {"@id": "./"}, "conformsTo": {"@id": "https://w3id.org/ro/crate/1.1"}},
+                    {"@id": "data.csv", "@type": "File", "author": {"@id": "#alice"}},
+                    {"@id": "#alice", "@type": "Person", "name": "Alice"}
+                  ],
+                  "@context": "https://w3id.org/ro/crate/1.1/context"
+                }
+                """;
+        Files.writeString(temp.resolve("ro-crate-metadata.json"), json);
+        Files.writeString(temp.resolve("data.csv"), "a,b");
+
+        RoCrate crate = Readers.newFolderReader()
+                .usingStreamingParser(true)
+                .readCrate(temp.toString());
+        assertEquals(Set.of("data.csv"), crate.getRootDataEntity().hasPart);
+        DataEntity data = crate.getDataEntityById("data.csv");
+        assertNotNull(data);
+        assertNotNull(data.getPath());
+        assertNotNull(crate.getContextualEntityById("#alice"));
+        assertTrue(crate.getUntrackedFiles().isEmpty());
+    }
+
+    private static Set<String> ids(Set<? extends DataEntity> entities) {
+        return entities.stream().map(DataEntity::getId).collect(Collectors.toSet());
+    }
+}
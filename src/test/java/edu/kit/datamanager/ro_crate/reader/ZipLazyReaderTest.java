@@ -0,0 +1,115 @@
+package edu.kit.datamanager.ro_crate.reader;
+
+import edu.kit.datamanager.ro_crate.Crate;
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.entities.data.DataEntity;
+import edu.kit.datamanager.ro_crate.writer.CrateWriter;
+import edu.kit.datamanager.ro_crate.writer.WriteZipStreamStrategy;
+import edu.kit.datamanager.ro_crate.writer.Writers;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipLazyReaderTest implements
+        CommonReaderTest<String, ReadZipLazyStrategy>,
+        ElnFileFormatTest<String, ReadZipLazyStrategy>
+{
+    /**
+     * The crates refer to the opened archives, so they are closed after each test.
+     */
+    private final List<ReadZipLazyStrategy> strategies = new ArrayList<>();
+
+    @AfterEach
+    void closeArchives() throws IOException {
+        for (ReadZipLazyStrategy strategy : strategies) {
+            strategy.close();
+        }
+    }
+
+    @Override
+    public void saveCrate(Crate crate, Path target) throws IOException {
+        Writers.newZipPathWriter()
+                .withAutomaticProvenance(null)
+                .save(crate, target.toAbsolutePath().toString());
+        assertTrue(target.toFile().isFile());
+    }
+
+    @Override
+    public Crate readCrate(Path source) throws IOException {
+        return readCrate(newReaderStrategyWithTmp(source.resolveSibling("tmp"), true), source);
+    }
+
+    @Override
+    public ReadZipLazyStrategy newReaderStrategyWithTmp(Path tmpDirectory, boolean useUuidSubfolder) {
+        ReadZipLazyStrategy strategy = new ReadZipLazyStrategy(tmpDirectory, useUuidSubfolder);
+        strategies.add(strategy);
+        assertFalse(strategy.isOpen());
+        return strategy;
+    }
+
+    @Override
+    public Crate readCrate(ReadZipLazyStrategy strategy, Path source) throws IOException {
+        Crate importedCrate = new CrateReader<>(strategy)
+                .readCrate(source.toAbsolutePath().toString());
+        assertTrue(strategy.isOpen());
+        // reading does not require extraction
+        assertFalse(strategy.getExtractor().isExtracted());
+        return importedCrate;
+    }
+
+    @Test
+    void testDataEntitiesReferToArchive(@TempDir Path temp) throws IOException {
+        Path csvPath = temp.resolve("data.csv");
+        FileUtils.writeStringToFile(csvPath.toFile(), "a,b,c", StandardCharsets.UTF_8);
+        RoCrate rawCrate = CommonReaderTest.newBaseCrate()
+                .addDataEntity(CommonReaderTest.newDataEntity(csvPath))
+                .build();
+
+        // ELN-style, so the crate is in a subfolder of the archive
+        Path zipPath = temp.resolve("result.eln");
+        try (FileOutputStream stream = new FileOutputStream(zipPath.toFile())) {
+            new CrateWriter<>(new WriteZipStreamStrategy().usingElnStyle())
+                    .withAutomaticProvenance(null)
+                    .save(rawCrate, stream);
+        }
+
+        try (ReadZipLazyStrategy strategy = new ReadZipLazyStrategy(temp.resolve("tmp"), true)) {
+            Crate importedCrate = new CrateReader<>(strategy).readCrate(zipPath.toString());
+            assertFalse(strategy.getExtractor().isExtracted());
+
+            DataEntity entity = importedCrate.getDataEntityById("data.csv");
+            assertNotNull(entity);
+            assertNotSame(FileSystems.getDefault(), entity.getPath().getFileSystem());
+            assertEquals("a,b,c", Files.readString(entity.getPath()));
+
+            // the content is copied from the archive on demand
+            Path target = temp.resolve("folder");
+            Writers.newFolderWriter()
+                    .withAutomaticProvenance(null)
+                    .save(importedCrate, target.toString());
+            assertEquals("a,b,c", Files.readString(target.resolve("data.csv")));
+
+            Path zipTarget = temp.resolve("copy.zip");
+            Writers.newZipPathWriter()
+                    .withAutomaticProvenance(null)
+                    .save(importedCrate, zipTarget.toString());
+            try (ReadZipLazyStrategy copy = new ReadZipLazyStrategy()) {
+                Crate copiedCrate = new CrateReader<>(copy).readCrate(zipTarget.toString());
+                assertEquals("a,b,c", Files.readString(copiedCrate.getDataEntityById("data.csv").getPath()));
+            }
+        }
+        assertFalse(Files.exists(temp.resolve("tmp")));
+    }
+}
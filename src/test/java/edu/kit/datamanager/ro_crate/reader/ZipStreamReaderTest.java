@@ -1,11 +1,21 @@
 package edu.kit.datamanager.ro_crate.reader;
 
 import edu.kit.datamanager.ro_crate.Crate;
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.entities.data.FileEntity;
 import edu.kit.datamanager.ro_crate.writer.Writers;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Random;
 import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -73,4 +83,126 @@ class ZipStreamReaderTest implements
             return importedCrate;
         }
     }
+
+    /**
+     * Writes a zip file with the given entries, in the given order.
+     * Entries with null content are the metadata of a crate with one file.
+     */
+    private static Path writeZip(Path target, Object... namesAndContents) throws IOException {
+        RoCrate crate = new RoCrate.RoCrateBuilder("metadata only", "a crate", "2024-01-01",
+                "https://creativecommons.org/licenses/by/4.0/")
+                .addDataEntity(new FileEntity.FileEntityBuilder()
+                        .setId("data.bin")
+                        .addProperty("name", "payload")
+                        .build())
+                .build();
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(target))) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry((String) namesAndContents[i]));
+                byte[] content = (byte[]) namesAndContents[i + 1];
+                zip.write(content != null ? content : crate.getJsonMetadata().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return target;
+    }
+
+    @Test
+    void testMetadataOnlyStopsAfterMetadata(@TempDir Path temp) throws IOException {
+        byte[] payload = new byte[4 * 1024 * 1024];
+        new Random(42).nextBytes(payload);
+        Path zip = writeZip(temp.resolve("crate.zip"),
+                "ro-crate-metadata.json", null,
+                "data.bin", payload);
+        ReadZipStreamStrategy strategy = new ReadZipStreamStrategy(temp.resolve("extracted"), false)
+                .withMetadataOnly(true);
+        assertTrue(strategy.isMetadataOnly());
+        try (BoundedInputStream stream = BoundedInputStream.builder().setPath(zip).get()) {
+            RoCrate crate = new CrateReader<>(strategy).readCrate(stream);
+            assertEquals("payload", crate.getDataEntityById("data.bin").getProperty("name").asText());
+            assertTrue(stream.getCount() < payload.length / 2);
+        }
+        assertTrue(strategy.isExtracted());
+        assertFalse(strategy.getTemporaryFolder().toFile().exists());
+    }
+
+    @Test
+    void testMetadataOnlySkipsEntriesBeforeMetadata(@TempDir Path temp) throws IOException {
+        Path zip = writeZip(temp.resolve("crate.eln"),
+                "crate/data.bin", "some content".getBytes(StandardCharsets.UTF_8),
+                "crate/ro-crate-metadata.json", null);
+        ReadZipStreamStrategy strategy = new ReadZipStreamStrategy(temp.resolve("extracted"), false)
+                .withMetadataOnly(true);
+        try (InputStream stream = Files.newInputStream(zip)) {
+            RoCrate crate = new CrateReader<>(strategy).readCrate(stream);
+            assertNotNull(crate.getDataEntityById("data.bin"));
+        }
+        assertFalse(strategy.getTemporaryFolder().toFile().exists());
+    }
+
+    @Test
+    void testMetadataOnlyStopsAfterElnMetadata(@TempDir Path temp) throws IOException {
+        byte[] payload = new byte[4 * 1024 * 1024];
+        new Random(42).nextBytes(payload);
+        Path zip = writeZip(temp.resolve("crate.eln"),
+                "crate/ro-crate-metadata.json", null,
+                "crate/data.bin", payload);
+        ReadZipStreamStrategy strategy = new ReadZipStreamStrategy(temp.resolve("extracted"), false)
+                .withMetadataOnly(true);
+        try (BoundedInputStream stream = BoundedInputStream.builder().setPath(zip).get()) {
+            RoCrate crate = new CrateReader<>(strategy).readCrate(stream);
+            assertEquals("payload", crate.getDataEntityById("data.bin").getProperty("name").asText());
+            assertTrue(stream.getCount() < payload.length / 2);
+        }
+        assertFalse(strategy.getTemporaryFolder().toFile().exists());
+    }
+
+    @Test
+    void testMetadataOnlyPrefersRootOverNestedCrate(@TempDir Path temp) throws IOException {
+        RoCrate nested = new RoCrate.RoCrateBuilder("nested", "a nested crate", "2024-01-01",
+                "https://creativecommons.org/licenses/by/4.0/")
+                .addDataEntity(new FileEntity.FileEntityBuilder()
+                        .setId("nested.bin")
+                        .build())
+                .build();
+        Path zip = writeZip(temp.resolve("crate.zip"),
+                "nested/ro-crate-metadata.json", nested.getJsonMetadata().getBytes(StandardCharsets.UTF_8),
+                "ro-crate-metadata.json", null);
+        for (int inMemoryLimit : new int[]{16 * 1024, 0}) {
+            ReadZipStreamStrategy strategy = new ReadZipStreamStrategy(temp.resolve("extracted"), true)
+                    .withMetadataOnly(true)
+                    .withStrictMetadataLookup(true)
+                    .withInMemoryLimit(inMemoryLimit);
+            try (InputStream stream = Files.newInputStream(zip)) {
+                RoCrate crate = new CrateReader<>(strategy).readCrate(stream);
+                assertNotNull(crate.getDataEntityById("data.bin"));
+                assertNull(crate.getDataEntityById("nested.bin"));
+            }
+        }
+    }
+
+    @Test
+    void testMetadataOnlySpillsLargeMetadata(@TempDir Path temp) throws IOException {
+        Path zip = writeZip(temp.resolve("crate.zip"), "ro-crate-metadata.json", null);
+        ReadZipStreamStrategy strategy = new ReadZipStreamStrategy(temp.resolve("extracted"), false)
+                .withMetadataOnly(true)
+                .withInMemoryLimit(0);
+        try (InputStream stream = Files.newInputStream(zip)) {
+            RoCrate crate = new CrateReader<>(strategy).readCrate(stream);
+            assertNotNull(crate.getDataEntityById("data.bin"));
+        }
+        assertTrue(strategy.getTemporaryFolder().resolve("ro-crate-metadata.json").toFile().isFile());
+    }
+
+    @Test
+    void testMetadataOnlyWithoutMetadata(@TempDir Path temp) throws IOException {
+        Path zip = writeZip(temp.resolve("crate.zip"),
+                "a/b/ro-crate-metadata.json", "{}".getBytes(StandardCharsets.UTF_8));
+        ReadZipStreamStrategy strategy = new ReadZipStreamStrategy(temp.resolve("extracted"), false)
+                .withMetadataOnly(true);
+        try (InputStream stream = Files.newInputStream(zip)) {
+            CrateReader<InputStream> reader = new CrateReader<>(strategy);
+            assertThrows(IllegalStateException.class, () -> reader.readCrate(stream));
+        }
+    }
 }
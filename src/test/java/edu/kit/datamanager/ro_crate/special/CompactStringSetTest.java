@@ -0,0 +1,66 @@
+package edu.kit.datamanager.ro_crate.special;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class CompactStringSetTest {
+
+    @Test
+    public void testBehavesLikeHashSet() {
+        Set<String> compact = new CompactStringSet();
+        Set<String> expected = new HashSet<>();
+        // crosses the switch from the array to the hash set and back
+        for (int i = 0; i < 3 * CompactStringSet.MAX_ARRAY_SIZE; i++) {
+            assertEquals(expected.add("id" + i % 20), compact.add("id" + i % 20));
+            assertEquals(expected, compact);
+        }
+        for (int i = 0; i < 20; i += 3) {
+            assertEquals(expected.remove("id" + i), compact.remove("id" + i));
+            assertEquals(expected, compact);
+        }
+        assertEquals(expected.hashCode(), compact.hashCode());
+        compact.clear();
+        assertTrue(compact.isEmpty());
+        assertTrue(compact.add("id0"));
+        assertEquals(Set.of("id0"), compact);
+    }
+
+    @Test
+    public void testSmallSetKeepsInsertionOrder() {
+        Set<String> compact = new CompactStringSet(List.of("File", "Dataset", "SoftwareSourceCode"));
+        assertFalse(compact.add("Dataset"));
+        assertEquals(List.of("File", "Dataset", "SoftwareSourceCode"), new ArrayList<>(compact));
+        assertTrue(compact.contains("File"));
+        assertFalse(compact.contains(null));
+        assertTrue(compact.add(null));
+        assertTrue(compact.contains(null));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        Set<String> compact = new CompactStringSet(List.of("a", "b", "c", "d"));
+        for (Iterator<String> iterator = compact.iterator(); iterator.hasNext(); ) {
+            if (!iterator.next().equals("c")) {
+                iterator.remove();
+            }
+        }
+        assertEquals(Set.of("c"), compact);
+
+        Iterator<String> iterator = compact.iterator();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        iterator.next();
+        // growing the set replaces its storage
+        for (int i = 0; i < CompactStringSet.MAX_ARRAY_SIZE; i++) {
+            compact.add("id" + i);
+        }
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+}
@@ -0,0 +1,145 @@
+package edu.kit.datamanager.ro_crate.util;
+
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.entities.data.FileEntity;
+import edu.kit.datamanager.ro_crate.reader.CrateReader;
+import edu.kit.datamanager.ro_crate.reader.ReadZipStrategy;
+import edu.kit.datamanager.ro_crate.reader.ReadZipStreamStrategy;
+import edu.kit.datamanager.ro_crate.writer.Writers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TempSpaceTest {
+
+    private static Path writeZip(Path temp) throws IOException {
+        Path content = temp.resolve("content.txt");
+        Files.writeString(content, "0123456789", StandardCharsets.UTF_8);
+        RoCrate crate = new RoCrate.RoCrateBuilder("temp space", "a crate with a file", "2024-01-01",
+                "https://creativecommons.org/licenses/by/4.0/")
+                .addDataEntity(new FileEntity.FileEntityBuilder()
+                        .setLocation(content)
+                        .setId("content.txt")
+                        .build())
+                .build();
+        Path zip = temp.resolve("crate.zip");
+        Writers.newZipPathWriter().save(crate, zip.toString());
+        return zip;
+    }
+
+    @Test
+    void testLeaseIsDeletedWithLastReference(@TempDir Path temp) throws IOException {
+        TempSpace space = new TempSpace(temp.resolve("space"));
+        TempSpace.Lease lease = space.allocate("test");
+        assertTrue(lease.getFolder().startsWith(temp.resolve("space").resolve("test")));
+        assertTrue(Files.isDirectory(lease.getFolder()));
+        lease.reserve(100);
+        assertEquals(100, space.getBytesHeld());
+        assertEquals(1, space.getFolderCount());
+
+        lease.close();
+        assertFalse(lease.isHeld());
+        assertFalse(Files.exists(lease.getFolder()));
+        assertEquals(0, space.getBytesHeld());
+        assertEquals(0, space.getFolderCount());
+        assertThrows(IllegalStateException.class, () -> lease.retainFor(new Object()));
+    }
+
+    @Test
+    void testOwnersKeepTheFolder(@TempDir Path temp) throws IOException, InterruptedException {
+        TempSpace space = new TempSpace(temp);
+        TempSpace.Lease lease = space.allocate("test");
+        Object owner = new Object();
+        lease.retainFor(owner);
+        lease.close();
+        assertTrue(lease.isHeld());
+        assertTrue(Files.isDirectory(lease.getFolder()));
+
+        owner = null;
+        for (int i = 0; i < 50 && lease.isHeld(); i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertFalse(lease.isHeld());
+        assertFalse(Files.exists(lease.getFolder()));
+    }
+
+    @Test
+    void testQuota(@TempDir Path temp) throws IOException {
+        TempSpace space = new TempSpace(temp, 100);
+        TempSpace.Lease lease = space.allocate("test");
+        lease.reserve(60);
+        assertThrows(IOException.class, () -> lease.reserve(41));
+        assertEquals(60, space.getBytesHeld());
+        lease.reserve(40);
+        assertThrows(IOException.class, () -> space.allocate("test"));
+        lease.close();
+        space.allocate("test").close();
+    }
+
+    @Test
+    void testCloseDeletesAllFolders(@TempDir Path temp) throws IOException {
+        TempSpace space = new TempSpace(temp);
+        TempSpace.Lease first = space.allocate("test");
+        TempSpace.Lease second = space.allocate("test");
+        second.retainFor(this);
+        space.close();
+        assertFalse(Files.exists(first.getFolder()));
+        assertFalse(Files.exists(second.getFolder()));
+        assertEquals(0, space.getFolderCount());
+        assertThrows(IllegalStateException.class, () -> space.allocate("test"));
+    }
+
+    @Test
+    void testZipReaderUsesSpace(@TempDir Path temp) throws IOException {
+        Path zip = writeZip(temp);
+        Path root = temp.resolve("session");
+        try (TempSpace session = new TempSpace(root)) {
+            ReadZipStrategy strategy = new ReadZipStrategy().withTempSpace(session);
+            RoCrate crate = new CrateReader<>(strategy).readCrate(zip.toString());
+            assertTrue(strategy.getTemporaryFolder().startsWith(root));
+            assertTrue(strategy.getTemporaryContent().isPresent());
+            assertTrue(session.getBytesHeld() >= 10);
+            assertEquals(1, session.getFolderCount());
+            Path file = crate.getDataEntityById("content.txt").getPath();
+            assertTrue(Files.isRegularFile(file));
+
+            session.close();
+            assertFalse(Files.exists(file));
+            assertEquals(0, session.getBytesHeld());
+        }
+    }
+
+    @Test
+    void testZipStreamReaderUsesSpace(@TempDir Path temp) throws IOException {
+        Path zip = writeZip(temp);
+        Path root = temp.resolve("session");
+        try (TempSpace session = new TempSpace(root);
+             InputStream stream = Files.newInputStream(zip)) {
+            ReadZipStreamStrategy strategy = new ReadZipStreamStrategy().withTempSpace(session);
+            RoCrate crate = new CrateReader<>(strategy).readCrate(stream);
+            assertTrue(strategy.getTemporaryFolder().startsWith(root));
+            assertTrue(session.getBytesHeld() >= 10);
+            assertTrue(Files.isRegularFile(crate.getDataEntityById("content.txt").getPath()));
+        }
+        assertFalse(Files.exists(root.resolve("zipStreamReader")) && root.resolve("zipStreamReader").toFile().list().length > 0);
+    }
+
+    @Test
+    void testZipReaderRespectsQuota(@TempDir Path temp) throws IOException {
+        Path zip = writeZip(temp);
+        TempSpace session = new TempSpace(temp.resolve("session"), 5);
+        ReadZipStrategy strategy = new ReadZipStrategy().withTempSpace(session);
+        CrateReader<String> reader = new CrateReader<>(strategy);
+        assertThrows(IOException.class, () -> reader.readCrate(zip.toString()));
+        assertFalse(Files.exists(strategy.getTemporaryFolder()));
+        assertEquals(0, session.getFolderCount());
+    }
+}
@@ -0,0 +1,178 @@
+package edu.kit.datamanager.ro_crate.writer;
+
+import edu.kit.datamanager.ro_crate.Crate;
+import edu.kit.datamanager.ro_crate.RoCrate;
+import edu.kit.datamanager.ro_crate.entities.data.FileEntity;
+import edu.kit.datamanager.ro_crate.reader.CrateReader;
+import edu.kit.datamanager.ro_crate.reader.ReadZipLazyStrategy;
+import edu.kit.datamanager.ro_crate.reader.ReadZipStrategy;
+import edu.kit.datamanager.ro_crate.reader.Readers;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelZipStreamWriterTest implements
+        CommonWriterTest,
+        ElnFileWriterTest
+{
+
+  @Override
+  public void saveCrate(Crate crate, Path target) throws IOException {
+    try (FileOutputStream stream = new FileOutputStream(target.toFile())) {
+      new CrateWriter<>(new WriteParallelZipStreamStrategy().withThreads(4))
+              .withAutomaticProvenance(null)
+              .save(crate, stream);
+    }
+  }
+
+  @Override
+  public void saveCrateElnStyle(Crate crate, Path target) throws IOException {
+    try (FileOutputStream stream = new FileOutputStream(target.toFile())) {
+      new CrateWriter<>(new WriteParallelZipStreamStrategy().withThreads(4).usingElnStyle())
+              .withAutomaticProvenance(null)
+              .save(crate, stream);
+    }
+  }
+
+  @Override
+  public void saveCrateSubdirectoryStyle(RoCrate crate, Path target) throws IOException {
+    try (FileOutputStream stream = new FileOutputStream(target.toFile())) {
+      new CrateWriter<>(new WriteParallelZipStreamStrategy().withThreads(4).withRootSubdirectory())
+              .withAutomaticProvenance(null)
+              .save(crate, stream);
+    }
+  }
+
+  @Test
+  void testCompressionPolicyAndSpilling(@TempDir Path tempDir) throws IOException {
+    Path text = tempDir.resolve("data.txt");
+    FileUtils.writeStringToFile(text.toFile(), "some text ".repeat(10000), StandardCharsets.UTF_8);
+    Path image = tempDir.resolve("image.png");
+    FileUtils.writeStringToFile(image.toFile(), "not really an image", StandardCharsets.UTF_8);
+
+    RoCrate crate = new RoCrate.RoCrateBuilder("name", "description", "2024-01-01", "https://creativecommons.org/licenses/by/4.0/")
+            .addDataEntity(new FileEntity.FileEntityBuilder().setLocation(text).build())
+            .addDataEntity(new FileEntity.FileEntityBuilder().setLocation(image).build())
+            .build();
+
+    Path spill = tempDir.resolve("spill");
+    Path target = tempDir.resolve("crate.zip");
+    try (FileOutputStream stream = new FileOutputStream(target.toFile())) {
+      new CrateWriter<>(new WriteParallelZipStreamStrategy()
+              .withThreads(2)
+              // force spilling of every compressed entry to disk
+              .withInMemoryLimit(0)
+              .withSpillDirectory(spill)
+              .withCompressionPolicy(CompressionPolicy.storeAlreadyCompressed(Deflater.BEST_SPEED)))
+              .withAutomaticProvenance(null)
+              .save(crate, stream);
+    }
+
+    try (ZipFile zip = ZipFile.builder().setPath(target).get()) {
+      assertEquals(ZipEntry.DEFLATED, zip.getEntry("data.txt").getMethod());
+      assertEquals(ZipEntry.STORED, zip.getEntry("image.png").getMethod());
+      assertArrayEquals(Files.readAllBytes(text), zip.getInputStream(zip.getEntry("data.txt")).readAllBytes());
+      assertArrayEquals(Files.readAllBytes(image), zip.getInputStream(zip.getEntry("image.png")).readAllBytes());
+    }
+    // temporary files are removed after writing
+    try (var remaining = Files.list(spill)) {
+      assertEquals(0, remaining.count());
+    }
+
+    try (FileInputStream stream = new FileInputStream(target.toFile())) {
+      RoCrate read = Readers.newZipStreamReader().readCrate(stream);
+      assertEquals(crate.getAllDataEntities().size(), read.getAllDataEntities().size());
+      assertNotNull(read.getDataEntityById("data.txt"));
+      assertNotNull(read.getDataEntityById("image.png"));
+    }
+
+    assertThrows(IllegalArgumentException.class, () -> new WriteParallelZipStreamStrategy().withInMemoryLimit(-1));
+  }
+
+  @Test
+  void testCopiesUnchangedEntries(@TempDir Path tempDir) throws IOException {
+    Path unchanged = tempDir.resolve("unchanged.txt");
+    Path modified = tempDir.resolve("modified.txt");
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      content.append(i % 7).append(" line ").append(i * 31 % 1000).append('\n');
+    }
+    FileUtils.writeStringToFile(unchanged.toFile(), content.toString(), StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(modified.toFile(), content.toString(), StandardCharsets.UTF_8);
+    RoCrate crate = new RoCrate.RoCrateBuilder("name", "description", "2024-01-01", "https://creativecommons.org/licenses/by/4.0/")
+            .addDataEntity(new FileEntity.FileEntityBuilder().setLocation(unchanged).build())
+            .addDataEntity(new FileEntity.FileEntityBuilder().setLocation(modified).build())
+            .build();
+
+    // fast compression in the source, best compression in the copy
+    Path source = tempDir.resolve("source.zip");
+    try (FileOutputStream stream = new FileOutputStream(source.toFile())) {
+      new CrateWriter<>(new WriteParallelZipStreamStrategy()
+              .withCompressionPolicy(CompressionPolicy.uniform(Deflater.BEST_SPEED)))
+              .withAutomaticProvenance(null)
+              .save(crate, stream);
+    }
+
+    ReadZipStrategy reader = new ReadZipStrategy(tempDir.resolve("extracted"), false);
+    RoCrate read = new CrateReader<>(reader).readCrate(source.toString());
+    read.getRootDataEntity().addProperty("description", "edited");
+    FileUtils.writeStringToFile(read.getDataEntityById("modified.txt").getPath().toFile(), "new content", StandardCharsets.UTF_8);
+
+    Path target = tempDir.resolve("target.zip");
+    new CrateWriter<>(new WriteZipStrategy(new WriteParallelZipStreamStrategy()
+            .withCompressionPolicy(CompressionPolicy.uniform(Deflater.BEST_COMPRESSION))
+            .copyingUnchangedEntriesFrom(reader)))
+            .withAutomaticProvenance(null)
+            .save(read, target.toString());
+
+    try (ZipFile sourceZip = ZipFile.builder().setPath(source).get();
+         ZipFile targetZip = ZipFile.builder().setPath(target).get()) {
+      // the unchanged entry has been copied as it is, not compressed again
+      ZipArchiveEntry sourceEntry = sourceZip.getEntry("unchanged.txt");
+      ZipArchiveEntry targetEntry = targetZip.getEntry("unchanged.txt");
+      assertEquals(sourceEntry.getCrc(), targetEntry.getCrc());
+      assertArrayEquals(
+              sourceZip.getRawInputStream(sourceEntry).readAllBytes(),
+              targetZip.getRawInputStream(targetEntry).readAllBytes());
+      assertEquals(content.toString(), new String(targetZip.getInputStream(targetEntry).readAllBytes(), StandardCharsets.UTF_8));
+
+      // the modified entry and the metadata are written anew
+      ZipArchiveEntry modifiedEntry = targetZip.getEntry("modified.txt");
+      assertEquals("new content", new String(targetZip.getInputStream(modifiedEntry).readAllBytes(), StandardCharsets.UTF_8));
+      String metadata = new String(targetZip.getInputStream(targetZip.getEntry("ro-crate-metadata.json")).readAllBytes(), StandardCharsets.UTF_8);
+      assertTrue(metadata.contains("edited"));
+    }
+
+    // the lazy reader allows copying all entries
+    Path copy = tempDir.resolve("copy.zip");
+    try (ReadZipLazyStrategy lazyReader = new ReadZipLazyStrategy()) {
+      RoCrate lazy = new CrateReader<>(lazyReader).readCrate(target.toString());
+      new CrateWriter<>(new WriteZipStrategy(new WriteParallelZipStreamStrategy()
+              .withCompressionPolicy(CompressionPolicy.uniform(Deflater.BEST_SPEED))
+              .copyingUnchangedEntriesFrom(lazyReader)))
+              .withAutomaticProvenance(null)
+              .save(lazy, copy.toString());
+    }
+    try (ZipFile targetZip = ZipFile.builder().setPath(target).get();
+         ZipFile copyZip = ZipFile.builder().setPath(copy).get()) {
+      for (String name : new String[]{"unchanged.txt", "modified.txt"}) {
+        assertArrayEquals(
+                targetZip.getRawInputStream(targetZip.getEntry(name)).readAllBytes(),
+                copyZip.getRawInputStream(copyZip.getEntry(name)).readAllBytes());
+      }
+    }
+  }
+}